@@ -0,0 +1,127 @@
+package se306.scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.TaskGraph;
+import se306.scheduler.logic.Scheduler;
+import se306.scheduler.logic.SequentialAlgorithm;
+
+/**
+ * Measures how long it takes to load a large graph: reading the DOT file into a {@link Scheduler} and compiling it into
+ * a {@link TaskGraph}. A random DAG with each number of edges (and a fifth as many tasks) is written to a temporary
+ * file, then loaded several times and the median time reported. The read is also timed with the original
+ * {@link RegexDotReader} for comparison, along with the bytes each reader allocates, and so is loading the same graph
+ * once it has been saved as a {@link BinaryGraphFile}.
+ *
+ * Usage: java se306.scheduler.LoaderBenchmark [runs] [edges...]
+ */
+public class LoaderBenchmark {
+    private static final int WARMUP_RUNS = 3;
+    private static final int EDGES_PER_TASK = 5;
+
+    public static void main(String[] args) throws IOException, InvalidFileFormatException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int[] edgeCounts = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[] {10_000, 100_000, 1_000_000};
+
+        System.out.printf("%10s %10s %12s %12s %14s %14s %15s %15s%n", "tasks", "edges", "read ms", "compile ms",
+                "read MB alloc", "regex read ms", "regex MB alloc", "binary read ms");
+        for (int numEdges : edgeCounts) {
+            int numTasks = Math.max(2, numEdges / EDGES_PER_TASK);
+            File file = File.createTempFile("loader-" + numEdges + "-", ".dot");
+            file.deleteOnExit();
+            writeRandomGraph(file, numTasks, numEdges, new Random(306));
+            File binaryFile = File.createTempFile("loader-" + numEdges + "-", BinaryGraphFile.EXTENSION);
+            binaryFile.deleteOnExit();
+            DotFile converter = new DotFile(file.getPath());
+            converter.read(new Scheduler(new SequentialAlgorithm()));
+            converter.writeBinary(binaryFile.getPath());
+
+            long[] readTimes = new long[runs];
+            long[] compileTimes = new long[runs];
+            long[] regexReadTimes = new long[runs];
+            long[] binaryReadTimes = new long[runs];
+            long readBytes = 0;
+            long regexReadBytes = 0;
+            for (int run = -WARMUP_RUNS; run < runs; run++) {
+                Scheduler regexScheduler = new Scheduler(new SequentialAlgorithm());
+                long regexAllocated = allocatedBytes();
+                long regexStart = System.nanoTime();
+                new RegexDotReader(file.getPath()).read(regexScheduler);
+                long regexRead = System.nanoTime();
+                regexAllocated = allocatedBytes() - regexAllocated;
+
+                Scheduler scheduler = new Scheduler(new SequentialAlgorithm());
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+                new DotFile(file.getPath()).read(scheduler);
+                long read = System.nanoTime();
+                allocated = allocatedBytes() - allocated;
+                TaskGraph graph = TaskGraph.compile(scheduler.getNodes());
+                long compiled = System.nanoTime();
+                Scheduler binaryScheduler = new Scheduler(new SequentialAlgorithm());
+                long binaryStart = System.nanoTime();
+                new DotFile(binaryFile.getPath()).read(binaryScheduler);
+                long binaryRead = System.nanoTime();
+                if (graph.size() != numTasks || binaryScheduler.getNodes().size() != numTasks) {
+                    throw new IllegalStateException("Expected " + numTasks + " tasks but loaded " + graph.size());
+                }
+                if (run >= 0) {
+                    readTimes[run] = read - start;
+                    compileTimes[run] = compiled - read;
+                    regexReadTimes[run] = regexRead - regexStart;
+                    binaryReadTimes[run] = binaryRead - binaryStart;
+                    readBytes = allocated;
+                    regexReadBytes = regexAllocated;
+                }
+            }
+            Arrays.sort(readTimes);
+            Arrays.sort(compileTimes);
+            Arrays.sort(regexReadTimes);
+            Arrays.sort(binaryReadTimes);
+            System.out.printf("%10d %10d %12.1f %12.1f %14.1f %14.1f %15.1f %15.1f%n", numTasks, numEdges,
+                    readTimes[runs / 2] / 1e6, compileTimes[runs / 2] / 1e6, readBytes / 1e6,
+                    regexReadTimes[runs / 2] / 1e6, regexReadBytes / 1e6, binaryReadTimes[runs / 2] / 1e6);
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by this thread so far.
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Writes a DAG with `numEdges` distinct edges between `numTasks` tasks to `file`. Edges always go from a lower
+     * numbered task to a higher one, so there are no cycles.
+     */
+    private static void writeRandomGraph(File file, int numTasks, int numEdges, Random random) throws IOException {
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.println("digraph \"loader\" {");
+            for (int task = 0; task < numTasks; task++) {
+                out.printf("\tt%d\t[Weight=%d];%n", task, 1 + random.nextInt(10));
+            }
+            Set<Long> edges = new HashSet<>();
+            while (edges.size() < numEdges) {
+                int a = random.nextInt(numTasks);
+                int b = random.nextInt(numTasks);
+                if (a == b || !edges.add((long) Math.min(a, b) * numTasks + Math.max(a, b))) {
+                    continue;
+                }
+                out.printf("\tt%d -> t%d\t[Weight=%d];%n", Math.min(a, b), Math.max(a, b), 1 + random.nextInt(10));
+            }
+            out.println("}");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package se306.scheduler;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import se306.scheduler.graph.Node;
+import se306.scheduler.logic.Scheduler;
+
+/**
+ * The original line-by-line DOT reader (a {@link Scanner} to read every line, then regular expressions to pull out
+ * names and weights), kept unchanged as the baseline for {@link LoaderBenchmark}.
+ */
+public class RegexDotReader {
+
+    private File file;
+    private List<String> lines = new ArrayList<>();
+
+    private Scheduler scheduler;
+
+    private static String NAME_REGEX = "\t\\w+\t";
+    private static String WEIGHT_REGEX = "=\\d+\\]";
+    private static String PARENT_NODE_REGEX = "\\w+\\s*->";
+    private static String CHILD_NODE_REGEX = "->\\s*\\w+";
+
+    public RegexDotReader(String fileName) {
+        this.file = new File(fileName);
+    }
+
+    /**
+     * Reads lines within the .dot file
+     *
+     * @param scheduler the scheduler to load the graph into
+     * @throws FileNotFoundException if file entered by user does not exist
+     */
+    public void read(Scheduler scheduler) throws FileNotFoundException {
+        this.scheduler = scheduler;
+        Scanner sc = new Scanner(this.file);
+
+        while (sc.hasNextLine()) {
+            lines.add(sc.nextLine());
+        }
+        sc.close();
+
+        // Iterate through each line and add nodes or dependencies
+        for (String line : lines) {
+            if (!(line.contains("{") && line.contains("}"))) {
+                // Only get lines that create node dependencies
+                if (line.contains("->")) {
+                    addDependency(line);
+                } else {
+                    addNode(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a new node to the graph
+     *
+     * @param s line read from .dot file
+     */
+    private void addNode(String s) {
+        String name = findName(s);
+        int weight = findWeight(s);
+
+        if (name != null) {
+            scheduler.addNode(new Node(name, weight));
+        }
+    }
+
+
+    /**
+     * Adds a new dependency to the graph
+     *
+     * @param s line read from .dot file
+     */
+    private void addDependency(String s) {
+        String parent = regex(regex(s, PARENT_NODE_REGEX), "\\w+");
+        String child = regex(regex(s, CHILD_NODE_REGEX), "\\w+");
+        int weight = findWeight(s);
+
+        if (parent != null && child != null) {
+            scheduler.addChild(parent, child, weight);
+        }
+    }
+
+    /**
+     * Extracts the name of the node from the input string
+     *
+     * @param s line read from .dot file
+     * @return the name of the node
+     */
+    private String findName(String s) {
+        String tempName = regex(s, NAME_REGEX);
+        if (tempName != null) {
+            return regex(tempName, "\\w+");
+        }
+        return null;
+    }
+
+    /**
+     * Extract the weight of the node or dependency from
+     * the input string
+     *
+     * @param s line read from .dot file
+     * @return the weight of the node or dependency
+     */
+    private int findWeight(String s) {
+        String tempWeight = regex(s, WEIGHT_REGEX);
+        if (tempWeight != null) {
+            return Integer.parseInt(regex(tempWeight, "\\d+"));
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first matching regex pattern within a string
+     *
+     * @param s input string to apply regex to
+     * @param regex regex pattern to apply
+     * @return the first match to input string
+     */
+    private String regex(String s, String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        Matcher matcher = pattern.matcher(s);
+        if (matcher.find()) {
+            return matcher.group(0);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,187 @@
+package se306.scheduler.graph;
+
+import java.io.FileNotFoundException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import se306.scheduler.DotFile;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.logic.Scheduler;
+import se306.scheduler.logic.SequentialAlgorithm;
+
+/**
+ * Compares the array-based {@link PartialSchedule} against the original map-based {@link MapPartialSchedule}.
+ *
+ * The throughput test repeats what {@code BNBAlgorithm.bnb} does for each state: every ready task is tried on every
+ * processor (up to the first empty one) by finding its start time, copying the state, scheduling the task and
+ * reading the state's ID (or fingerprint). One of
+ * the children is then picked at random to continue from, restarting at the root when a schedule is complete.
+ * The memory test keeps a large number of half-complete schedules alive and measures the heap they take up.
+ *
+ * Usage: java se306.scheduler.graph.PartialScheduleBenchmark [processors] [graph.dot...]
+ */
+public class PartialScheduleBenchmark {
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long RUN_NANOS = 5_000_000_000L;
+    private static final int RETAINED_STATES = 50_000;
+
+    /**
+     * The operations needed from a schedule representation, so the same workload can be run on both.
+     */
+    private interface Representation<S> {
+        S root(List<Node> graph, int numProcessors);
+        S copy(S state);
+        boolean scheduleTask(S state, Node node, int processor, int startTime);
+        int findBestStartTime(S state, Node node, int processor);
+        boolean dependenciesSatisfied(S state, Node node);
+        boolean allVisited(S state);
+        List<Node> getUnvisitedNodes(S state);
+        boolean isProcessorEmpty(S state, int processor);
+        long id(S state);
+    }
+
+    private static final Representation<PartialSchedule> ARRAYS = new Representation<PartialSchedule>() {
+        public PartialSchedule root(List<Node> graph, int numProcessors) { return new PartialSchedule(graph, numProcessors); }
+        public PartialSchedule copy(PartialSchedule state) { return new PartialSchedule(state); }
+        public boolean scheduleTask(PartialSchedule state, Node node, int p, int t) { return state.scheduleTask(node, p, t); }
+        public int findBestStartTime(PartialSchedule state, Node node, int p) { return state.findBestStartTime(node, p); }
+        public boolean dependenciesSatisfied(PartialSchedule state, Node node) { return state.dependenciesSatisfied(node); }
+        public boolean allVisited(PartialSchedule state) { return state.allVisited(); }
+        public List<Node> getUnvisitedNodes(PartialSchedule state) { return state.getUnvisitedNodes(); }
+        public boolean isProcessorEmpty(PartialSchedule state, int p) { return state.isProcessorEmpty(p); }
+        public long id(PartialSchedule state) { return state.getFingerprint(); }
+    };
+
+    private static final Representation<MapPartialSchedule> MAPS = new Representation<MapPartialSchedule>() {
+        public MapPartialSchedule root(List<Node> graph, int numProcessors) { return new MapPartialSchedule(graph); }
+        public MapPartialSchedule copy(MapPartialSchedule state) { return new MapPartialSchedule(state); }
+        public boolean scheduleTask(MapPartialSchedule state, Node node, int p, int t) { return state.scheduleTask(node, p, t); }
+        public int findBestStartTime(MapPartialSchedule state, Node node, int p) { return state.findBestStartTime(node, p); }
+        public boolean dependenciesSatisfied(MapPartialSchedule state, Node node) { return state.dependenciesSatisfied(node); }
+        public boolean allVisited(MapPartialSchedule state) { return state.allVisited(); }
+        public List<Node> getUnvisitedNodes(MapPartialSchedule state) { return state.getUnvisitedNodes(); }
+        public boolean isProcessorEmpty(MapPartialSchedule state, int p) { return state.isProcessorEmpty(p); }
+        public long id(MapPartialSchedule state) { return state.toString().length(); }
+    };
+
+    public static void main(String[] args) throws FileNotFoundException, InvalidFileFormatException {
+        int numProcessors = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        List<String> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            files.add(args[i]);
+        }
+        if (files.isEmpty()) {
+            files.add("test_data/Nodes_10_Random.dot");
+            files.add("test_data/Nodes_11_OutTree.dot");
+            files.add("test_data/Nodes_21_floating.dot");
+        }
+
+        System.out.printf("%-28s %-6s %14s %14s%n", "graph", "class", "states/sec", "bytes/state");
+        for (String file : files) {
+            Scheduler scheduler = new Scheduler(new SequentialAlgorithm());
+            new DotFile(file).read(scheduler);
+            List<Node> graph = scheduler.getNodes();
+            String name = file.substring(file.lastIndexOf('/') + 1);
+
+            report(name, "maps", MAPS, graph, numProcessors);
+            report(name, "arrays", ARRAYS, graph, numProcessors);
+        }
+    }
+
+    private static <S> void report(String name, String label, Representation<S> rep, List<Node> graph,
+                                   int numProcessors) {
+        throughput(rep, graph, numProcessors, WARMUP_NANOS);
+        double statesPerSecond = throughput(rep, graph, numProcessors, RUN_NANOS);
+        double bytesPerState = footprint(rep, graph, numProcessors);
+        System.out.printf("%-28s %-6s %14.0f %14.1f%n", name, label, statesPerSecond, bytesPerState);
+    }
+
+    /**
+     * Expands states for `nanos` nanoseconds and returns how many child states were created per second.
+     */
+    private static <S> double throughput(Representation<S> rep, List<Node> graph, int numProcessors, long nanos) {
+        Random random = new Random(306);
+        List<S> children = new ArrayList<>();
+        S state = rep.root(graph, numProcessors);
+        long states = 0;
+        long checksum = 0;
+        long start = System.nanoTime();
+        long end = start + nanos;
+
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 1000; i++) {
+                if (rep.allVisited(state)) {
+                    state = rep.root(graph, numProcessors);
+                }
+                children.clear();
+                for (Node node : rep.getUnvisitedNodes(state)) {
+                    if (!rep.dependenciesSatisfied(state, node)) {
+                        continue;
+                    }
+                    for (int p = 1; p <= numProcessors; p++) {
+                        S child = rep.copy(state);
+                        boolean isFirstOnProcessor = rep.scheduleTask(child, node, p, rep.findBestStartTime(state, node, p));
+                        checksum += rep.id(child);
+                        children.add(child);
+                        // like bnb, only one empty processor is tried
+                        if (isFirstOnProcessor) {
+                            break;
+                        }
+                    }
+                }
+                states += children.size();
+                state = children.get(random.nextInt(children.size()));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        // stops the JIT from removing the ID lookups
+        if (checksum == 42) {
+            System.out.print("");
+        }
+        return states / seconds;
+    }
+
+    /**
+     * Returns the average heap size of a schedule with half of its tasks scheduled.
+     */
+    private static <S> double footprint(Representation<S> rep, List<Node> graph, int numProcessors) {
+        Random random = new Random(306);
+        Object[] retained = new Object[RETAINED_STATES];
+        S root = rep.root(graph, numProcessors);
+        long before = usedHeap();
+        for (int i = 0; i < RETAINED_STATES; i++) {
+            S state = rep.copy(root);
+            for (int scheduled = 0; scheduled < graph.size() / 2; scheduled++) {
+                for (Node node : rep.getUnvisitedNodes(state)) {
+                    if (rep.dependenciesSatisfied(state, node)) {
+                        int p = 1 + random.nextInt(numProcessors);
+                        // processors are filled in order, as they are in the search
+                        while (p > 1 && rep.isProcessorEmpty(state, p - 1)) {
+                            p--;
+                        }
+                        rep.scheduleTask(state, node, p, rep.findBestStartTime(state, node, p));
+                        break;
+                    }
+                }
+            }
+            rep.id(state);
+            retained[i] = state;
+        }
+        long after = usedHeap();
+        if (retained[random.nextInt(RETAINED_STATES)] == null) {
+            System.out.print("");
+        }
+        return (after - before) / (double) RETAINED_STATES;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,97 @@
+package se306.scheduler.logic;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import se306.scheduler.DotFile;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.Node;
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * Compares the time and memory allocated by a full search of the single-threaded engines on the same inputs (by
+ * default, every graph in test_data).
+ * Each engine is warmed up on the input first, then the median time and allocation of several runs is reported.
+ *
+ * Usage: java se306.scheduler.logic.SearchBenchmark [runs] [graph.dot:P...]
+ */
+public class SearchBenchmark {
+    private static final int WARMUP_RUNS = 5;
+
+    private static final Map<String, IntFunction<Algorithm>> ENGINES = new LinkedHashMap<>();
+    static {
+        ENGINES.put("copying", BNBAlgorithm::new);
+        ENGINES.put("in-place", BNBAlgorithmInPlace::new);
+        ENGINES.put("a*", AStarAlgorithm::new);
+    }
+
+    public static void main(String[] args) throws FileNotFoundException, InvalidFileFormatException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<String> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            inputs.add(args[i]);
+        }
+        if (inputs.isEmpty()) {
+            // every input graph in test_data (skipping outputs) on 2 processors, as some are out of reach on more
+            File[] files = new File("test_data").listFiles((dir, name) -> name.endsWith(".dot") && !name.contains("out"));
+            Arrays.sort(files);
+            for (File file : files) {
+                inputs.add(file.getPath() + ":2");
+            }
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        System.out.printf("%-30s %-10s %9s %12s %15s%n", "graph", "engine", "makespan", "median ms", "median bytes");
+        for (String input : inputs) {
+            String file = input.substring(0, input.lastIndexOf(':'));
+            int numProcessors = Integer.parseInt(input.substring(input.lastIndexOf(':') + 1));
+            Scheduler loader = new Scheduler(new SequentialAlgorithm());
+            new DotFile(file).read(loader);
+            List<Node> graph = loader.getNodes();
+
+            for (Map.Entry<String, IntFunction<Algorithm>> engine : ENGINES.entrySet()) {
+                long[] times = new long[runs];
+                long[] bytes = new long[runs];
+                int makespan = 0;
+                for (int run = -WARMUP_RUNS; run < runs; run++) {
+                    Algorithm algorithm = engine.getValue().apply(numProcessors);
+                    algorithm.setGraph(graph);
+                    int[] result = new int[1];
+                    algorithm.addListener(new AlgorithmListener() {
+                        @Override
+                        public void algorithmCompleted(PartialSchedule schedule) {
+                            result[0] = schedule.getMakespan();
+                        }
+
+                        @Override
+                        public void newOptimalFound(PartialSchedule schedule) {
+                        }
+                    });
+
+                    long startBytes = threads.getThreadAllocatedBytes(thread);
+                    long startTime = System.nanoTime();
+                    algorithm.schedule();
+                    if (run >= 0) {
+                        times[run] = System.nanoTime() - startTime;
+                        bytes[run] = threads.getThreadAllocatedBytes(thread) - startBytes;
+                    }
+                    makespan = result[0];
+                }
+                Arrays.sort(times);
+                Arrays.sort(bytes);
+                String name = file.substring(file.lastIndexOf('/') + 1) + " P=" + numProcessors;
+                System.out.printf("%-30s %-10s %9d %12.2f %15d%n", name, engine.getKey(), makespan,
+                        times[runs / 2] / 1e6, bytes[runs / 2]);
+            }
+        }
+    }
+}
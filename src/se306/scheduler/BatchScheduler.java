@@ -0,0 +1,338 @@
+package se306.scheduler;
+
+import com.martiansoftware.jsap.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Schedules many graphs in one JVM, so each one does not pay for starting Java and warming up the JIT.
+ *
+ * The jobs come from a directory (every .dot and binary graph in it), a glob such as {@code graphs/*.dot}, or a
+ * manifest file with one {@code INPUT [P [OUTPUT]]} job per line. Graphs from a directory or glob, and manifest lines
+ * without a P, are scheduled on each number of processors given with --processors. Several jobs can run at once, each
+ * with its own {@link SchedulingJob}; a job writes its output as soon as it finishes, and a row of the summary table is
+ * printed for it at the same time.
+ */
+public class BatchScheduler {
+    public static final String COMMAND = "batch";
+
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    /**
+     * A graph to schedule and where to write its schedule, or null for the default output.
+     */
+    static final class Entry {
+        final String input;
+        final int numProcessors;
+        final String output;
+
+        Entry(String input, int numProcessors, String output) {
+            this.input = input;
+            this.numProcessors = numProcessors;
+            this.output = output;
+        }
+    }
+
+    /**
+     * Runs the batch described by `args` (everything after the batch command), and returns the exit status: 0 if
+     * every job succeeded and 1 otherwise.
+     */
+    public static int run(String[] args) {
+        SimpleJSAP jsap = buildParser();
+        JSAPResult config = jsap.parse(args);
+        if (!config.success()) {
+            if (!config.getBoolean("help")) {
+                System.out.println("Usage: java -jar scheduler.jar " + COMMAND + " " + jsap.getUsage() + "\n");
+                System.out.println(jsap.getHelp(JSAP.DEFAULT_SCREENWIDTH, ""));
+            }
+            return 1;
+        }
+
+        List<SchedulingJob> jobs;
+        try {
+            jobs = createJobs(config);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            System.out.println(e.getMessage());
+            return 1;
+        }
+        if (jobs.isEmpty()) {
+            System.out.println("No graphs found in " + config.getString("SOURCE"));
+            return 1;
+        }
+        return runJobs(jobs, config.getInt("JOBS"));
+    }
+
+    /**
+     * Creates a job for each graph and number of processors in the batch described by `config`. The memory budgets
+     * are split between the jobs that run at once, so the batch as a whole stays within them.
+     * @throws IllegalArgumentException if an option or manifest line is invalid
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    static List<SchedulingJob> createJobs(JSAPResult config) {
+        List<SchedulingJob> jobs = new ArrayList<>();
+        int concurrency = Math.max(1, config.getInt("JOBS"));
+        List<Integer> processors = parseProcessors(config.getString("PROCESSORS"));
+        for (Entry entry : findJobs(config.getString("SOURCE"), processors)) {
+            SchedulingJob job = new SchedulingJob(entry.input, entry.numProcessors);
+            ProcessScheduler.configure(job, config);
+            if (job.getDedupMemory() > 0) {
+                // 0 would mean no limit, so each job keeps at least a byte
+                job.setDuplicateDetection(Math.max(1, job.getDedupMemory() / concurrency), job.getDedupPolicy());
+            }
+            job.setDominanceMemory(job.getDominanceMemory() / concurrency);
+            job.setOutput(entry.output != null ? entry.output : defaultOutput(entry.input, entry.numProcessors,
+                    config.getString("OUTPUT_DIR"), job.getScheduleWriter().getExtension()));
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    /**
+     * Runs `jobs` with up to `concurrency` at once, printing a row of the summary table as each one finishes.
+     * @return 0 if every job succeeded and 1 otherwise
+     */
+    static int runJobs(List<SchedulingJob> jobs, int concurrency) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        CompletionService<Integer> completed = new ExecutorCompletionService<>(executor);
+        long start = System.nanoTime();
+        for (int i = 0; i < jobs.size(); i++) {
+            int index = i;
+            completed.submit(() -> jobs.get(index).run(), index);
+        }
+
+        int inputWidth = Math.max(5, jobs.stream().mapToInt(job -> job.getInput().length()).max().orElse(0));
+        String rowFormat = "%5s  %-" + inputWidth + "s %4s %9s %12s %11s %-12s%n";
+        System.out.printf(rowFormat, "#", "input", "P", "makespan", "lower bound", "search ms", "status");
+        int numOptimal = 0;
+        int numFailed = 0;
+        double searchMillis = 0;
+        try {
+            for (int i = 0; i < jobs.size(); i++) {
+                int index = completed.take().get();
+                SchedulingJob job = jobs.get(index);
+                if (job.getError() != null || job.getResult() == null) {
+                    numFailed++;
+                    System.out.printf(rowFormat, index + 1, job.getInput(), job.getNumProcessors(), "-", "-", "-",
+                            "failed: " + (job.getError() != null ? job.getError() : "no schedule"));
+                    continue;
+                }
+                int makespan = job.getResult().getMakespan();
+                String status;
+                if (job.getLowerBound() < makespan) {
+                    status = String.format(Locale.ROOT, "gap %.2f%%", 100.0 * (makespan - job.getLowerBound()) / makespan);
+                } else {
+                    status = job.isCacheHit() ? "optimal (cached)" : "optimal";
+                    numOptimal++;
+                }
+                searchMillis += job.getElapsedMillis();
+                System.out.printf(rowFormat, index + 1, job.getInput(), job.getNumProcessors(), makespan,
+                        job.getLowerBound(), String.format(Locale.ROOT, "%.1f", job.getElapsedMillis()), status);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            return 1;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        System.out.printf(Locale.ROOT, "%d jobs: %d optimal, %d not proven optimal, %d failed, in %.2f seconds"
+                        + " (%.2f seconds searching)%n", jobs.size(), numOptimal, jobs.size() - numOptimal - numFailed,
+                numFailed, (System.nanoTime() - start) / 1e9, searchMillis / 1e3);
+        return numFailed == 0 ? 0 : 1;
+    }
+
+    /**
+     * Returns the jobs in `source`, which is a directory, a glob or a manifest file, in a fixed order.
+     *
+     * @param processors the numbers of processors to schedule each graph on, when the source does not give one
+     * @throws IllegalArgumentException if the source does not exist, a graph has no number of processors, or a line
+     *         of the manifest is invalid
+     */
+    static List<Entry> findJobs(String source, List<Integer> processors) {
+        List<Entry> entries = new ArrayList<>();
+        List<String> inputs;
+        if (GLOB_CHARACTERS.chars().anyMatch(c -> source.indexOf(c) >= 0)) {
+            inputs = matchGlob(source);
+        } else if (Files.isDirectory(Paths.get(source))) {
+            inputs = listGraphs(Paths.get(source));
+        } else if (Files.isRegularFile(Paths.get(source))) {
+            readManifest(Paths.get(source), processors, entries);
+            return entries;
+        } else {
+            throw new IllegalArgumentException(source + " is not a directory, glob or manifest file");
+        }
+        if (processors.isEmpty() && !inputs.isEmpty()) {
+            throw new IllegalArgumentException("--processors is needed to schedule " + source);
+        }
+        for (String input : inputs) {
+            for (int numProcessors : processors) {
+                entries.add(new Entry(input, numProcessors, null));
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> listGraphs(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).map(Path::toString)
+                    .filter(name -> name.endsWith(".dot") || name.endsWith(BinaryGraphFile.EXTENSION))
+                    .sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns every file that matches `glob`, searching from the directory before its first wildcard
+     */
+    private static List<String> matchGlob(String glob) {
+        int firstWildcard = glob.length();
+        for (char c : GLOB_CHARACTERS.toCharArray()) {
+            if (glob.indexOf(c) >= 0) {
+                firstWildcard = Math.min(firstWildcard, glob.indexOf(c));
+            }
+        }
+        int lastSeparator = Math.max(glob.lastIndexOf('/', firstWildcard), glob.lastIndexOf(File.separatorChar, firstWildcard));
+        Path base = Paths.get(lastSeparator < 0 ? "." : glob.substring(0, lastSeparator + 1));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        try (Stream<Path> files = Files.walk(base)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> lastSeparator < 0 ? base.relativize(file) : file)
+                    .filter(matcher::matches).map(Path::toString).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adds the jobs in a manifest file, with one "INPUT [P [OUTPUT]]" job per line. Paths are relative to the
+     * manifest, and blank lines and lines starting with # are skipped.
+     */
+    private static void readManifest(Path manifest, List<Integer> processors, List<Entry> entries) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            String prefix = manifest + " line " + (i + 1) + ": ";
+            if (fields.length > 3) {
+                throw new IllegalArgumentException(prefix + "expected INPUT [P [OUTPUT]]");
+            }
+            String input = resolve(manifest, fields[0]);
+            String output = fields.length > 2 ? resolve(manifest, fields[2]) : null;
+            List<Integer> lineProcessors;
+            try {
+                lineProcessors = fields.length > 1 ? parseProcessors(fields[1]) : processors;
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(prefix + e.getMessage());
+            }
+            if (lineProcessors.isEmpty()) {
+                throw new IllegalArgumentException(prefix + "no number of processors, and --processors is not set");
+            }
+            if (output != null && lineProcessors.size() > 1) {
+                throw new IllegalArgumentException(prefix + "one OUTPUT cannot be used for several numbers of processors");
+            }
+            for (int numProcessors : lineProcessors) {
+                entries.add(new Entry(input, numProcessors, output));
+            }
+        }
+    }
+
+    /**
+     * Returns `path` relative to the directory of the manifest
+     */
+    private static String resolve(Path manifest, String path) {
+        return manifest.getParent() == null ? path : manifest.getParent().resolve(path).toString();
+    }
+
+    /**
+     * Parses a comma separated list of numbers of processors, or null for none.
+     * @throws IllegalArgumentException if an entry is not a positive number
+     */
+    static List<Integer> parseProcessors(String list) {
+        List<Integer> processors = new ArrayList<>();
+        if (list == null) {
+            return processors;
+        }
+        for (String value : list.split(",")) {
+            try {
+                processors.add(Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'" + value.trim() + "' is not a number of processors");
+            }
+            if (processors.get(processors.size() - 1) < 1) {
+                throw new IllegalArgumentException("'" + value.trim() + "' is not a number of processors");
+            }
+        }
+        return processors;
+    }
+
+    /**
+     * Returns where a job writes its schedule if the manifest does not say: next to the input (or in
+     * `outputDirectory`) named after the input and the number of processors, e.g. graph-p4-output.dot.
+     */
+    static String defaultOutput(String input, int numProcessors, String outputDirectory, String extension) {
+        String name = new File(input).getName();
+        if (name.endsWith(".dot") || name.endsWith(BinaryGraphFile.EXTENSION)) {
+            name = name.substring(0, name.length() - 4);
+        }
+        name += "-p" + numProcessors + "-output" + extension;
+        File directory = outputDirectory != null ? new File(outputDirectory) : new File(input).getParentFile();
+        return directory == null ? name : new File(directory, name).getPath();
+    }
+
+    static SimpleJSAP buildParser() {
+        Parameter source = new UnflaggedOption("SOURCE", JSAP.STRING_PARSER, JSAP.REQUIRED,
+                "A directory of graphs, a glob such as 'graphs/*.dot', or a manifest file of 'INPUT [P [OUTPUT]]' lines");
+
+        Parameter processors = new FlaggedOption("PROCESSORS", JSAP.STRING_PARSER, null, JSAP.NOT_REQUIRED,
+                JSAP.NO_SHORTFLAG, "processors",
+                "Numbers of processors to schedule each graph on, separated by commas, e.g. 2,4 (needed unless every"
+                        + " manifest line has a P)");
+
+        Parameter jobs = new FlaggedOption("JOBS", JSAP.INTEGER_PARSER, "1", JSAP.NOT_REQUIRED, 'j', "jobs",
+                "How many jobs to run at once, sharing the --dedup-mem and --dominance-mem budgets");
+
+        Parameter outputDir = new FlaggedOption("OUTPUT_DIR", JSAP.STRING_PARSER, null, JSAP.NOT_REQUIRED, 'o', null,
+                "Directory to write schedules to (default is next to each input)");
+
+        List<Parameter> parameters = new ArrayList<>(Arrays.asList(source, processors, jobs, outputDir));
+        parameters.addAll(ProcessScheduler.searchOptions());
+        try {
+            return new SimpleJSAP("scheduler.jar " + COMMAND, "Schedules many graphs in one run",
+                    parameters.toArray(new Parameter[0]));
+        } catch (JSAPException e) {
+            e.printStackTrace();
+            System.exit(1);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package se306.scheduler;
+
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.Node;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary form of a task graph, so large graphs that are scheduled many times only need their DOT text parsed
+ * once.
+ *
+ * The file is a header of six ints (magic number, format version, number of tasks, number of edges, number of
+ * statements and length of the name table), followed by the int sections: task weights, the parents of each task in
+ * compressed sparse row form (offsets, parent ids and edge costs, as in {@link se306.scheduler.graph.TaskGraph}), the
+ * statements of the original DOT file as (parent, child) id pairs with a parent of -1 for a task, and the offset of
+ * each task's name in the name table. The names themselves come last, as UTF-8. All ints are big-endian.
+ *
+ * Files are read by memory-mapping them and copying each section out in bulk, so loading does no text parsing.
+ */
+public final class BinaryGraphFile {
+
+    public static final String EXTENSION = ".tgb";
+
+    static final int MAGIC = 0x54474246; // "TGBF"
+    static final int VERSION = 1;
+    private static final int HEADER_INTS = 6;
+
+    private final Node[] nodes;
+    private final int[] statements;
+
+    private BinaryGraphFile(Node[] nodes, int[] statements) {
+        this.nodes = nodes;
+        this.statements = statements;
+    }
+
+    /**
+     * Returns the tasks in the file, in the order they were declared, with their dependencies already added.
+     */
+    public List<Node> getNodes() {
+        return Arrays.asList(nodes);
+    }
+
+    public int getNumStatements() {
+        return statements.length / 2;
+    }
+
+    /**
+     * Returns the id of the parent task of statement `i`, or -1 if the statement declares a task.
+     */
+    public int getStatementParent(int i) {
+        return statements[2 * i];
+    }
+
+    /**
+     * Returns the id of the task declared by statement `i`, or the child task if it is a dependency.
+     */
+    public int getStatementChild(int i) {
+        return statements[2 * i + 1];
+    }
+
+    /**
+     * Writes a graph in the binary format.
+     *
+     * @param path Where the graph will be written
+     * @param nodes Every task in the graph, in the order they were declared. Their parents must also be in the list
+     * @param statements The (parent, child) id pairs of each statement in the original file, with a parent of -1 for
+     *        a task, where the id of a task is its index in `nodes`
+     * @throws IOException if the file cannot be written to
+     */
+    public static void write(Path path, List<Node> nodes, int[] statements) throws IOException {
+        int n = nodes.size();
+        Map<Node, Integer> ids = new IdentityHashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            ids.put(nodes.get(i), i);
+        }
+
+        int[] parentOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            parentOffsets[i + 1] = parentOffsets[i] + nodes.get(i).getIncomingEdges().size();
+        }
+        int numEdges = parentOffsets[n];
+        // parents are stored in id order, the same as a compiled TaskGraph
+        int[] parents = new int[numEdges];
+        int[] parentCosts = new int[numEdges];
+        for (int i = 0; i < n; i++) {
+            long[] edges = new long[nodes.get(i).getIncomingEdges().size()];
+            int e = 0;
+            for (Map.Entry<Node, Integer> edge : nodes.get(i).getIncomingEdges().entrySet()) {
+                Integer parent = ids.get(edge.getKey());
+                if (parent == null) {
+                    throw new IllegalArgumentException("Parent " + edge.getKey().getName() + " of "
+                            + nodes.get(i).getName() + " is not in the graph");
+                }
+                edges[e++] = ((long) parent << 32) | (edge.getValue() & 0xFFFFFFFFL);
+            }
+            Arrays.sort(edges);
+            for (e = 0; e < edges.length; e++) {
+                parents[parentOffsets[i] + e] = (int) (edges[e] >>> 32);
+                parentCosts[parentOffsets[i] + e] = (int) edges[e];
+            }
+        }
+
+        byte[][] names = new byte[n][];
+        int[] nameOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            names[i] = nodes.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            nameOffsets[i + 1] = nameOffsets[i] + names[i].length;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(numEdges);
+            out.writeInt(statements.length / 2);
+            out.writeInt(nameOffsets[n]);
+            for (Node node : nodes) {
+                out.writeInt(node.getWeight());
+            }
+            writeInts(out, parentOffsets);
+            writeInts(out, parents);
+            writeInts(out, parentCosts);
+            writeInts(out, statements);
+            writeInts(out, nameOffsets);
+            for (byte[] name : names) {
+                out.write(name);
+            }
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads a graph in the binary format by memory-mapping it.
+     *
+     * @throws FileNotFoundException if the file does not exist
+     * @throws InvalidFileFormatException if the file is not a graph in a version of the format this can read
+     */
+    public static BinaryGraphFile read(Path path) throws FileNotFoundException, InvalidFileFormatException {
+        if (!Files.isRegularFile(path)) {
+            throw new FileNotFoundException(path.toString());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BinaryGraphFile read(ByteBuffer buffer) throws InvalidFileFormatException {
+        if (buffer.remaining() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new InvalidFileFormatException("is not a binary task graph");
+        }
+        IntBuffer ints = buffer.asIntBuffer();
+        int version = ints.get(1);
+        if (version != VERSION) {
+            throw new InvalidFileFormatException("has unsupported binary format version " + version);
+        }
+        int n = ints.get(2);
+        int numEdges = ints.get(3);
+        int numStatements = ints.get(4);
+        int nameBytes = ints.get(5);
+        if (n < 0 || numEdges < 0 || numStatements < 0 || nameBytes < 0) {
+            throw new InvalidFileFormatException("has a corrupt header");
+        }
+        long numInts = HEADER_INTS + n + (n + 1L) + 2L * numEdges + 2L * numStatements + (n + 1L);
+        if (numInts * Integer.BYTES + nameBytes != buffer.remaining()) {
+            throw new InvalidFileFormatException("is truncated or has trailing data");
+        }
+
+        ints.position(HEADER_INTS);
+        int[] weights = readInts(ints, n);
+        int[] parentOffsets = readInts(ints, n + 1);
+        int[] parents = readInts(ints, numEdges);
+        int[] parentCosts = readInts(ints, numEdges);
+        int[] statements = readInts(ints, 2 * numStatements);
+        int[] nameOffsets = readInts(ints, n + 1);
+        byte[] names = new byte[nameBytes];
+        buffer.position((int) (numInts * Integer.BYTES));
+        buffer.get(names);
+
+        checkOffsets(parentOffsets, numEdges, "edge");
+        checkOffsets(nameOffsets, nameBytes, "name");
+        Node[] nodes = new Node[n];
+        for (int i = 0; i < n; i++) {
+            String name = new String(names, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i], StandardCharsets.UTF_8);
+            nodes[i] = new Node(name, weights[i]);
+        }
+        for (int child = 0; child < n; child++) {
+            for (int e = parentOffsets[child]; e < parentOffsets[child + 1]; e++) {
+                checkTask(parents[e], n);
+                nodes[child].addParent(nodes[parents[e]], parentCosts[e]);
+            }
+        }
+        for (int i = 0; i < numStatements; i++) {
+            if (statements[2 * i] != -1) {
+                checkTask(statements[2 * i], n);
+            }
+            checkTask(statements[2 * i + 1], n);
+        }
+        return new BinaryGraphFile(nodes, statements);
+    }
+
+    private static int[] readInts(IntBuffer ints, int length) {
+        int[] values = new int[length];
+        ints.get(values);
+        return values;
+    }
+
+    /**
+     * Checks that `offsets` starts at 0, never decreases and ends at `end`
+     */
+    private static void checkOffsets(int[] offsets, int end, String section) throws InvalidFileFormatException {
+        for (int i = 0; i < offsets.length - 1; i++) {
+            if (offsets[i] > offsets[i + 1]) {
+                throw new InvalidFileFormatException("has corrupt " + section + " offsets");
+            }
+        }
+        if (offsets[0] != 0 || offsets[offsets.length - 1] != end) {
+            throw new InvalidFileFormatException("has corrupt " + section + " offsets");
+        }
+    }
+
+    private static void checkTask(int task, int n) throws InvalidFileFormatException {
+        if (task < 0 || task >= n) {
+            throw new InvalidFileFormatException("refers to task " + task + " which is not in the graph");
+        }
+    }
+}
@@ -4,56 +4,45 @@ import se306.scheduler.exception.InvalidFileFormatException;
 import se306.scheduler.graph.PartialSchedule;
 import se306.scheduler.graph.Node;
 import se306.scheduler.logic.Scheduler;
+import se306.scheduler.output.DotScheduleWriter;
+import se306.scheduler.output.ScheduleWriter;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
- * This class is responsible for parsing the input and output of a dot file
+ * This class is responsible for parsing the input and output of a dot file.
+ * Graphs can also be read from (and saved to) a {@link BinaryGraphFile}, which is much faster to load, and schedules can
+ * be written in other formats with a {@link ScheduleWriter}.
  */
 public class DotFile {
 
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private File file;
     private String fileName;
-    private List<String> lines;
-    private List<LineRecord> lineRecords = new ArrayList<>();
-    
-    private Scheduler scheduler;
+    // the (parent, child) task ids of each line in the file, so we can keep track of their order. The parent is -1 if
+    // the line is a task, and a task's id is the order it was added to the scheduler in
+    private int[] statements = new int[64];
+    private int numStatements;
+    private Map<String, Integer> taskIds; // the id of the first task with each name, while the file is being read
 
-    private static String NAME_REGEX = "\t\\w+\t";
-    private static String WEIGHT_REGEX = "=\\d+\\]";
-    private static String PARENT_NODE_REGEX = "\\w+\\s*->";
-    private static String CHILD_NODE_REGEX = "->\\s*\\w+";
-    private static String LS = System.lineSeparator();
-    
-    /**
-     * Struct to represent a line in a DOT file, so we can keep track of their order
-     */
-    public class LineRecord {
-        boolean isDependency; // each record will be either a dependency or a task
-        String taskName1;
-        String taskName2; // will be empty if line is a task
-        
-        LineRecord(boolean isDependency, String taskName1) {
-            this(isDependency, taskName1, "");
-        }
-        
-        LineRecord(boolean isDependency, String taskName1, String taskName2) {
-            this.isDependency = isDependency;
-            this.taskName1 = taskName1;
-            this.taskName2 = taskName2;
-        }
-    }
+    private Scheduler scheduler;
 
     /**
-     * Constructor that only accepts .dot files
+     * Constructor that only accepts .dot files, or binary graphs ending in {@link BinaryGraphFile#EXTENSION}
      */
     public DotFile(String fileName) throws InvalidFileFormatException {
-        if (fileName.endsWith(".dot")) {
-            lines = new ArrayList<>();
+        if (fileName.endsWith(".dot") || fileName.endsWith(BinaryGraphFile.EXTENSION)) {
             this.fileName = fileName;
             this.file = new File(fileName);
         } else {
@@ -62,170 +51,167 @@ public class DotFile {
     }
 
     /**
-     * Reads lines within the .dot file
+     * Reads the graph in the .dot file with a {@link DotParser}, or loads it directly if it is a binary graph
      *
      * @param scheduler the scheduler to load the graph into
      * @throws FileNotFoundException if file entered by user does not exist
+     * @throws InvalidFileFormatException if the file is not a valid DOT graph
      */
-    public void read(Scheduler scheduler) throws FileNotFoundException {
+    public void read(Scheduler scheduler) throws FileNotFoundException, InvalidFileFormatException {
         this.scheduler = scheduler;
-        Scanner sc = new Scanner(this.file);
-
-        while (sc.hasNextLine()) {
-            lines.add(sc.nextLine());
+        if (fileName.endsWith(BinaryGraphFile.EXTENSION)) {
+            readBinary();
+            return;
         }
-        sc.close();
-
-        // Iterate through each line and add nodes or dependencies
-        for (String line : lines) {
-            if (!(line.contains("{") && line.contains("}"))) {
-                // Only get lines that create node dependencies
-                if (line.contains("->")) {
-                    addDependency(line);
-                } else {
-                    addNode(line);
+        taskIds = new HashMap<>();
+        try (FileChannel channel = new FileInputStream(file).getChannel()) {
+            new DotParser(channel).parse(new DotParser.Listener() {
+
+                @Override
+                public void task(String name, int weight) {
+                    addNode(name, weight);
                 }
-            }
+
+                @Override
+                public void dependency(String parent, String child, int weight) {
+                    addDependency(parent, child, weight);
+                }
+            });
+        } catch (InvalidFileFormatException e) {
+            throw new InvalidFileFormatException(file.getName() + " " + e.getMessage());
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            taskIds = null;
         }
+        statements = Arrays.copyOf(statements, 2 * numStatements);
     }
 
-    /**
-     * Add a new node to the graph
-     *
-     * @param s line read from .dot file
-     */
-    private void addNode(String s) {
-        String name = findName(s);
-        int weight = findWeight(s);
-
-        if (name != null) {
-            scheduler.addNode(new Node(name, weight));
-            lineRecords.add(new LineRecord(false, name));
+    private void readBinary() throws FileNotFoundException, InvalidFileFormatException {
+        BinaryGraphFile graph;
+        try {
+            graph = BinaryGraphFile.read(file.toPath());
+        } catch (InvalidFileFormatException e) {
+            throw new InvalidFileFormatException(file.getName() + " " + e.getMessage());
+        }
+        // dependencies are already linked, so the nodes only need to be added
+        List<Node> nodes = graph.getNodes();
+        for (Node node : nodes) {
+            scheduler.addNode(node);
+        }
+        statements = new int[2 * graph.getNumStatements()];
+        for (int i = 0; i < graph.getNumStatements(); i++) {
+            addStatement(graph.getStatementParent(i), graph.getStatementChild(i));
         }
     }
 
-
     /**
-     * Adds a new dependency to the graph
+     * Saves the graph that was read as a {@link BinaryGraphFile}, keeping the order of its statements
      *
-     * @param s line read from .dot file
+     * @param fileName Where the binary graph will be written
+     * @throws IOException if the file cannot be written to
      */
-    private void addDependency(String s) {
-        String parent = regex(regex(s, PARENT_NODE_REGEX), "\\w+");
-        String child = regex(regex(s, CHILD_NODE_REGEX), "\\w+");
-        int weight = findWeight(s);
-
-        if (parent != null && child != null) {
-            scheduler.addChild(parent, child, weight);
-            lineRecords.add(new LineRecord(true, parent, child));
-        }
+    public void writeBinary(String fileName) throws IOException {
+        BinaryGraphFile.write(Paths.get(fileName), scheduler.getNodes(), statements);
     }
 
     /**
-     * Extracts the name of the node from the input string
-     *
-     * @param s line read from .dot file
-     * @return the name of the node
+     * Add a new node to the graph
      */
-    private String findName(String s) {
-        String tempName = regex(s, NAME_REGEX);
-        if (tempName != null) {
-            return regex(tempName, "\\w+");
-        }
-        return null;
+    private void addNode(String name, int weight) {
+        int task = scheduler.getNodes().size();
+        scheduler.addNode(new Node(name, weight));
+        // if two nodes have the same name, the first one is used, the same as the scheduler
+        taskIds.putIfAbsent(name, task);
+        addStatement(-1, task);
     }
 
     /**
-     * Extract the weight of the node or dependency from
-     * the input string
-     *
-     * @param s line read from .dot file
-     * @return the weight of the node or dependency
+     * Adds a new dependency to the graph
      */
-    private int findWeight(String s) {
-        String tempWeight = regex(s, WEIGHT_REGEX);
-        if (tempWeight != null) {
-            return Integer.parseInt(regex(tempWeight, "\\d+"));
-        }
-        return -1;
+    private void addDependency(String parent, String child, int weight) {
+        scheduler.addChild(parent, child, weight);
+        addStatement(taskIds.get(parent), taskIds.get(child));
     }
 
-    /**
-     * Find the first matching regex pattern within a string
-     *
-     * @param s input string to apply regex to
-     * @param regex regex pattern to apply
-     * @return the first match to input string
-     */
-    private String regex(String s, String regex) {
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(s);
-        if (matcher.find()) {
-            return matcher.group(0);
+    private void addStatement(int parent, int child) {
+        if (2 * numStatements == statements.length) {
+            statements = Arrays.copyOf(statements, statements.length * 2);
         }
-
-        return null;
+        statements[2 * numStatements] = parent;
+        statements[2 * numStatements + 1] = child;
+        numStatements++;
     }
-    
+
     /**
      * Writes a graph to a file using the DOT format.
-     * All tasks are written (along with the values of the schedule we found), then all dependencies.
+     * All tasks and dependencies are written (along with the values of the schedule we found) in the order they were
+     * read.
      * 
      * @param fileName Where the output will be written
      * @param schedule The list of nodes assigned to a schedule
      * @throws IOException if the file cannot be written to
      */
     public void write(String fileName, PartialSchedule schedule) throws IOException {
-        //Create correct name for top of dot file
-        String dotFileName = file.getName();
-        String extensionRemoved;
-        String capitalised = dotFileName;
-        if (dotFileName.length()>=4) {
-            extensionRemoved = dotFileName.substring(0, dotFileName.length() - 4);
-            capitalised = extensionRemoved.substring(0, 1).toUpperCase() + extensionRemoved.substring(1);
-        }
-
-        StringBuilder output = new StringBuilder("digraph \"output" + capitalised + "\" {" + LS);
+        write(fileName, schedule, schedule.getMakespan());
+    }
 
-        // a map of task name to output string, which we will later access in the order specified by `lineRecords`
-        Map<String, String> taskStrings = new HashMap<String, String>();
-        // generate all task strings
-        for (Node node: schedule.getNodes()) {
-            taskStrings.put(node.getName(), String.format("\t%s\t[Weight=%d,Start=%d,Processor=%d];" + LS, node.getName(), node.getWeight(),
-                    schedule.getStartTime(node), schedule.getProcessor(node)));
-        }
+    /**
+     * Writes a schedule that may not be optimal to a file using the DOT format. If `lowerBound` is less than the
+     * makespan of the schedule, it is written as a graph attribute along with the gap between them (as a fraction of
+     * the makespan), so readers can tell how far from optimal the schedule could be.
+     *
+     * @param fileName Where the output will be written
+     * @param schedule The list of nodes assigned to a schedule
+     * @param lowerBound The shortest makespan that has not been ruled out for the graph
+     * @throws IOException if the file cannot be written to
+     */
+    public void write(String fileName, PartialSchedule schedule, int lowerBound) throws IOException {
+        write(fileName, schedule, lowerBound, new DotScheduleWriter());
+    }
 
-        // a map of both tasks in a dependency to output string, which we will later access in the order specified by `lineRecords`
-        // the dependency task names are joined by a space
-        Map<String, String> dependencyStrings = new HashMap<String, String>();
-        
-        // generate all dependency strings
-        for (Node node: schedule.getNodes()) {
-            for (Node parent: node.getIncomingEdges().keySet()) {
-                String dependencyKey = parent.getName() + " " + node.getName();
-                dependencyStrings.put(dependencyKey, String.format("\t%s -> %s\t[Weight=%d];" + LS, parent.getName(), node.getName(),
-                        node.getIncomingEdges().get(parent)));
-            }
-        }
-        
-        // write the tasks and dependencies in the order specified by `lineRecords`
-        for (LineRecord record: lineRecords) {
-            if (record.isDependency) {
-                output.append(dependencyStrings.get(record.taskName1 + " " + record.taskName2));
-            } else {
-                output.append(taskStrings.get(record.taskName1));
-            }
+    /**
+     * Writes a schedule of the graph that was read to a file with `writer`, in the order the graph was read.
+     * The output is streamed through a buffer, and the file is replaced in one step, so it always holds a complete
+     * schedule even if the program stops while writing.
+     *
+     * @param fileName Where the output will be written, or null to write it next to the input
+     * @param schedule A schedule of the graph that was read
+     * @param lowerBound The shortest makespan that has not been ruled out for the graph
+     * @param writer The output format
+     * @throws IOException if the file cannot be written to
+     */
+    public void write(String fileName, PartialSchedule schedule, int lowerBound, ScheduleWriter writer)
+            throws IOException {
+        //Create correct name for the output, without the extension
+        String graphName = file.getName();
+        if (graphName.length() >= 4) {
+            graphName = graphName.substring(0, graphName.length() - 4);
         }
-        
-        output.append("}").append(LS);
 
         //Set output filename to default if none was entered
         if (fileName == null){
-            fileName = this.fileName.substring(0,this.fileName.length()-4) + "-output.dot";
+            fileName = this.fileName.substring(0,this.fileName.length()-4) + "-output" + writer.getExtension();
+        }
+        // write to a file next to the output first, then swap it in, so the output is never half written
+        Path target = Paths.get(fileName);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (Writer out = new BufferedWriter(Channels.newWriter(FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), StandardCharsets.UTF_8.newEncoder(),
+                    BUFFER_SIZE), BUFFER_SIZE)) {
+                writer.write(out, graphName, schedule, lowerBound, statements);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
         }
-        OutputStream fos = new FileOutputStream(new File(fileName));
-        fos.write(output.toString().getBytes(StandardCharsets.UTF_8));
-        fos.close();
     }
 
     public String getFileName() {
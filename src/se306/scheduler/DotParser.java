@@ -0,0 +1,487 @@
+package se306.scheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import se306.scheduler.exception.InvalidFileFormatException;
+
+/**
+ * Reads a task graph written in the DOT language in a single pass over a byte channel.
+ *
+ * The lexer works directly on a fixed read buffer and copies each token into one reusable array, so nothing is
+ * allocated per line or per token: a name only becomes a {@link String} the first time it is seen, and later uses of it
+ * return the same String. Any layout of whitespace and line breaks is accepted, along with quoted IDs, comments,
+ * attribute lists that span several lines (such as `graph [...]` blocks), edge chains like `a -> b -> c`, subgraph
+ * blocks, and default `node [...]` and `edge [...]` attributes.
+ *
+ * Each node statement is a task, whose weight is its `Weight` attribute (or -1 if it has none). Each edge is a
+ * dependency, also weighted by its `Weight` attribute. Tasks must be declared before any edge uses them. Ports, HTML
+ * IDs and subgraphs as edge endpoints are not supported.
+ */
+public class DotParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int NO_WEIGHT = -1;
+
+    // token types other than punctuation, which is its own character
+    private static final int EOF = -1;
+    private static final int ID = -2;
+    private static final int ARROW = -3;
+
+    /**
+     * Receives the tasks and dependencies of a graph, in the order they appear in the file.
+     */
+    public interface Listener {
+        void task(String name, int weight);
+
+        void dependency(String parent, String child, int weight);
+    }
+
+    private final ReadableByteChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrappedBuffer = ByteBuffer.wrap(buffer);
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private int line = 1;
+
+    private int token;
+    private byte[] text = new byte[64]; // the characters of the current ID token
+    private int textLength;
+    private boolean quoted; // whether the current ID token was quoted, so cannot be a keyword
+
+    private final NameTable names = new NameTable();
+    private String[] chain = new String[8]; // the tasks in the edge statement being read
+    private int chainLength;
+    private int defaultTaskWeight = NO_WEIGHT;
+    private int defaultDependencyWeight = NO_WEIGHT;
+
+    public DotParser(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Reads the whole graph, passing each task and dependency to `listener` as it is read.
+     * @throws InvalidFileFormatException if the input is not a valid DOT graph, or uses a task before declaring it
+     */
+    public void parse(Listener listener) throws IOException, InvalidFileFormatException {
+        advance();
+        if (isKeyword("strict")) {
+            advance();
+        }
+        if (!isKeyword("digraph") && !isKeyword("graph")) {
+            throw error("expected 'digraph'");
+        }
+        advance();
+        if (token == ID) {
+            advance();
+        }
+        expect('{');
+        statements(listener);
+        expect('}');
+        if (token != EOF) {
+            throw error("expected the end of the file");
+        }
+    }
+
+    private void statements(Listener listener) throws IOException, InvalidFileFormatException {
+        while (token != '}') {
+            if (token == EOF) {
+                throw error("expected '}'");
+            }
+            statement(listener);
+            if (token == ';') {
+                advance();
+            }
+        }
+    }
+
+    private void statement(Listener listener) throws IOException, InvalidFileFormatException {
+        if (token == '{' || isKeyword("subgraph")) {
+            if (token != '{') {
+                advance();
+                if (token == ID) {
+                    advance();
+                }
+            }
+            expect('{');
+            statements(listener);
+            expect('}');
+            return;
+        }
+        if (isKeyword("graph")) {
+            advance();
+            attributes(NO_WEIGHT);
+            return;
+        }
+        if (isKeyword("node")) {
+            advance();
+            defaultTaskWeight = attributes(defaultTaskWeight);
+            return;
+        }
+        if (isKeyword("edge")) {
+            advance();
+            defaultDependencyWeight = attributes(defaultDependencyWeight);
+            return;
+        }
+
+        if (token != ID) {
+            throw error("expected a statement");
+        }
+        int slot = names.find(text, textLength);
+        advance();
+        if (token == '=') {
+            // an attribute of the whole graph
+            advance();
+            expect(ID);
+        } else if (token == ARROW) {
+            chain[0] = declared(slot);
+            chainLength = 1;
+            while (token == ARROW) {
+                advance();
+                if (token != ID) {
+                    throw error("expected a task name");
+                }
+                if (chainLength == chain.length) {
+                    chain = Arrays.copyOf(chain, chain.length * 2);
+                }
+                chain[chainLength++] = declared(names.find(text, textLength));
+                advance();
+            }
+            int weight = attributes(defaultDependencyWeight);
+            for (int i = 1; i < chainLength; i++) {
+                listener.dependency(chain[i - 1], chain[i], weight);
+            }
+        } else {
+            int weight = attributes(defaultTaskWeight);
+            names.declared[slot] = true;
+            listener.task(names.names[slot], weight);
+        }
+    }
+
+    /**
+     * Reads any attribute lists at the current token.
+     * @return the value of the last Weight attribute, or `weight` if there is none
+     */
+    private int attributes(int weight) throws IOException, InvalidFileFormatException {
+        while (token == '[') {
+            advance();
+            while (token != ']') {
+                if (token != ID) {
+                    throw error("expected an attribute or ']'");
+                }
+                boolean isWeight = textEquals("Weight");
+                advance();
+                if (token == '=') {
+                    advance();
+                    if (token != ID) {
+                        throw error("expected an attribute value");
+                    }
+                    if (isWeight) {
+                        weight = parseWeight();
+                    }
+                    advance();
+                }
+                if (token == ',' || token == ';') {
+                    advance();
+                }
+            }
+            advance();
+        }
+        return weight;
+    }
+
+    private String declared(int slot) throws InvalidFileFormatException {
+        if (!names.declared[slot]) {
+            throw error("task '" + names.names[slot] + "' is used before it is declared");
+        }
+        return names.names[slot];
+    }
+
+    private int parseWeight() throws InvalidFileFormatException {
+        long weight = 0;
+        for (int i = 0; i < textLength; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9 || weight > Integer.MAX_VALUE) {
+                throw error("weights must be whole numbers");
+            }
+            weight = weight * 10 + digit;
+        }
+        if (textLength == 0 || weight > Integer.MAX_VALUE) {
+            throw error("weights must be whole numbers");
+        }
+        return (int) weight;
+    }
+
+    private void expect(int expected) throws IOException, InvalidFileFormatException {
+        if (token != expected) {
+            throw error(expected == ID ? "expected a name" : "expected '" + (char) expected + "'");
+        }
+        advance();
+    }
+
+    private boolean isKeyword(String keyword) {
+        return token == ID && !quoted && textEquals(keyword);
+    }
+
+    /**
+     * Returns true if the current token is `word`, ignoring case (as DOT keywords are).
+     */
+    private boolean textEquals(String word) {
+        if (textLength != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (Character.toLowerCase(text[i]) != Character.toLowerCase(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private InvalidFileFormatException error(String message) {
+        return new InvalidFileFormatException("line " + line + ": " + message);
+    }
+
+    /*
+     * Lexer
+     */
+
+    /**
+     * Reads the next token, skipping whitespace and comments.
+     */
+    private void advance() throws IOException, InvalidFileFormatException {
+        int c = peek();
+        while (true) {
+            if (c == EOF) {
+                token = EOF;
+                return;
+            } else if (c <= ' ') {
+                next();
+            } else if (c == '#') {
+                skipLine();
+            } else if (c == '/') {
+                next();
+                if (peek() == '/') {
+                    skipLine();
+                } else if (peek() == '*') {
+                    skipBlockComment();
+                } else {
+                    throw error("unexpected '/'");
+                }
+            } else {
+                break;
+            }
+            c = peek();
+        }
+
+        textLength = 0;
+        quoted = false;
+        if (c == '"') {
+            next();
+            readQuoted();
+        } else if (c == '-') {
+            next();
+            c = peek();
+            if (c == '>' || c == '-') {
+                next();
+                token = ARROW;
+            } else if (isDigit(c) || c == '.') {
+                append('-');
+                readNumeral();
+            } else {
+                throw error("unexpected '-'");
+            }
+        } else if (isDigit(c) || c == '.') {
+            readNumeral();
+        } else if (isIdStart(c)) {
+            while (isIdStart(c) || isDigit(c)) {
+                append(next());
+                c = peek();
+            }
+            token = ID;
+        } else if (c == '{' || c == '}' || c == '[' || c == ']' || c == '=' || c == ';' || c == ',') {
+            token = next();
+        } else {
+            throw error("unexpected '" + (char) c + "'");
+        }
+    }
+
+    private void readQuoted() throws IOException, InvalidFileFormatException {
+        int c = next();
+        while (c != '"') {
+            if (c == EOF) {
+                throw error("unterminated string");
+            }
+            if (c == '\\' && peek() == '"') {
+                c = next();
+            }
+            append(c);
+            c = next();
+        }
+        token = ID;
+        quoted = true;
+    }
+
+    private void readNumeral() throws IOException {
+        int c = peek();
+        while (isDigit(c) || c == '.') {
+            append(next());
+            c = peek();
+        }
+        token = ID;
+    }
+
+    private void skipLine() throws IOException {
+        int c = next();
+        while (c != '\n' && c != EOF) {
+            c = next();
+        }
+    }
+
+    private void skipBlockComment() throws IOException, InvalidFileFormatException {
+        next();
+        int c = next();
+        while (!(c == '*' && peek() == '/')) {
+            if (c == EOF) {
+                throw error("unterminated comment");
+            }
+            c = next();
+        }
+        next();
+    }
+
+    private void append(int c) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, text.length * 2);
+        }
+        text[textLength++] = (byte) c;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdStart(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c >= 0x80;
+    }
+
+    /**
+     * Returns the next byte without consuming it, or {@link #EOF}.
+     */
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position] & 0xff;
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        if (c != EOF) {
+            position++;
+            if (c == '\n') {
+                line++;
+            }
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        wrappedBuffer.clear();
+        int read;
+        do {
+            read = channel.read(wrappedBuffer);
+        } while (read == 0);
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    /**
+     * An open addressing hash table from the bytes of a name to its String, so each name is only decoded once.
+     */
+    private static final class NameTable {
+        int[] hashes = new int[1024];
+        byte[][] keys = new byte[1024][];
+        String[] names = new String[1024];
+        boolean[] declared = new boolean[1024];
+        int size;
+
+        /**
+         * Returns the slot of the name made of the first `length` bytes of `text`, adding it if it is new. Adding a
+         * name can move every other name to a new slot.
+         */
+        int find(byte[] text, int length) {
+            int hash = hash(text, length);
+            int slot = slotFor(hash, text, length);
+            if (keys[slot] != null) {
+                return slot;
+            }
+            if (2 * (size + 1) > keys.length) {
+                grow();
+                slot = slotFor(hash, text, length);
+            }
+            hashes[slot] = hash;
+            keys[slot] = Arrays.copyOf(text, length);
+            names[slot] = new String(text, 0, length, StandardCharsets.UTF_8);
+            size++;
+            return slot;
+        }
+
+        private static int hash(byte[] text, int length) {
+            int hash = 0x811c9dc5;
+            for (int i = 0; i < length; i++) {
+                hash = (hash ^ text[i]) * 0x01000193;
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        /**
+         * Returns the slot holding the name, or the empty slot it would go in. The hashes are compared first, so the
+         * names in other slots are rarely read.
+         */
+        private int slotFor(int hash, byte[] text, int length) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null && !(hashes[slot] == hash && keys[slot].length == length
+                    && Arrays.equals(keys[slot], 0, length, text, 0, length))) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldHashes = hashes;
+            byte[][] oldKeys = keys;
+            String[] oldNames = names;
+            boolean[] oldDeclared = declared;
+            hashes = new int[oldKeys.length * 2];
+            keys = new byte[hashes.length][];
+            names = new String[hashes.length];
+            declared = new boolean[hashes.length];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = oldHashes[i] & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    hashes[slot] = oldHashes[i];
+                    keys[slot] = oldKeys[i];
+                    names[slot] = oldNames[i];
+                    declared[slot] = oldDeclared[i];
+                }
+            }
+        }
+    }
+}
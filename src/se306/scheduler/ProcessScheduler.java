@@ -7,26 +7,37 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import se306.scheduler.cache.ResultCache;
 import se306.scheduler.exception.InvalidFileFormatException;
-import se306.scheduler.graph.PartialSchedule;
-import se306.scheduler.logic.*;
-import se306.scheduler.visualisation.Timer;
+import se306.scheduler.logic.CompositeCostFunction.Bound;
+import se306.scheduler.output.CsvScheduleWriter;
+import se306.scheduler.output.DotScheduleWriter;
+import se306.scheduler.output.JsonScheduleWriter;
+import se306.scheduler.output.ScheduleWriter;
+import se306.scheduler.util.TranspositionTable.ReplacementPolicy;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
-public class ProcessScheduler extends Application implements AlgorithmListener {
+public class ProcessScheduler extends Application {
+	// the names accepted by --algorithm
+	static final List<String> ALGORITHMS = Arrays.asList("bnb", "astar", "hda", "fast");
 
     private JSAPResult config;
-    private DotFile dot;
-    private static Scheduler scheduler;
-    private static Algorithm algorithm;
-    private static int numProcessors;
-    private static int numThreads;
-    private static String fileName;
-    private Timer timer = Timer.getInstance(false);
+    private SchedulingJob job;
+    // the job shown in the GUI, as JavaFX creates the controller itself and has no other way to pass it on
+    private static SchedulingJob visualisedJob;
     
 	public static void main(String[] args) {
+	    if (args.length > 0 && args[0].equals(BatchScheduler.COMMAND)) {
+	        System.exit(BatchScheduler.run(Arrays.copyOfRange(args, 1, args.length)));
+	    }
 	    ProcessScheduler processScheduler = new ProcessScheduler();
 	    processScheduler.parse(args);
 	    processScheduler.schedule(args);
@@ -34,8 +45,8 @@ public class ProcessScheduler extends Application implements AlgorithmListener {
 	    System.exit(0);
 	}
 
-	public static String getFileName() {
-		return fileName;
+	public static SchedulingJob getVisualisedJob() {
+		return visualisedJob;
 	}
 
 	@Override
@@ -70,78 +81,180 @@ public class ProcessScheduler extends Application implements AlgorithmListener {
 			System.exit(1);
 		}
 
-		numProcessors = config.getInt("P");
-		numThreads = config.getInt("N");
+		job = new SchedulingJob(config.getString("INPUT"), config.getInt("P"));
+		try {
+			configure(job, config);
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+			System.exit(1);
+		}
+		job.setOutput(config.getString("OUTPUT"));
+		job.setBinaryOutput(config.getString("SAVE_BINARY"));
+		// the number of schedules checked is only shown in the GUI
+		job.setCountingSchedules(config.getBoolean("V"));
+		if (config.getBoolean("V")) {
+			// the GUI shows the search as it runs, so always search
+			job.setCache(null);
+		}
+		job.setVerbose(true);
+	}
+
+	/**
+	 * Applies the search and output options shared by single runs and batches to `job`.
+	 * @throws IllegalArgumentException if an option is invalid, with a message saying which
+	 */
+	static void configure(SchedulingJob job, JSAPResult config) {
+		job.setNumThreads(config.getInt("N"));
+		try {
+			long dedupMemory = config.getString("DEDUP_MEM") == null ? 0 : parseMemorySize(config.getString("DEDUP_MEM"));
+			job.setDuplicateDetection(dedupMemory, ReplacementPolicy.valueOf(config.getString("DEDUP_POLICY").toUpperCase()));
+			String dominanceMem = config.getString("DOMINANCE_MEM");
+			job.setDominanceMemory(dominanceMem.equalsIgnoreCase("off") ? 0 : parseMemorySize(dominanceMem));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid memory option: " + e.getMessage());
+		}
+		try {
+			job.setBounds(parseBounds(config.getString("BOUNDS")));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid bounds option: " + e.getMessage());
+		}
+		try {
+			job.setScheduleWriter(parseFormat(config.getString("FORMAT")));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid format option: " + e.getMessage());
+		}
+		if (!ALGORITHMS.contains(config.getString("ALGORITHM").toLowerCase())) {
+			throw new IllegalArgumentException("Unknown algorithm: " + config.getString("ALGORITHM"));
+		}
+		job.setAlgorithmName(config.getString("ALGORITHM"));
+		job.setDeadline(config.contains("DEADLINE") ? config.getLong("DEADLINE") : null);
+		if (config.getString("CACHE") != null) {
+			try {
+				job.setCache(new ResultCache(Paths.get(config.getString("CACHE")), parseMemorySize(config.getString("CACHE_SIZE"))));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid cache option: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Parses a number of bytes with an optional k, m or g suffix (powers of 1024), e.g. "512m".
+	 * @throws IllegalArgumentException if the size is not a positive number of bytes
+	 */
+	static long parseMemorySize(String size) {
+		String digits = size.trim().toLowerCase();
+		long multiplier = 1;
+		if (digits.endsWith("b")) {
+			digits = digits.substring(0, digits.length() - 1);
+		}
+		if (digits.endsWith("k")) {
+			multiplier = 1L << 10;
+		} else if (digits.endsWith("m")) {
+			multiplier = 1L << 20;
+		} else if (digits.endsWith("g")) {
+			multiplier = 1L << 30;
+		}
+		if (multiplier > 1) {
+			digits = digits.substring(0, digits.length() - 1);
+		}
+		long bytes;
+		try {
+			bytes = Long.parseLong(digits) * multiplier;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("'" + size + "' is not a memory size");
+		}
+		if (bytes <= 0) {
+			throw new IllegalArgumentException("'" + size + "' is not a memory size");
+		}
+		return bytes;
 	}
 	
-	public void schedule(String[] args) {
-		if (config.getInt("P") == 1){
-			//Fast algorithm for scheduling on one processor
-			algorithm = new SequentialAlgorithm();
-		} else if (config.getInt("N") == 1) {
-			// Singlethreaded BNB
-            algorithm = new BNBAlgorithm(config.getInt("P"));
-        } else {
-        	// Multithreaded BNB
-            algorithm = new BNBAlgorithmPara(config.getInt("P"), config.getInt("N"));
-        }
-        scheduler = new Scheduler(algorithm);
-        
-        algorithm.addListener(this);
+	/**
+	 * Parses a comma separated list of lower bound names (idle-time, bottom-level, data-ready), or "none".
+	 * @throws IllegalArgumentException if a name is not a bound
+	 */
+	static Set<Bound> parseBounds(String names) {
+		Set<Bound> bounds = EnumSet.noneOf(Bound.class);
+		if (names.trim().equalsIgnoreCase("none")) {
+			return bounds;
+		}
+		for (String name : names.split(",")) {
+			try {
+				bounds.add(Bound.valueOf(name.trim().toUpperCase().replace('-', '_')));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("'" + name.trim() + "' is not a bound");
+			}
+		}
+		return bounds;
+	}
 
+	/**
+	 * Returns the writer for an output format name (dot, json or csv).
+	 * @throws IllegalArgumentException if the name is not a format
+	 */
+	static ScheduleWriter parseFormat(String name) {
+		switch (name.trim().toLowerCase()) {
+			case "dot":
+				return new DotScheduleWriter();
+			case "json":
+				return new JsonScheduleWriter();
+			case "csv":
+				return new CsvScheduleWriter();
+			default:
+				throw new IllegalArgumentException("'" + name.trim() + "' is not a format");
+		}
+	}
+
+	public void schedule(String[] args) {
 		try {
 			// attempt to load the input file
-			fileName = config.getString("INPUT");
-			dot = new DotFile(fileName);
-			dot.read(scheduler);
-
-			System.out.println("Starting schedule calculation...");
+			job.load();
 
 			// set up graphs if -v flag specified
 			if(config.getBoolean("V")) {
+				visualisedJob = job;
 				launch(args);
 			}
 
 			//Calculate the schedule
-			timer.startTimer(0);
-			scheduler.start();
+			job.schedule();
         } catch (FileNotFoundException e) {
             e.printStackTrace();
             System.out.println("Input Error: File not found");
         } catch (InvalidFileFormatException e) {
 			e.printStackTrace();
-			System.out.println("Invalid File format: Does not end in \".dot\"");
+			System.out.println("Invalid File format: " + (e.getMessage() != null ? e.getMessage()
+					: "Does not end in \".dot\" or \"" + BinaryGraphFile.EXTENSION + "\""));
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.out.println("Output Error: Could not save binary graph");
 		}
 
 	}
 
-	public static Scheduler getScheduler(){
-		return scheduler;
-	}
-
-	public static Algorithm getAlgorithm(){
-		return algorithm;
-	}
-
 	static SimpleJSAP buildParser() {
 		Parameter input = new UnflaggedOption("INPUT", JSAP.STRING_PARSER, JSAP.REQUIRED,
-				"A task graph with integer weights in dot format");
+				"A task graph with integer weights in dot format, or a binary graph saved with --save-binary");
 
 		Parameter nProcessors = new UnflaggedOption("P", JSAP.INTEGER_PARSER, JSAP.REQUIRED,
 				"Number of processors to schedule the INPUT graph on");
 
-		Parameter nCores = new FlaggedOption("N", JSAP.INTEGER_PARSER, "1", JSAP.NOT_REQUIRED, 'p', null,
-				"How many parallel threads to use");
-		
 		Parameter vis = new Switch("V", 'v', null,
 				"Visualise the search");
-		
+
 		Parameter output = new FlaggedOption("OUTPUT", JSAP.STRING_PARSER, null, JSAP.NOT_REQUIRED, 'o', null,
-				"Set output filename (default is INPUT-output.dot)");
+				"Set output filename (default is INPUT-output.dot, or the extension of --format)");
+
+		Parameter saveBinary = new FlaggedOption("SAVE_BINARY", JSAP.STRING_PARSER, null, JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "save-binary",
+				"Also save the INPUT graph to this file in binary format (ending in " + BinaryGraphFile.EXTENSION
+						+ "), which loads faster than dot");
 
+		List<Parameter> parameters = new ArrayList<>(Arrays.asList(input, nProcessors, vis, output, saveBinary));
+		parameters.addAll(searchOptions());
 		try {
 			return new SimpleJSAP("scheduler.jar", "Finds optimal schedule for given tasks",
-					new Parameter[] { input, nProcessors, nCores, vis, output });
+					parameters.toArray(new Parameter[0]));
 		} catch (JSAPException e) {
 			e.printStackTrace();
 			System.exit(1);
@@ -149,29 +262,52 @@ public class ProcessScheduler extends Application implements AlgorithmListener {
 		}
 	}
 
-    // once a schedule has been found, write the output to a file
-    @Override
-    public void algorithmCompleted(PartialSchedule schedule) {
-		timer.stopTimer();
-		System.out.println("Optimal schedule of " + schedule.getMakespan() + " found in " + timer.getSeconds() + " seconds");
-		try {
-            dot.write(config.getString("OUTPUT"), schedule);
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.out.println("Output Error: File could not be written to");
-        }
-    }
+	/**
+	 * Returns the options for how to search and write the output, which are applied to each job by
+	 * {@link #configure}.
+	 */
+	static List<Parameter> searchOptions() {
+		Parameter nCores = new FlaggedOption("N", JSAP.INTEGER_PARSER, "1", JSAP.NOT_REQUIRED, 'p', null,
+				"How many parallel threads to use");
 
-	@Override
-	public void newOptimalFound(PartialSchedule schedule) {
+		Parameter dedupMem = new FlaggedOption("DEDUP_MEM", JSAP.STRING_PARSER, null, JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "dedup-mem",
+				"Memory to use for detecting duplicate schedules, e.g. 512m (default is no limit)");
 
-	}
+		Parameter dedupPolicy = new FlaggedOption("DEDUP_POLICY", JSAP.STRING_PARSER, "clock", JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "dedup-policy",
+				"Which schedules to forget when --dedup-mem is full: always, depth or clock");
 
-    public static int getNumProcessors(){
-		return numProcessors;
-	}
+		Parameter algorithmName = new FlaggedOption("ALGORITHM", JSAP.STRING_PARSER, "bnb", JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "algorithm",
+				"Search to use: bnb (depth-first branch and bound), astar (best-first), hda (parallel best-first)"
+						+ " or fast (heuristics only, not always optimal)");
+
+		Parameter boundNames = new FlaggedOption("BOUNDS", JSAP.STRING_PARSER, "idle-time,bottom-level,data-ready",
+				JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "bounds",
+				"Lower bounds to prune with: any of idle-time, bottom-level and data-ready, or none");
+
+		Parameter deadline = new FlaggedOption("DEADLINE", JSAP.LONG_PARSER, null, JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "deadline",
+				"Stop searching after this many milliseconds and output the best schedule found (default is no limit)");
+
+		Parameter dominanceMem = new FlaggedOption("DOMINANCE_MEM", JSAP.STRING_PARSER, "256m", JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "dominance-mem",
+				"Memory to use for finding dominated schedules, or off");
+
+		Parameter format = new FlaggedOption("FORMAT", JSAP.STRING_PARSER, "dot", JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "format",
+				"Format of the output schedule: dot, json or csv");
+
+		Parameter cache = new FlaggedOption("CACHE", JSAP.STRING_PARSER, null, JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "cache",
+				"Directory of optimal schedules to reuse instead of searching, shared between runs (default is no cache)");
+
+		Parameter cacheSize = new FlaggedOption("CACHE_SIZE", JSAP.STRING_PARSER, "256m", JSAP.NOT_REQUIRED,
+				JSAP.NO_SHORTFLAG, "cache-size",
+				"Space the --cache directory can use before the least recently used schedules are deleted");
 
-	public static int getNumThreads(){
-		return numThreads;
+		return Arrays.asList(nCores, dedupMem, dedupPolicy, algorithmName, boundNames, dominanceMem, deadline, format,
+				cache, cacheSize);
 	}
 }
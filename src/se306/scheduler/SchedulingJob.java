@@ -0,0 +1,384 @@
+package se306.scheduler;
+
+import se306.scheduler.cache.ResultCache;
+import se306.scheduler.cache.ResultCache.CachedSchedule;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+import se306.scheduler.logic.*;
+import se306.scheduler.logic.CompositeCostFunction.Bound;
+import se306.scheduler.output.DotScheduleWriter;
+import se306.scheduler.output.ScheduleWriter;
+import se306.scheduler.util.LongSet;
+import se306.scheduler.util.TranspositionTable;
+import se306.scheduler.util.TranspositionTable.ReplacementPolicy;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Schedules one input graph on a number of processors, writing the best schedule found to the output as the search
+ * goes. Each job has its own scheduler and algorithm, so several jobs can run at the same time.
+ *
+ * The search is configured with the setters before the graph is loaded; any that are not called keep the defaults of
+ * the command line.
+ */
+public class SchedulingJob implements AlgorithmListener {
+    private final String input;
+    private final int numProcessors;
+    private String output; // null to write next to the input
+    private int numThreads = 1;
+    private String algorithmName = "bnb";
+    private long dedupMemory;
+    private ReplacementPolicy dedupPolicy = ReplacementPolicy.CLOCK;
+    private Set<Bound> bounds = EnumSet.allOf(Bound.class);
+    private long dominanceMemory = 256L << 20;
+    private Long deadline;
+    private ScheduleWriter scheduleWriter = new DotScheduleWriter();
+    private String binaryOutput;
+    private boolean countingSchedules;
+    private boolean verbose;
+    private ResultCache cache;
+
+    private DotFile dot;
+    private Scheduler scheduler;
+    private Algorithm algorithm;
+    private long startTime;
+    private volatile long elapsedNanos;
+    private volatile PartialSchedule result;
+    private volatile int lowerBound;
+    private volatile boolean cacheHit;
+    private volatile String error;
+
+    public SchedulingJob(String input, int numProcessors) {
+        this.input = input;
+        this.numProcessors = numProcessors;
+    }
+
+    public void setOutput(String output) {
+        this.output = output;
+    }
+
+    public void setNumThreads(int numThreads) {
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Sets the search to use, by one of the names in {@link ProcessScheduler#ALGORITHMS}.
+     */
+    public void setAlgorithmName(String algorithmName) {
+        this.algorithmName = algorithmName.toLowerCase();
+    }
+
+    public void setDuplicateDetection(long dedupMemory, ReplacementPolicy dedupPolicy) {
+        this.dedupMemory = dedupMemory;
+        this.dedupPolicy = dedupPolicy;
+    }
+
+    public void setBounds(Set<Bound> bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Returns the memory limit for detecting duplicate schedules, or 0 for no limit.
+     */
+    public long getDedupMemory() {
+        return dedupMemory;
+    }
+
+    public ReplacementPolicy getDedupPolicy() {
+        return dedupPolicy;
+    }
+
+    public void setDominanceMemory(long dominanceMemory) {
+        this.dominanceMemory = dominanceMemory;
+    }
+
+    public long getDominanceMemory() {
+        return dominanceMemory;
+    }
+
+    /**
+     * Sets how many milliseconds the search may take, or null for no limit.
+     */
+    public void setDeadline(Long deadline) {
+        this.deadline = deadline;
+    }
+
+    public void setScheduleWriter(ScheduleWriter scheduleWriter) {
+        this.scheduleWriter = scheduleWriter;
+    }
+
+    /**
+     * Sets a file to save the input graph to as a {@link BinaryGraphFile} once it is loaded, or null to not save it.
+     */
+    public void setBinaryOutput(String binaryOutput) {
+        this.binaryOutput = binaryOutput;
+    }
+
+    /**
+     * Sets whether to keep count of the schedules checked, which is only needed to show progress in the GUI.
+     */
+    public void setCountingSchedules(boolean countingSchedules) {
+        this.countingSchedules = countingSchedules;
+    }
+
+    /**
+     * Sets whether to print the progress and result of the job.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Sets a cache of optimal schedules to check before searching, and to store the schedule in once it is proven
+     * optimal, or null to always search.
+     */
+    public void setCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Creates the algorithm and reads the input graph into it.
+     *
+     * @throws FileNotFoundException if the input does not exist
+     * @throws InvalidFileFormatException if the input is not a valid graph
+     * @throws IOException if the binary graph could not be saved
+     */
+    public void load() throws FileNotFoundException, InvalidFileFormatException, IOException {
+        algorithm = createAlgorithm();
+        scheduler = new Scheduler(algorithm);
+        algorithm.addListener(this);
+
+        dot = new DotFile(input);
+        dot.read(scheduler);
+        if (binaryOutput != null) {
+            // save the graph so later runs can skip parsing it
+            dot.writeBinary(binaryOutput);
+        }
+    }
+
+    private Algorithm createAlgorithm() {
+        Algorithm algorithm;
+        if (numProcessors == 1) {
+            //Fast algorithm for scheduling on one processor
+            algorithm = new SequentialAlgorithm();
+        } else if (algorithmName.equals("fast")) {
+            // List scheduling heuristics only, for graphs too large to search
+            algorithm = new HeuristicAlgorithm(numProcessors);
+        } else if (algorithmName.equals("astar")) {
+            // Singlethreaded best-first search
+            algorithm = new AStarAlgorithm(numProcessors);
+        } else if (algorithmName.equals("hda")) {
+            // Best-first search with schedules shared between threads by fingerprint
+            algorithm = new HDAStarAlgorithm(numProcessors, numThreads);
+        } else if (numThreads == 1) {
+            // Singlethreaded BNB
+            algorithm = new BNBAlgorithmInPlace(numProcessors);
+        } else {
+            // Multithreaded BNB
+            algorithm = new BNBAlgorithmPara(numProcessors, numThreads);
+        }
+        if (algorithm instanceof BNBAlgorithm) {
+            ((BNBAlgorithm) algorithm).setDuplicateDetection(dedupMemory, dedupPolicy);
+            ((BNBAlgorithm) algorithm).setCostFunction(new CompositeCostFunction(bounds));
+            ((BNBAlgorithm) algorithm).setDominanceMemory(dominanceMemory);
+            if (deadline != null) {
+                ((BNBAlgorithm) algorithm).setDeadline(deadline);
+            }
+        }
+        algorithm.setCountingSchedules(countingSchedules);
+        return algorithm;
+    }
+
+    /**
+     * Searches for a schedule of the loaded graph, returning once the search is done and the output written. If the
+     * graph is in the cache, its schedule is written straight away instead.
+     */
+    public void schedule() {
+        startTime = System.nanoTime();
+        TaskGraph graph = TaskGraph.compile(scheduler.getNodes());
+        if (cache != null && scheduleFromCache(graph)) {
+            return;
+        }
+        if (verbose) {
+            System.out.println("Starting schedule calculation...");
+        }
+        scheduler.start(graph);
+    }
+
+    private boolean scheduleFromCache(TaskGraph graph) {
+        CachedSchedule cached;
+        try {
+            cached = cache.get(graph, numProcessors);
+        } catch (IOException e) {
+            if (verbose) {
+                System.out.println("Cache Error: " + e.getMessage());
+            }
+            return false;
+        }
+        if (cached == null) {
+            return false;
+        }
+        elapsedNanos = System.nanoTime() - startTime;
+        PartialSchedule schedule = cached.getSchedule();
+        cacheHit = true;
+        lowerBound = schedule.getMakespan();
+        result = schedule;
+        if (verbose) {
+            System.out.println(String.format(Locale.ROOT, "Optimal schedule of %d found in the result cache in %.2f"
+                    + " seconds (proven by %s in %.2f seconds)", schedule.getMakespan(), elapsedNanos / 1e9,
+                    cached.getProof(), cached.getSearchMillis() / 1e3));
+        }
+        writeOutput(schedule);
+        return true;
+    }
+
+    /**
+     * Loads the graph and schedules it. Errors are recorded in the job rather than thrown, so one bad input does not
+     * stop the others in a batch.
+     */
+    public void run() {
+        try {
+            load();
+            schedule();
+        } catch (FileNotFoundException e) {
+            error = "File not found";
+        } catch (InvalidFileFormatException e) {
+            error = "Invalid file format: " + (e.getMessage() != null ? e.getMessage()
+                    : "does not end in .dot or " + BinaryGraphFile.EXTENSION);
+        } catch (IOException | RuntimeException e) {
+            error = e.toString();
+        }
+    }
+
+    // once a schedule has been found, write the output to a file
+    @Override
+    public void algorithmCompleted(PartialSchedule schedule) {
+        elapsedNanos = System.nanoTime() - startTime;
+        lowerBound = algorithm.getLowerBound();
+        result = schedule;
+        if (verbose) {
+            printSummary(schedule);
+        }
+        writeOutput(schedule);
+        if (cache != null && lowerBound >= schedule.getMakespan()) {
+            try {
+                cache.put(schedule, algorithm.getClass().getSimpleName(), elapsedNanos / 1_000_000);
+            } catch (IOException e) {
+                if (verbose) {
+                    System.out.println("Cache Error: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void writeOutput(PartialSchedule schedule) {
+        try {
+            dot.write(output, schedule, lowerBound, scheduleWriter);
+        } catch (IOException e) {
+            if (verbose) {
+                e.printStackTrace();
+                System.out.println("Output Error: File could not be written to");
+            }
+            error = "Output could not be written: " + e.getMessage();
+        }
+    }
+
+    // write each new best schedule as it is found, so there is a usable output even if the search never finishes
+    @Override
+    public void newOptimalFound(PartialSchedule schedule) {
+        try {
+            dot.write(output, schedule, algorithm.getLowerBound(), scheduleWriter);
+        } catch (IOException e) {
+            if (verbose) {
+                System.out.println("Output Error: File could not be written to");
+            }
+        }
+    }
+
+    private void printSummary(PartialSchedule schedule) {
+        String seconds = String.format(Locale.ROOT, "%.2f", elapsedNanos / 1e9);
+        if (algorithm.getLowerBound() < schedule.getMakespan()) {
+            double gap = 100.0 * (schedule.getMakespan() - algorithm.getLowerBound()) / schedule.getMakespan();
+            System.out.println(String.format(Locale.ROOT, "Schedule of %d found in %s seconds, but it may not be"
+                    + " optimal: no schedule is shorter than %d (gap %.2f%%)", schedule.getMakespan(), seconds,
+                    algorithm.getLowerBound(), gap));
+        } else {
+            System.out.println("Optimal schedule of " + schedule.getMakespan() + " found in " + seconds + " seconds");
+        }
+        if (algorithm instanceof BNBAlgorithm) {
+            LongSet scheduleIDs = ((BNBAlgorithm) algorithm).getScheduleIDs();
+            if (scheduleIDs instanceof TranspositionTable) {
+                System.out.println("Duplicate detection: " + scheduleIDs);
+            }
+            System.out.println("Branches pruned by: " + ((BNBAlgorithm) algorithm).getCostFunction());
+            if (((BNBAlgorithm) algorithm).getDominanceStore() != null) {
+                System.out.println("Dominance: " + ((BNBAlgorithm) algorithm).getDominanceStore());
+            }
+        }
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public int getNumProcessors() {
+        return numProcessors;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public ScheduleWriter getScheduleWriter() {
+        return scheduleWriter;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the final schedule, or null if the job has not finished or failed before finding one.
+     */
+    public PartialSchedule getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the lower bound on the makespan proven by the search once the job has finished, which is the makespan of
+     * the result if it is optimal.
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Returns whether the result was read from the cache rather than searched for.
+     */
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * Returns how long the search took in milliseconds, not counting loading the graph.
+     */
+    public double getElapsedMillis() {
+        return elapsedNanos / 1e6;
+    }
+
+    /**
+     * Returns a description of why the job failed, or null if it has not.
+     */
+    public String getError() {
+        return error;
+    }
+}
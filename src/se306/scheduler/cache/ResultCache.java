@@ -0,0 +1,385 @@
+package se306.scheduler.cache;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * An on-disk cache of optimal schedules, so a graph that has been solved before can be written out without searching.
+ *
+ * Each schedule is stored in its own file, named by a SHA-256 hash of the graph (the weight of every task and the
+ * parents and cost of every edge) and the number of processors. The tasks are hashed in a canonical order that does
+ * not depend on the order they were declared in: level by level down the graph, and within a level by weight, then
+ * by their parents' places in the canonical order and the costs of those edges, then by the weights and costs of their
+ * children. Task names are not part of the key, so the same graph declared in another order or with other names shares
+ * a schedule (tasks that only differ further away in the graph can still be ordered differently, which only loses a
+ * cache hit). Only schedules proven optimal are stored, in the canonical order, along with the algorithm that proved it
+ * and how long it took.
+ *
+ * The files in the cache are kept under a size limit by deleting the least recently used first, using each file's
+ * modified time, which is updated whenever it is read. Several processes can share a cache: every access holds a lock
+ * on a lock file in the directory (shared for reads, exclusive for writes), and schedules are written to a temporary
+ * file first and moved into place, so a file is never seen half written.
+ */
+public class ResultCache {
+    static final int MAGIC = 0x53434843; // "SCHC"
+    static final int VERSION = 2;
+    static final String EXTENSION = ".schedule";
+    private static final String LOCK_FILE = ".lock";
+
+    // file locks are held by the whole process, so threads sharing a cache directory also take turns with these
+    private static final ConcurrentHashMap<Path, Object> DIRECTORY_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * A schedule read from the cache, and how it was proven optimal.
+     */
+    public static final class CachedSchedule {
+        private final PartialSchedule schedule;
+        private final String proof;
+        private final long searchMillis;
+
+        CachedSchedule(PartialSchedule schedule, String proof, long searchMillis) {
+            this.schedule = schedule;
+            this.proof = proof;
+            this.searchMillis = searchMillis;
+        }
+
+        public PartialSchedule getSchedule() {
+            return schedule;
+        }
+
+        /**
+         * Returns the name of the algorithm that proved the schedule optimal.
+         */
+        public String getProof() {
+            return proof;
+        }
+
+        /**
+         * Returns how long the search that proved the schedule optimal took.
+         */
+        public long getSearchMillis() {
+            return searchMillis;
+        }
+    }
+
+    /**
+     * Creates a cache in `directory`, which is made when the first schedule is stored.
+     *
+     * @param maxBytes the most space the schedules in the cache can take up
+     */
+    public ResultCache(Path directory, long maxBytes) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the key of a graph scheduled on `numProcessors` processors, as a hex string.
+     */
+    public static String key(TaskGraph graph, int numProcessors) {
+        return key(graph, numProcessors, canonicalOrder(graph));
+    }
+
+    /**
+     * Returns the key of a graph whose tasks are in the canonical order `order`.
+     */
+    private static String key(TaskGraph graph, int numProcessors, int[] order) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+        int[] position = positions(order);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+        buffer.putInt(VERSION).putInt(numProcessors).putInt(graph.size());
+        for (int task : order) {
+            if (buffer.remaining() < 2 * Integer.BYTES) {
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putInt(graph.getWeight(task)).putInt(graph.getNumParents(task));
+            for (long edge : parentSignature(graph, task, position)) {
+                if (buffer.remaining() < Long.BYTES) {
+                    digest.update(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+                buffer.putLong(edge);
+            }
+        }
+        digest.update(buffer.array(), 0, buffer.position());
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Returns the tasks of `graph` in canonical order, as described in the class comment.
+     */
+    static int[] canonicalOrder(TaskGraph graph) {
+        int n = graph.size();
+        // the level of a task is the number of tasks on the longest path to it
+        int[] level = new int[n];
+        int numLevels = 0;
+        for (int i = 0; i < n; i++) {
+            int task = graph.getTopologicalOrder(i);
+            for (int e = graph.getParentsStart(task); e < graph.getParentsEnd(task); e++) {
+                level[task] = Math.max(level[task], level[graph.getParent(e)] + 1);
+            }
+            numLevels = Math.max(numLevels, level[task] + 1);
+        }
+        List<List<Integer>> levels = new ArrayList<>();
+        for (int l = 0; l < numLevels; l++) {
+            levels.add(new ArrayList<>());
+        }
+        for (int task = 0; task < n; task++) {
+            levels.get(level[task]).add(task);
+        }
+
+        int[] order = new int[n];
+        int[] position = new int[n];
+        int placed = 0;
+        for (List<Integer> tasks : levels) {
+            // every parent is on an earlier level, so already has its place in the order
+            Map<Integer, long[]> parents = new HashMap<>();
+            Map<Integer, long[]> children = new HashMap<>();
+            for (int task : tasks) {
+                parents.put(task, parentSignature(graph, task, position));
+                children.put(task, childSignature(graph, task));
+            }
+            tasks.sort(Comparator.<Integer>comparingInt(graph::getWeight)
+                    .thenComparing(parents::get, Arrays::compare)
+                    .thenComparing(children::get, Arrays::compare));
+            for (int task : tasks) {
+                position[task] = placed;
+                order[placed++] = task;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Returns the place in the order of each task.
+     */
+    private static int[] positions(int[] order) {
+        int[] position = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the place in the order and cost of each edge from a parent of `task`, sorted.
+     */
+    private static long[] parentSignature(TaskGraph graph, int task, int[] position) {
+        long[] edges = new long[graph.getNumParents(task)];
+        for (int e = graph.getParentsStart(task); e < graph.getParentsEnd(task); e++) {
+            edges[e - graph.getParentsStart(task)] = ((long) position[graph.getParent(e)] << 32)
+                    | (graph.getParentCost(e) & 0xFFFFFFFFL);
+        }
+        Arrays.sort(edges);
+        return edges;
+    }
+
+    /**
+     * Returns the weight of each child of `task` and the cost of the edge to it, sorted.
+     */
+    private static long[] childSignature(TaskGraph graph, int task) {
+        long[] edges = new long[graph.getChildrenEnd(task) - graph.getChildrenStart(task)];
+        for (int e = graph.getChildrenStart(task); e < graph.getChildrenEnd(task); e++) {
+            edges[e - graph.getChildrenStart(task)] = ((long) graph.getWeight(graph.getChild(e)) << 32)
+                    | (graph.getChildCost(e) & 0xFFFFFFFFL);
+        }
+        Arrays.sort(edges);
+        return edges;
+    }
+
+    /**
+     * Returns the optimal schedule of `graph` on `numProcessors` processors, or null if it is not in the cache (or the
+     * stored file is not a valid schedule of the graph).
+     *
+     * @throws IOException if the cache cannot be read
+     */
+    public CachedSchedule get(TaskGraph graph, int numProcessors) throws IOException {
+        int[] order = canonicalOrder(graph);
+        String key = key(graph, numProcessors, order);
+        Path file = directory.resolve(key + EXTENSION);
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        synchronized (directoryLock()) {
+            // closing the channel releases the lock
+            try (FileChannel lockChannel = openLockFile()) {
+                lockChannel.lock(0, Long.MAX_VALUE, true);
+                if (!Files.isRegularFile(file)) {
+                    return null;
+                }
+                CachedSchedule cached = read(file, key, graph, numProcessors, order);
+                if (cached != null) {
+                    // mark the schedule as the most recently used
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                }
+                return cached;
+            }
+        }
+    }
+
+    /**
+     * Stores the optimal schedule of its graph on its number of processors, then removes the least recently used
+     * schedules until the cache fits in its size limit.
+     *
+     * @param schedule a complete schedule that has been proven optimal
+     * @param proof the name of the algorithm that proved it optimal
+     * @param searchMillis how long the search that proved it optimal took
+     * @throws IOException if the cache cannot be written to
+     */
+    public void put(PartialSchedule schedule, String proof, long searchMillis) throws IOException {
+        TaskGraph graph = schedule.getGraph();
+        int[] order = canonicalOrder(graph);
+        String key = key(graph, schedule.getNumProcessors(), order);
+        Files.createDirectories(directory);
+        synchronized (directoryLock()) {
+            try (FileChannel lockChannel = openLockFile()) {
+                lockChannel.lock();
+                Path file = directory.resolve(key + EXTENSION);
+                Path temp = directory.resolve(key + EXTENSION + ".tmp");
+                try {
+                    write(temp, key, schedule, order, proof, searchMillis);
+                    try {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                evict();
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used schedules until the rest fit in `maxBytes`. The lock must be held.
+     */
+    private void evict() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).forEach(files::add);
+        }
+        long totalBytes = 0;
+        Map<Path, Long> lastUsed = new HashMap<>();
+        for (Path file : files) {
+            totalBytes += Files.size(file);
+            lastUsed.put(file, Files.getLastModifiedTime(file).toMillis());
+        }
+        files.sort(Comparator.comparingLong(lastUsed::get));
+        for (int i = 0; i < files.size() && totalBytes > maxBytes; i++) {
+            totalBytes -= Files.size(files.get(i));
+            Files.delete(files.get(i));
+        }
+    }
+
+    private Object directoryLock() {
+        return DIRECTORY_LOCKS.computeIfAbsent(directory, path -> new Object());
+    }
+
+    private FileChannel openLockFile() throws IOException {
+        return FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private static void write(Path file, String key, PartialSchedule schedule, int[] order, String proof,
+            long searchMillis) throws IOException {
+        int n = schedule.getGraph().size();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(key);
+            out.writeInt(schedule.getNumProcessors());
+            out.writeInt(n);
+            out.writeInt(schedule.getMakespan());
+            out.writeUTF(proof);
+            out.writeLong(searchMillis);
+            for (int task : order) {
+                out.writeInt(schedule.getStartTime(task));
+                out.writeByte(schedule.getProcessor(task));
+            }
+        }
+    }
+
+    /**
+     * Reads a stored schedule, checking that it is a valid schedule of `graph` with the makespan it was stored with.
+     * Returns null if it is not.
+     */
+    private static CachedSchedule read(Path file, String key, TaskGraph graph, int numProcessors, int[] canonicalOrder)
+            throws IOException {
+        int n = graph.size();
+        int[] startTimes = new int[n];
+        int[] processors = new int[n];
+        int makespan;
+        String proof;
+        long searchMillis;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(key)
+                    || in.readInt() != numProcessors || in.readInt() != n) {
+                return null;
+            }
+            makespan = in.readInt();
+            proof = in.readUTF();
+            searchMillis = in.readLong();
+            for (int task : canonicalOrder) {
+                startTimes[task] = in.readInt();
+                processors[task] = in.readByte();
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+
+        // schedule the tasks in order of start time, with parents before children when they start at the same time
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[graph.getTopologicalOrder(i)] = i;
+        }
+        Integer[] order = new Integer[n];
+        for (int task = 0; task < n; task++) {
+            order[task] = task;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(task -> startTimes[task])
+                .thenComparingInt(task -> rank[task]));
+        PartialSchedule schedule = new PartialSchedule(graph, numProcessors);
+        for (int task : order) {
+            if (processors[task] < 1 || processors[task] > numProcessors
+                    || startTimes[task] < schedule.findBestStartTime(task, processors[task])) {
+                return null;
+            }
+            schedule.scheduleTask(task, processors[task], startTimes[task]);
+        }
+        return schedule.getMakespan() == makespan ? new CachedSchedule(schedule, proof, searchMillis) : null;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
@@ -37,6 +37,7 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
 import se306.scheduler.ProcessScheduler;
+import se306.scheduler.SchedulingJob;
 import se306.scheduler.graph.Node;
 import se306.scheduler.graph.PartialSchedule;
 import se306.scheduler.logic.Algorithm;
@@ -71,6 +72,7 @@ public class HomeController implements Initializable, AlgorithmListener {
     private GraphDisplay graphDisplay;
     private OutputSchedule<Number, String> outputSchedule;
     private Timer timer = Timer.getInstance(true);
+    private SchedulingJob job;
     private Scheduler scheduler;
     private Map<String, String> nodeColours;
 
@@ -100,8 +102,9 @@ public class HomeController implements Initializable, AlgorithmListener {
         setStatsAnimation(checkedPane);
 
         //Get same scheduler & algorithm objects from main class
-        scheduler = ProcessScheduler.getScheduler();
-        Algorithm algorithm = ProcessScheduler.getAlgorithm();
+        job = ProcessScheduler.getVisualisedJob();
+        scheduler = job.getScheduler();
+        Algorithm algorithm = job.getAlgorithm();
         algorithm.addListener(this);
 
         // Generate node colours
@@ -127,7 +130,7 @@ public class HomeController implements Initializable, AlgorithmListener {
         //Display output schedule
         NumberAxis xAxis = new NumberAxis();
         CategoryAxis yAxis = new CategoryAxis();
-        int numProcessors = ProcessScheduler.getNumProcessors();
+        int numProcessors = job.getNumProcessors();
         outputSchedule = new OutputSchedule<Number, String>(xAxis,yAxis, numProcessors, scrollPane.getPrefHeight(), nodeColours);
         scrollPane.setFitToHeight(true);
         scrollPane.setFitToWidth(true);
@@ -135,6 +138,7 @@ public class HomeController implements Initializable, AlgorithmListener {
 
         int numNodes = scheduler.getNodes().size();
 
+        timer.setAlgorithm(algorithm);
         timer.setMaxSchedules(BigInteger.valueOf(numProcessors).pow(numNodes).multiply(Algorithm.factorial(numNodes)));
 
         //Set initial timer label
@@ -165,9 +169,9 @@ public class HomeController implements Initializable, AlgorithmListener {
         anchorPane.getChildren().remove(startButton);
 
         //Set texts for statistics
-        filenameLabel.setText("Input file: " + ProcessScheduler.getFileName());
-        numThreadsLabel.setText(String.valueOf(ProcessScheduler.getNumThreads()));
-        numProcLabel.setText(String.valueOf(ProcessScheduler.getNumProcessors()));
+        filenameLabel.setText("Input file: " + job.getInput());
+        numThreadsLabel.setText(String.valueOf(job.getNumThreads()));
+        numProcLabel.setText(String.valueOf(job.getNumProcessors()));
 
         //Display graph
         org.graphstream.graph.Graph graph = graphDisplay.getGraph();
@@ -203,7 +207,7 @@ public class HomeController implements Initializable, AlgorithmListener {
 
         //Calculate optimal schedule in new thread
         timer.startTimer(0);
-        new Thread(scheduler::start).start();
+        new Thread(job::schedule).start();
     }
 
     /**
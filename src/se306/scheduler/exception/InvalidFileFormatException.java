@@ -6,4 +6,8 @@ public class InvalidFileFormatException extends Exception {
     public InvalidFileFormatException(){
         super();
     }
+
+    public InvalidFileFormatException(String message) {
+        super(message);
+    }
 }
@@ -8,13 +8,13 @@ public class Node {
     private String name;
     private HashMap<Node, Integer> incomingEdges = new HashMap<>();
     private List<Node> children = new ArrayList<>();
-    private int LBWeight;
     private int weight;
+    private int id; // dense index of this node within its graph, assigned when the graph is compiled
 
     public Node(String name, int weight) {
         this.name = name;
         this.weight = weight;
-        this.LBWeight = -1;
+        this.id = -1;
     }
     
     /**
@@ -27,7 +27,7 @@ public class Node {
         this.incomingEdges.putAll(node.getIncomingEdges());
         this.children = new ArrayList<>();
         this.children.addAll(node.children);
-        this.LBWeight = node.LBWeight;
+        this.id = node.id;
     }
 
     /**
@@ -36,8 +36,10 @@ public class Node {
      * @param edgeWeight the weight of the link between the parent node and this node
      */
     public void addParent(Node parent, int edgeWeight){
-        this.incomingEdges.put(parent, edgeWeight);
-        parent.children.add(this);
+        // a repeated edge only updates the weight, so the parent doesn't list this node as a child twice
+        if (this.incomingEdges.put(parent, edgeWeight) == null) {
+            parent.children.add(this);
+        }
     }
 
     public int getWeight() {
@@ -56,12 +58,12 @@ public class Node {
         return this.incomingEdges;
     }
 
-    public int getLBWeight() {
-        return this.LBWeight;
+    public int getId() {
+        return this.id;
     }
 
-    public void setLBWeight(int LBWeight) {
-        this.LBWeight = LBWeight;
+    void setId(int id) {
+        this.id = id;
     }
 
     @Override
@@ -72,6 +74,11 @@ public class Node {
         }
         return false;
     }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + weight;
+    }
     
     @Override
     public String toString() {
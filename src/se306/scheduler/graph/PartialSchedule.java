@@ -2,247 +2,488 @@ package se306.scheduler.graph;
 
 import java.util.*;
 
+/**
+ * A schedule of some (or all) of the tasks in a graph.
+ *
+ * Each task is identified by its dense id in a compiled {@link TaskGraph} (see {@link Node#getId()}), so the schedule
+ * itself is just a handful of primitive arrays indexed by that id. This keeps copying a schedule cheap, which matters because the search
+ * algorithms create one for every branch they explore.
+ */
 public class PartialSchedule {
-    private List<Node> nodes; // all nodes in the graph
-    private List<Node> visited; // all scheduled tasks
-    private List<Node> unvisited; // all unscheduled tasks
-    private Map<Node, Integer> processorMap; // the processors that scheduled tasks are assigned to
-    private Map<Node, Integer> startTimes; // the start times of all scheduled tasks
-    private Set<Integer> traversedProcessors; // all processors that at least one task has been placed on
-    private String ID;
+    /** Processors are stored in a byte per task, so this is the most a schedule can use */
+    public static final int MAX_PROCESSORS = Byte.MAX_VALUE;
+    private static final long SEQUENCE_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    // the multiplicative inverse of SEQUENCE_MULTIPLIER (mod 2^64), used to undo a processor hash update
+    private static final long SEQUENCE_MULTIPLIER_INVERSE = 0xF1DE83E19937733DL;
+
+    private TaskGraph graph; // shared between copies as it is never modified
+    private int numProcessors;
+    private int[] startTimes; // the start times of all scheduled tasks, indexed by task id
+    private byte[] processors; // the processors that scheduled tasks are assigned to (0 if not yet scheduled)
+    private long[] visited; // bitset of all scheduled tasks
+    private int[] order; // the ids of all scheduled tasks, in the order they were scheduled
+    private int numVisited;
+    private int[] remainingParents; // the number of each task's parents that have not been scheduled yet
+    private long[] ready; // bitset of all unscheduled tasks whose parents have all been scheduled
+    private int numReady;
+    private int[] processorTaskCounts; // the number of tasks placed on each processor
+    private int[] processorFinishTimes; // the time the last task on each processor finishes
+    private int makespan;
+    private int scheduledWork; // the total weight of all scheduled tasks
+    private long[] processorHashes; // a hash of the sequence of tasks on each processor
+    private long fingerprint;
+    // for each scheduled task (by position in `order`), the finish time of its processor and the makespan before it
+    // was scheduled. Only created by enableUndo(), so that copies stay small
+    private long[] undoLog;
+    private int undoFloor; // the number of tasks scheduled when undo was enabled, which cannot be undone
 
     public PartialSchedule() {
-        nodes = new ArrayList<>();
-        visited = new ArrayList<>();
-        unvisited = new ArrayList<>();
-        processorMap = new HashMap<>();
-        startTimes = new HashMap<>();
-        traversedProcessors = new HashSet<Integer>();
+        this(new ArrayList<>());
     }
-    
+
     /**
-     * Create a PartialSchedule from a list of nodes (with no nodes scheduled yet)
+     * Create a PartialSchedule from a list of nodes (with no nodes scheduled yet), allowing as many processors as there
+     * are nodes.
      */
     public PartialSchedule(List<Node> nodes) {
-        this.nodes = new ArrayList<>(nodes);
-        visited = new ArrayList<>();
-        unvisited = new ArrayList<>(nodes);
-        processorMap = new HashMap<>();
-        startTimes = new HashMap<>();
-        traversedProcessors = new HashSet<Integer>();
+        this(nodes, Math.max(1, Math.min(nodes.size(), MAX_PROCESSORS)));
+    }
+
+    /**
+     * Create a PartialSchedule from a list of nodes (with no nodes scheduled yet) to be scheduled on `numProcessors`
+     * processors. The nodes are compiled into a new {@link TaskGraph}, which sets each node's id to its index in the list.
+     */
+    public PartialSchedule(List<Node> nodes, int numProcessors) {
+        this(TaskGraph.compile(nodes), numProcessors);
+    }
+
+    /**
+     * Create an empty PartialSchedule of the tasks in `graph`, to be scheduled on `numProcessors` processors.
+     */
+    public PartialSchedule(TaskGraph graph, int numProcessors) {
+        if (numProcessors > MAX_PROCESSORS) {
+            throw new IllegalArgumentException("Cannot schedule on more than " + MAX_PROCESSORS + " processors");
+        }
+        this.graph = graph;
+        this.numProcessors = numProcessors;
+        int n = graph.size();
+        startTimes = new int[n];
+        Arrays.fill(startTimes, -1);
+        processors = new byte[n];
+        visited = new long[(n + 63) >>> 6];
+        order = new int[n];
+        remainingParents = new int[n];
+        ready = new long[visited.length];
+        for (int i = 0; i < n; i++) {
+            remainingParents[i] = graph.getNumParents(i);
+            if (remainingParents[i] == 0) {
+                ready[i >>> 6] |= 1L << i;
+                numReady++;
+            }
+        }
+        processorTaskCounts = new int[numProcessors + 1];
+        processorFinishTimes = new int[numProcessors + 1];
+        processorHashes = new long[numProcessors + 1];
     }
-    
+
     /**
      * Returns a deep copy of the supplied PartialSchedule and its contents
      */
     public PartialSchedule(PartialSchedule paritalSchedule) {
-        nodes = new ArrayList<>(paritalSchedule.getNodes());
-        processorMap = new HashMap<>(paritalSchedule.getProcessorMap());
-        startTimes = new HashMap<>(paritalSchedule.getStartTimes());
-        this.visited = new ArrayList<>(paritalSchedule.getVisited());
-        this.unvisited = new ArrayList<>(paritalSchedule.getUnvisited());
-        this.traversedProcessors = new HashSet<Integer>(paritalSchedule.getTraversedProcessors());
-        updateID();
+        graph = paritalSchedule.graph;
+        numProcessors = paritalSchedule.numProcessors;
+        startTimes = paritalSchedule.startTimes.clone();
+        processors = paritalSchedule.processors.clone();
+        visited = paritalSchedule.visited.clone();
+        order = paritalSchedule.order.clone();
+        numVisited = paritalSchedule.numVisited;
+        remainingParents = paritalSchedule.remainingParents.clone();
+        ready = paritalSchedule.ready.clone();
+        numReady = paritalSchedule.numReady;
+        processorTaskCounts = paritalSchedule.processorTaskCounts.clone();
+        processorFinishTimes = paritalSchedule.processorFinishTimes.clone();
+        makespan = paritalSchedule.makespan;
+        scheduledWork = paritalSchedule.scheduledWork;
+        processorHashes = paritalSchedule.processorHashes.clone();
+        fingerprint = paritalSchedule.fingerprint;
     }
 
     /**
-     * Updates teh ID field, which is returned by PartialSchedule.toString(). Partial schedules that are practically the
-     * same will have the same ID. The ID is made by concatenating all the node names in their scheduled order for each
-     * processor, then sorting these strings to make the ID the same for schedules that are effectively the same but with
-     * a processor switched. The ID is the concatenation of all these strings.
+     * Returns a 64-bit fingerprint of this schedule. Partial schedules that are practically the same will have the same
+     * fingerprint, which makes it suitable for detecting duplicate states.
+     *
+     * Each processor has a hash of the sequence of tasks placed on it, and the fingerprint is the sum of these (after
+     * mixing), so it stays the same for schedules that are effectively the same but with a processor switched. It is
+     * updated in O(1) every time a task is scheduled.
      */
-    private void updateID() {
-        String[] processorIDs = new String[processorMap.values().size()];
-        // so that there is a string to concatenate on to.
-        Arrays.fill(processorIDs, "");
-        for (Node node : visited) {
-            processorIDs[processorMap.get(node) - 1] += node.getName();
-        }
-        Arrays.sort(processorIDs);
-        ID = Arrays.toString(processorIDs);
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Spreads the bits of a processor hash, so that summing them does not cancel out any structure.
+     * This is the finalisation step from MurmurHash3, which maps 0 (an empty processor) to 0.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
     }
 
     /**
      * Checks if all nodes in the schedule have been visited, in which case the schedule is complete.
      */
     public boolean allVisited() {
-        return unvisited.isEmpty();
+        return numVisited == graph.size();
+    }
+
+    /**
+     * Returns true if `node` has been scheduled.
+     */
+    public boolean isVisited(Node node) {
+        return isVisited(node.getId());
+    }
+
+    /**
+     * Returns true if the task with id `task` has been scheduled.
+     */
+    public boolean isVisited(int task) {
+        return (visited[task >>> 6] & (1L << task)) != 0;
+    }
+
+    /**
+     * Returns a copy of the set of scheduled tasks, as a bitset where task t is bit (t % 64) of word (t / 64).
+     */
+    public long[] getScheduledSet() {
+        return visited.clone();
     }
 
     /**
      * Returns a list of all unvisited nodes.
      */
     public List<Node> getUnvisitedNodes() {
-        return new ArrayList<>(unvisited);
+        List<Node> unvisited = new ArrayList<>(graph.size() - numVisited);
+        for (int task = 0; task < graph.size(); task++) {
+            if (!isVisited(task)) {
+                unvisited.add(graph.getNode(task));
+            }
+        }
+        return unvisited;
     }
 
     /**
-     * Returns a list of all unvisited node names.
+     * Returns the number of nodes that have been scheduled.
      */
-    private List<Node> getUnvisited() {
-        return unvisited;
+    public int getNumVisited() {
+        return numVisited;
     }
-    
+
     /**
-     * Returns a list of all visited node names.
+     * Returns the number of nodes that have not been scheduled yet.
      */
-    public List<Node> getVisited() {
-        return visited;
+    public int getNumUnvisited() {
+        return graph.size() - numVisited;
+    }
+
+    /**
+     * Returns the id of the first task at or after `fromTask` that is ready to be scheduled (it is unscheduled and all
+     * its parents have been scheduled), or -1 if there are none. All ready tasks can be visited in order with:
+     * <pre>
+     * for (int task = schedule.nextReadyTask(0); task >= 0; task = schedule.nextReadyTask(task + 1))
+     * </pre>
+     */
+    public int nextReadyTask(int fromTask) {
+        int word = fromTask >>> 6;
+        if (word >= ready.length) {
+            return -1;
+        }
+        long bits = ready[word] & (-1L << fromTask);
+        while (bits == 0) {
+            if (++word == ready.length) {
+                return -1;
+            }
+            bits = ready[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
     }
 
     /**
-     * Returns the map of scheduled nodes to their processors.
+     * Returns the number of tasks that are ready to be scheduled.
      */
-    public Map<Node, Integer> getProcessorMap() {
-        return processorMap;
+    public int getNumReady() {
+        return numReady;
     }
 
     /**
-     * Returns the map of scheduled nodes to their start times.
+     * Returns a list of all visited nodes, in the order they were scheduled.
      */
-    public Map<Node, Integer> getStartTimes() {
-        return startTimes;
+    public List<Node> getVisited() {
+        List<Node> visitedNodes = new ArrayList<>(numVisited);
+        for (int i = 0; i < numVisited; i++) {
+            visitedNodes.add(graph.getNode(order[i]));
+        }
+        return visitedNodes;
+    }
+
+    /**
+     * Returns the id of the `index`th task to be scheduled (starting from 0).
+     */
+    public int getScheduledTask(int index) {
+        return order[index];
     }
 
     /**
      * Return the processor a given `node` is scheduled on.
      */
     public int getProcessor(Node node) {
-        return processorMap.get(node);
+        return processors[node.getId()];
+    }
+
+    /**
+     * Return the processor the task with id `task` is scheduled on, or 0 if it has not been scheduled.
+     */
+    public int getProcessor(int task) {
+        return processors[task];
     }
 
     /**
-     * Returns the start time of a given `node` if it has been assigned to a processor.
+     * Returns the start time of a given `node` if it has been assigned to a processor, or -1 otherwise.
      */
     public int getStartTime(Node node) {
-        return startTimes.get(node);
+        return startTimes[node.getId()];
     }
-    
+
     /**
-     * Returns a set of all processors that don't have any node scheduled on them.
+     * Returns the start time of the task with id `task` if it has been assigned to a processor, or -1 otherwise.
      */
-    private Set<Integer> getTraversedProcessors() {
-        return traversedProcessors;
+    public int getStartTime(int task) {
+        return startTimes[task];
     }
 
     /**
-     * Schedule the node with the name `nodeName` on processor `processor`, at time `startTime`.
-     * 
+     * Schedule the node `node` on processor `processor`, at time `startTime`.
+     *
      * Returns true if the node is the first to be added on this processor, and false otherwise.
      */
     public boolean scheduleTask(Node node, int processor, int startTime) {
-        processorMap.put(node, processor);
-        startTimes.put(node,startTime);
-        
-        visited.add(node);
-        unvisited.remove(node);
-        updateID();
+        return scheduleTask(node.getId(), processor, startTime);
+    }
+
+    /**
+     * Schedule the task with id `task` on processor `processor`, at time `startTime`.
+     *
+     * Returns true if the task is the first to be added on this processor, and false otherwise.
+     */
+    public boolean scheduleTask(int task, int processor, int startTime) {
+        processors[task] = (byte) processor;
+        startTimes[task] = startTime;
 
-        if (!traversedProcessors.contains(processor)) {
-            traversedProcessors.add(processor);
-            return true;
+        if (undoLog != null) {
+            undoLog[numVisited] = ((long) processorFinishTimes[processor] << 32) | makespan;
         }
-        return false;
+
+        visited[task >>> 6] |= 1L << task;
+        order[numVisited++] = task;
+        if ((ready[task >>> 6] & (1L << task)) != 0) {
+            ready[task >>> 6] &= ~(1L << task);
+            numReady--;
+        }
+        for (int e = graph.getChildrenStart(task); e < graph.getChildrenEnd(task); e++) {
+            int childTask = graph.getChild(e);
+            if (--remainingParents[childTask] == 0) {
+                ready[childTask >>> 6] |= 1L << childTask;
+                numReady++;
+            }
+        }
+
+        long oldHash = processorHashes[processor];
+        long newHash = oldHash * SEQUENCE_MULTIPLIER + graph.getTaskKey(task);
+        processorHashes[processor] = newHash;
+        fingerprint += mix(newHash) - mix(oldHash);
+
+        int finishTime = startTime + graph.getWeight(task);
+        scheduledWork += graph.getWeight(task);
+        if (finishTime > processorFinishTimes[processor]) {
+            processorFinishTimes[processor] = finishTime;
+        }
+        if (finishTime > makespan) {
+            makespan = finishTime;
+        }
+
+        return processorTaskCounts[processor]++ == 0;
     }
-    
+
     /**
-     * Checks if all of a node's dependencies have already been assigned to processors.
+     * Lets tasks scheduled from now on be removed with {@link #unscheduleTask()}. Only searches that explore branches
+     * in place need this; copies of the schedule do not keep it.
      */
-    public boolean dependenciesSatisfied(Node node) {
-        for (Node parent: node.getIncomingEdges().keySet()) {
-            if (unvisited.contains(parent)) {
-                return false;
+    public void enableUndo() {
+        undoLog = new long[graph.size()];
+        undoFloor = numVisited;
+    }
+
+    /**
+     * Removes the most recently scheduled task, returning the schedule to exactly the state it was in before that
+     * task was scheduled. This lets a search explore a branch in place and then back out of it, instead of copying the
+     * schedule for every branch.
+     *
+     * @throws IllegalStateException if undo is not enabled, or no tasks have been scheduled since it was
+     */
+    public void unscheduleTask() {
+        if (undoLog == null || numVisited == undoFloor) {
+            throw new IllegalStateException("No scheduled tasks to undo");
+        }
+        int task = order[--numVisited];
+        int processor = processors[task];
+        processors[task] = 0;
+        startTimes[task] = -1;
+        visited[task >>> 6] &= ~(1L << task);
+        for (int e = graph.getChildrenStart(task); e < graph.getChildrenEnd(task); e++) {
+            int childTask = graph.getChild(e);
+            if (remainingParents[childTask]++ == 0) {
+                ready[childTask >>> 6] &= ~(1L << childTask);
+                numReady--;
             }
         }
-        return true;
+        if (remainingParents[task] == 0) {
+            ready[task >>> 6] |= 1L << task;
+            numReady++;
+        }
+
+        long undo = undoLog[numVisited];
+        processorFinishTimes[processor] = (int) (undo >>> 32);
+        makespan = (int) undo;
+        scheduledWork -= graph.getWeight(task);
+        processorTaskCounts[processor]--;
+
+        long newHash = processorHashes[processor];
+        long oldHash = (newHash - graph.getTaskKey(task)) * SEQUENCE_MULTIPLIER_INVERSE;
+        processorHashes[processor] = oldHash;
+        fingerprint += mix(oldHash) - mix(newHash);
+    }
+
+    /**
+     * Checks if all of a node's dependencies have already been assigned to processors.
+     */
+    public boolean dependenciesSatisfied(Node node) {
+        return remainingParents[node.getId()] == 0;
     }
-    
+
     /**
-     * Finds the makespan of the schedule, the latest finishing time of any task.
+     * Returns the makespan of the schedule, the latest finishing time of any task.
      */
     public int getMakespan() {
-        int makespan = 0;
-        for (Node node: visited) {
-            int finishTime = startTimes.get(node) + node.getWeight();
-            if (finishTime > makespan) {
-                makespan = finishTime;
-            }
-        }
         return makespan;
     }
 
+    /**
+     * Returns the total weight of all scheduled tasks.
+     */
+    public int getScheduledWork() {
+        return scheduledWork;
+    }
+
+    /**
+     * Returns the time the last task scheduled on `processor` finishes, or 0 if it is empty.
+     */
+    public int getProcessorFinishTime(int processor) {
+        return processorFinishTimes[processor];
+    }
+
     /**
      * Finds the earliest possible start time a particular node can be added to a particular processor.
      * @param newNode The node to add
      * @param processor The processor to add it to
      */
     public int findBestStartTime(Node newNode, int processor) {
-        // default is 0 if no other nodes placed and it has no dependencies
-        int bestStartTime = 0;
-        
-        // a node cannot start until all previous nodes on that processor have finished
-        for (Node node: visited) {
-            if (processorMap.get(node) == processor) {
-                int finishTime = startTimes.get(node) + node.getWeight();
-                if (finishTime > bestStartTime) {
-                    bestStartTime = finishTime;
-                }
-            }
-        }
-        
+        return findBestStartTime(newNode.getId(), processor);
+    }
+
+    /**
+     * Finds the earliest possible start time the task with id `task` can be added to a particular processor.
+     */
+    public int findBestStartTime(int task, int processor) {
+        // a node cannot start until all previous nodes on that processor have finished (0 if there are none)
+        int bestStartTime = processorFinishTimes[processor];
+
         // account for dependency 'edge costs'
-        for (Node parent: newNode.getIncomingEdges().keySet()) {
-            int edgeCost = newNode.getIncomingEdges().get(parent);
+        for (int e = graph.getParentsStart(task); e < graph.getParentsEnd(task); e++) {
+            int parent = graph.getParent(e);
             // edge costs only are counted if the node is on a different processor to its parent
-            if (processorMap.get(parent) != processor) {
-                int newStartTime = startTimes.get(parent) + parent.getWeight() + edgeCost;
+            if (processors[parent] != processor) {
+                int newStartTime = startTimes[parent] + graph.getWeight(parent) + graph.getParentCost(e);
                 if (newStartTime > bestStartTime) {
                     bestStartTime = newStartTime;
                 }
             }
         }
-        
+
         return bestStartTime;
     }
-    
+
     /**
      * Returns true if no tasks have been scheduled on `processor`.
      */
     public boolean isProcessorEmpty(int processor) {
-    	return !traversedProcessors.contains(processor);
+    	return processorTaskCounts[processor] == 0;
+    }
+
+    /**
+     * Returns the number of processors this schedule can place tasks on.
+     */
+    public int getNumProcessors() {
+        return numProcessors;
+    }
+
+    /**
+     * Returns the graph of tasks being scheduled.
+     */
+    public TaskGraph getGraph() {
+        return graph;
     }
-    
+
     /**
      * Returns all the nodes in the graph.
      */
     public List<Node> getNodes() {
-        return nodes;
+        return graph.getNodes();
     }
-    
+
     /**
      * Returns the nodes using a list representation.
      */
     public List<Node> toList() {
-        return new ArrayList<Node>(nodes);
+        return new ArrayList<Node>(graph.getNodes());
     }
-    
+
     /**
      * Returns the node with this name.
      */
     public Node getNode(String name) {
-        for (Node node: nodes) {
-            if (node.getName().equals(name)) {
-                return node;
-            }
-        }
-        return null;
+        return graph.getNode(name);
     }
-    
+
     /**
-     * Returns a string representation of this schedule.
+     * Returns a string representation of this schedule, listing the tasks on each processor in the order they were
+     * scheduled.
      */
     @Override
     public String toString() {
-        return ID;
+        StringBuilder[] processorStrings = new StringBuilder[numProcessors];
+        for (int p = 0; p < numProcessors; p++) {
+            processorStrings[p] = new StringBuilder();
+        }
+        for (int i = 0; i < numVisited; i++) {
+            int task = order[i];
+            StringBuilder processorString = processorStrings[processors[task] - 1];
+            if (processorString.length() > 0) {
+                processorString.append(' ');
+            }
+            processorString.append(graph.getNode(task).getName());
+        }
+        return Arrays.toString(processorStrings);
     }
 }
@@ -0,0 +1,411 @@
+package se306.scheduler.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * An immutable, compiled form of a graph of {@link Node}s, made once the graph has been read.
+ *
+ * Each task is given a dense int id (its index in the list it was compiled from), and its weight, parents and children
+ * are stored in flat arrays indexed by that id. Parents and children use a compressed sparse row layout: the parents of
+ * task t are {@code getParent(e)} for every edge e from {@code getParentsStart(t)} (inclusive) to
+ * {@code getParentsEnd(t)} (exclusive), with the cost of each edge at the same index. This lets the search algorithms
+ * walk a task's dependencies without hashing or chasing pointers.
+ *
+ * Compiling also works out the levels of every task in one pass over a topological order, which bounds and heuristics
+ * use to estimate how long the rest of a schedule must take.
+ */
+public final class TaskGraph {
+    // fixed so that schedule fingerprints are the same between runs
+    private static final long TASK_KEY_SEED = 306;
+
+    private final List<Node> nodes;
+    private final Map<String, Integer> taskIds; // the id of the first task with each name
+    private final int[] weights;
+    private final int[] parentOffsets; // parents of task t are at parentOffsets[t] until parentOffsets[t + 1]
+    private final int[] parents;
+    private final int[] parentCosts;
+    private final int[] childOffsets; // children of task t are at childOffsets[t] until childOffsets[t + 1]
+    private final int[] children;
+    private final int[] childCosts;
+    private final long[] taskKeys; // a random key for each task, used to build schedule fingerprints
+    private final int[] topologicalOrder; // every task id, with each task after all of its parents
+    private final int[] previousEquivalent; // the id of the last task before each task that is equivalent to it, or -1
+    private final int[] bottomLevels;
+    private final int[] bottomLevelsWithCommunication;
+    private final int[] topLevels;
+    private final int[] topLevelsWithCommunication;
+    private final int criticalPathLength;
+    private final int criticalPathLengthWithCommunication;
+    private final int totalWork;
+
+    private TaskGraph(List<Node> nodes) {
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+        int n = nodes.size();
+        taskIds = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            nodes.get(i).setId(i);
+            taskIds.putIfAbsent(nodes.get(i).getName(), i);
+        }
+
+        weights = new int[n];
+        parentOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            weights[i] = nodes.get(i).getWeight();
+            parentOffsets[i + 1] = parentOffsets[i] + nodes.get(i).getIncomingEdges().size();
+        }
+        int numEdges = parentOffsets[n];
+
+        // parents are stored in id order, so every task's dependencies are visited in a fixed order
+        parents = new int[numEdges];
+        parentCosts = new int[numEdges];
+        int[] numChildren = new int[n];
+        for (int i = 0; i < n; i++) {
+            Map<Node, Integer> incomingEdges = nodes.get(i).getIncomingEdges();
+            long[] edges = new long[incomingEdges.size()];
+            int e = 0;
+            for (Map.Entry<Node, Integer> edge : incomingEdges.entrySet()) {
+                int parent = edge.getKey().getId();
+                if (parent < 0 || parent >= n || nodes.get(parent) != edge.getKey()) {
+                    throw new IllegalArgumentException("Parent " + edge.getKey().getName() + " of "
+                            + nodes.get(i).getName() + " is not in the graph");
+                }
+                edges[e++] = ((long) parent << 32) | (edge.getValue() & 0xFFFFFFFFL);
+                numChildren[parent]++;
+            }
+            Arrays.sort(edges);
+            for (e = 0; e < edges.length; e++) {
+                parents[parentOffsets[i] + e] = (int) (edges[e] >>> 32);
+                parentCosts[parentOffsets[i] + e] = (int) edges[e];
+            }
+        }
+
+        // children are the same edges in the other direction, and end up in id order too
+        childOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            childOffsets[i + 1] = childOffsets[i] + numChildren[i];
+        }
+        children = new int[numEdges];
+        childCosts = new int[numEdges];
+        int[] next = Arrays.copyOf(childOffsets, n);
+        for (int child = 0; child < n; child++) {
+            for (int e = parentOffsets[child]; e < parentOffsets[child + 1]; e++) {
+                int slot = next[parents[e]]++;
+                children[slot] = child;
+                childCosts[slot] = parentCosts[e];
+            }
+        }
+
+        taskKeys = new long[n];
+        Random random = new Random(TASK_KEY_SEED);
+        for (int i = 0; i < n; i++) {
+            taskKeys[i] = random.nextLong();
+        }
+
+        previousEquivalent = equivalentTasks();
+
+        topologicalOrder = topologicalOrder();
+        topLevels = new int[n];
+        topLevelsWithCommunication = new int[n];
+        for (int task : topologicalOrder) {
+            for (int e = parentOffsets[task]; e < parentOffsets[task + 1]; e++) {
+                int parent = parents[e];
+                topLevels[task] = Math.max(topLevels[task], topLevels[parent] + weights[parent]);
+                topLevelsWithCommunication[task] = Math.max(topLevelsWithCommunication[task],
+                        topLevelsWithCommunication[parent] + weights[parent] + parentCosts[e]);
+            }
+        }
+
+        bottomLevels = new int[n];
+        bottomLevelsWithCommunication = new int[n];
+        int longestPath = 0;
+        int longestPathWithCommunication = 0;
+        int work = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int task = topologicalOrder[i];
+            int longestChild = 0;
+            int longestChildWithCommunication = 0;
+            for (int e = childOffsets[task]; e < childOffsets[task + 1]; e++) {
+                int child = children[e];
+                longestChild = Math.max(longestChild, bottomLevels[child]);
+                longestChildWithCommunication = Math.max(longestChildWithCommunication,
+                        childCosts[e] + bottomLevelsWithCommunication[child]);
+            }
+            bottomLevels[task] = weights[task] + longestChild;
+            bottomLevelsWithCommunication[task] = weights[task] + longestChildWithCommunication;
+            longestPath = Math.max(longestPath, bottomLevels[task]);
+            longestPathWithCommunication = Math.max(longestPathWithCommunication, bottomLevelsWithCommunication[task]);
+            work += weights[task];
+        }
+        criticalPathLength = longestPath;
+        criticalPathLengthWithCommunication = longestPathWithCommunication;
+        totalWork = work;
+    }
+
+    /**
+     * Groups tasks that are interchangeable, as they have the same weight, the same parents and the same children with
+     * the same edge costs, and links each task to the one before it in its group.
+     */
+    private int[] equivalentTasks() {
+        int n = weights.length;
+        int[] previous = new int[n];
+        Map<List<Integer>, Integer> lastInClass = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            // parents and children are in id order, so equivalent tasks have the same list
+            List<Integer> key = new ArrayList<>();
+            key.add(weights[i]);
+            key.add(parentOffsets[i + 1] - parentOffsets[i]);
+            for (int e = parentOffsets[i]; e < parentOffsets[i + 1]; e++) {
+                key.add(parents[e]);
+                key.add(parentCosts[e]);
+            }
+            for (int e = childOffsets[i]; e < childOffsets[i + 1]; e++) {
+                key.add(children[e]);
+                key.add(childCosts[e]);
+            }
+            Integer last = lastInClass.put(key, i);
+            previous[i] = last == null ? -1 : last;
+        }
+        return previous;
+    }
+
+    /**
+     * Orders the tasks so that each comes after all of its parents, using Kahn's algorithm.
+     *
+     * @throws IllegalArgumentException if the graph has a cycle, so there is no such order
+     */
+    private int[] topologicalOrder() {
+        int n = weights.length;
+        int[] order = new int[n];
+        int[] remainingParents = new int[n];
+        int size = 0;
+        for (int task = 0; task < n; task++) {
+            remainingParents[task] = getNumParents(task);
+            if (remainingParents[task] == 0) {
+                order[size++] = task;
+            }
+        }
+        // `order` doubles as the queue of tasks whose parents have all been placed
+        for (int head = 0; head < size; head++) {
+            int task = order[head];
+            for (int e = childOffsets[task]; e < childOffsets[task + 1]; e++) {
+                if (--remainingParents[children[e]] == 0) {
+                    order[size++] = children[e];
+                }
+            }
+        }
+        if (size < n) {
+            throw new IllegalArgumentException("The graph has a cycle");
+        }
+        return order;
+    }
+
+    /**
+     * Compiles a list of nodes into a TaskGraph. Each node's id is set to its index in the list, and every parent of a
+     * node must also be in the list.
+     *
+     * @throws IllegalArgumentException if a node has a parent that is not in the list, or the graph has a cycle
+     */
+    public static TaskGraph compile(List<Node> nodes) {
+        return new TaskGraph(nodes);
+    }
+
+    /**
+     * Returns the number of tasks in the graph.
+     */
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * Returns the node with id `task`.
+     */
+    public Node getNode(int task) {
+        return nodes.get(task);
+    }
+
+    /**
+     * Returns the id of the task called `name`, or -1 if there is no such task.
+     */
+    public int getTaskId(String name) {
+        Integer task = taskIds.get(name);
+        return task == null ? -1 : task;
+    }
+
+    /**
+     * Returns the node called `name`, or null if there is no such node.
+     */
+    public Node getNode(String name) {
+        Integer task = taskIds.get(name);
+        return task == null ? null : nodes.get(task);
+    }
+
+    /**
+     * Returns all nodes in the graph, in id order. The list cannot be modified.
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public int getWeight(int task) {
+        return weights[task];
+    }
+
+    public int getNumParents(int task) {
+        return parentOffsets[task + 1] - parentOffsets[task];
+    }
+
+    /**
+     * Returns the index of the first edge into `task`.
+     */
+    public int getParentsStart(int task) {
+        return parentOffsets[task];
+    }
+
+    /**
+     * Returns the index after the last edge into `task`.
+     */
+    public int getParentsEnd(int task) {
+        return parentOffsets[task + 1];
+    }
+
+    /**
+     * Returns the id of the parent at the start of an edge between {@link #getParentsStart} and
+     * {@link #getParentsEnd}.
+     */
+    public int getParent(int edge) {
+        return parents[edge];
+    }
+
+    public int getParentCost(int edge) {
+        return parentCosts[edge];
+    }
+
+    /**
+     * Returns the cost of the edge from `parent` to `task`, or -1 if `parent` is not a parent of `task`.
+     */
+    public int getEdgeCost(int parent, int task) {
+        int edge = Arrays.binarySearch(parents, parentOffsets[task], parentOffsets[task + 1], parent);
+        return edge >= 0 ? parentCosts[edge] : -1;
+    }
+
+    public int getNumChildren(int task) {
+        return childOffsets[task + 1] - childOffsets[task];
+    }
+
+    /**
+     * Returns the index of the first edge out of `task`.
+     */
+    public int getChildrenStart(int task) {
+        return childOffsets[task];
+    }
+
+    /**
+     * Returns the index after the last edge out of `task`.
+     */
+    public int getChildrenEnd(int task) {
+        return childOffsets[task + 1];
+    }
+
+    /**
+     * Returns the id of the child at the end of an edge between {@link #getChildrenStart} and
+     * {@link #getChildrenEnd}.
+     */
+    public int getChild(int edge) {
+        return children[edge];
+    }
+
+    public int getChildCost(int edge) {
+        return childCosts[edge];
+    }
+
+    /**
+     * Returns the id of the `index`th task in a topological order of the graph, where every task comes after all of
+     * its parents.
+     */
+    public int getTopologicalOrder(int index) {
+        return topologicalOrder[index];
+    }
+
+    /**
+     * Returns the length of the longest path from the start of `task` to the end of the graph, counting task weights
+     * but not edge costs. No schedule can finish sooner than this after `task` starts.
+     */
+    public int getBottomLevel(int task) {
+        return bottomLevels[task];
+    }
+
+    /**
+     * Returns the length of the longest path from the start of `task` to the end of the graph, counting both task
+     * weights and edge costs.
+     */
+    public int getBottomLevelWithCommunication(int task) {
+        return bottomLevelsWithCommunication[task];
+    }
+
+    /**
+     * Returns the length of the longest path from the start of the graph to the start of `task`, counting task weights
+     * but not edge costs. No schedule can start `task` before this.
+     */
+    public int getTopLevel(int task) {
+        return topLevels[task];
+    }
+
+    /**
+     * Returns the length of the longest path from the start of the graph to the start of `task`, counting both task
+     * weights and edge costs.
+     */
+    public int getTopLevelWithCommunication(int task) {
+        return topLevelsWithCommunication[task];
+    }
+
+    /**
+     * Returns the id of the closest task before `task` that is interchangeable with it (it has the same weight, parents
+     * and children, with the same edge costs), or -1 if there is none. Swapping two such tasks in a schedule gives a
+     * schedule of the same length, so a search only needs to schedule them in id order.
+     */
+    public int getPreviousEquivalentTask(int task) {
+        return previousEquivalent[task];
+    }
+
+    /**
+     * Returns the length of the longest path through the graph, counting task weights but not edge costs.
+     */
+    public int getCriticalPathLength() {
+        return criticalPathLength;
+    }
+
+    /**
+     * Returns the length of the longest path through the graph, counting both task weights and edge costs.
+     */
+    public int getCriticalPathLengthWithCommunication() {
+        return criticalPathLengthWithCommunication;
+    }
+
+    /**
+     * Returns the sum of the weights of all tasks.
+     */
+    public int getTotalWork() {
+        return totalWork;
+    }
+
+    /**
+     * Returns a lower bound on the makespan of any schedule of this graph on `numProcessors` processors: it can be no
+     * shorter than the critical path, or than the total work split evenly across every processor.
+     */
+    public int getMakespanLowerBound(int numProcessors) {
+        return Math.max(criticalPathLength, (totalWork + numProcessors - 1) / numProcessors);
+    }
+
+    /**
+     * Returns the random key of `task` that schedules use to build their fingerprints.
+     */
+    long getTaskKey(int task) {
+        return taskKeys[task];
+    }
+}
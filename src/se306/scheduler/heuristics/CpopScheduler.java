@@ -0,0 +1,41 @@
+package se306.scheduler.heuristics;
+
+import java.util.Random;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * Critical Path On a Processor (CPOP): tasks are ranked by the sum of their top and bottom levels including
+ * communication costs, which is the length of the longest path through them. The tasks on the critical path (where
+ * this is longest) all go on the first processor, so no communication costs are paid along it, and every other task
+ * goes on the processor where it can start earliest.
+ */
+public class CpopScheduler extends ListScheduler {
+
+    public CpopScheduler() {
+        super("CPOP", null);
+    }
+
+    @Override
+    protected long[] priorities(TaskGraph graph) {
+        long[] priorities = new long[graph.size()];
+        for (int task = 0; task < graph.size(); task++) {
+            priorities[task] = pathLength(graph, task);
+        }
+        return priorities;
+    }
+
+    @Override
+    protected int chooseProcessor(PartialSchedule schedule, int task, Random random) {
+        TaskGraph graph = schedule.getGraph();
+        if (pathLength(graph, task) == graph.getCriticalPathLengthWithCommunication()) {
+            return 1;
+        }
+        return super.chooseProcessor(schedule, task, random);
+    }
+
+    private static int pathLength(TaskGraph graph, int task) {
+        return graph.getTopLevelWithCommunication(task) + graph.getBottomLevelWithCommunication(task);
+    }
+}
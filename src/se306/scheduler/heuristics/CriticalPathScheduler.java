@@ -0,0 +1,31 @@
+package se306.scheduler.heuristics;
+
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * Critical path list scheduling: tasks are ranked by their bottom level without communication costs, so the tasks on
+ * the longest chain of work are always scheduled first.
+ */
+public class CriticalPathScheduler extends ListScheduler {
+    private static final String NAME = "critical path";
+
+    public CriticalPathScheduler() {
+        super(NAME, null);
+    }
+
+    /**
+     * Creates a scheduler that breaks ties randomly, using `seed`.
+     */
+    public CriticalPathScheduler(long seed) {
+        super(NAME, seed);
+    }
+
+    @Override
+    protected long[] priorities(TaskGraph graph) {
+        long[] priorities = new long[graph.size()];
+        for (int task = 0; task < graph.size(); task++) {
+            priorities[task] = graph.getBottomLevel(task);
+        }
+        return priorities;
+    }
+}
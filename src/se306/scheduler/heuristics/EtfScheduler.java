@@ -0,0 +1,133 @@
+package se306.scheduler.heuristics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * Earliest Task First (ETF): rather than ranking tasks up front, each step schedules whichever ready task can start
+ * earliest, on the processor where it can do so. Ties go to the task with the highest bottom level, then the lowest id.
+ *
+ * A task's start time on a processor is the later of when the processor is free and when the task's data arrives
+ * there, which is fixed once the task is ready. So each processor keeps the ready tasks whose data has not arrived by
+ * the time it is free, ordered by arrival time, and those whose data has, ordered by bottom level. Tasks only move
+ * from the first to the second as the processor's finish time grows, and the best task for each processor is at the
+ * front of one of them, so each step only looks at the front of each processor's queues.
+ */
+public class EtfScheduler implements Heuristic {
+
+    @Override
+    public String getName() {
+        return "ETF";
+    }
+
+    @Override
+    public PartialSchedule schedule(TaskGraph graph, int numProcessors) {
+        int n = graph.size();
+        PartialSchedule schedule = new PartialSchedule(graph, numProcessors);
+        // when the data of each ready task arrives on each processor, indexed by processor then task
+        int[][] dataReady = new int[numProcessors + 1][n];
+        List<PriorityQueue<Integer>> waiting = new ArrayList<>();
+        List<PriorityQueue<Integer>> arrived = new ArrayList<>();
+        waiting.add(null);
+        arrived.add(null);
+        for (int p = 1; p <= numProcessors; p++) {
+            int[] arrival = dataReady[p];
+            waiting.add(new PriorityQueue<>((a, b) -> arrival[a] != arrival[b]
+                    ? Integer.compare(arrival[a], arrival[b]) : compareTasks(graph, a, b)));
+            arrived.add(new PriorityQueue<>((a, b) -> compareTasks(graph, a, b)));
+        }
+
+        int[] remainingParents = new int[n];
+        for (int task = 0; task < n; task++) {
+            remainingParents[task] = graph.getNumParents(task);
+            if (remainingParents[task] == 0) {
+                addReady(schedule, task, dataReady, waiting);
+            }
+        }
+
+        while (!schedule.allVisited()) {
+            int bestTask = -1;
+            int bestProcessor = 0;
+            int bestStart = Integer.MAX_VALUE;
+            for (int p = 1; p <= numProcessors; p++) {
+                int finishTime = schedule.getProcessorFinishTime(p);
+                PriorityQueue<Integer> waitingOnP = waiting.get(p);
+                PriorityQueue<Integer> arrivedOnP = arrived.get(p);
+                while (!waitingOnP.isEmpty() && (schedule.isVisited(waitingOnP.peek())
+                        || dataReady[p][waitingOnP.peek()] <= finishTime)) {
+                    int task = waitingOnP.poll();
+                    if (!schedule.isVisited(task)) {
+                        arrivedOnP.add(task);
+                    }
+                }
+                while (!arrivedOnP.isEmpty() && schedule.isVisited(arrivedOnP.peek())) {
+                    arrivedOnP.poll();
+                }
+
+                int task;
+                int start;
+                if (!arrivedOnP.isEmpty()) {
+                    task = arrivedOnP.peek();
+                    start = finishTime;
+                } else {
+                    task = waitingOnP.peek();
+                    start = dataReady[p][task];
+                }
+                if (start < bestStart || (start == bestStart && compareTasks(graph, task, bestTask) < 0)) {
+                    bestTask = task;
+                    bestProcessor = p;
+                    bestStart = start;
+                }
+                // every empty processor after this one would give the same start time
+                if (schedule.isProcessorEmpty(p)) {
+                    break;
+                }
+            }
+
+            schedule.scheduleTask(bestTask, bestProcessor, bestStart);
+            for (int e = graph.getChildrenStart(bestTask); e < graph.getChildrenEnd(bestTask); e++) {
+                if (--remainingParents[graph.getChild(e)] == 0) {
+                    addReady(schedule, graph.getChild(e), dataReady, waiting);
+                }
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Orders tasks by highest bottom level, then lowest id.
+     */
+    private static int compareTasks(TaskGraph graph, int a, int b) {
+        if (graph.getBottomLevel(a) != graph.getBottomLevel(b)) {
+            return Integer.compare(graph.getBottomLevel(b), graph.getBottomLevel(a));
+        }
+        return Integer.compare(a, b);
+    }
+
+    /**
+     * Works out when the data of a task that has just become ready arrives on each processor, and adds it to every
+     * processor's queue of tasks waiting for their data.
+     */
+    private static void addReady(PartialSchedule schedule, int task, int[][] dataReady,
+            List<PriorityQueue<Integer>> waiting) {
+        TaskGraph graph = schedule.getGraph();
+        for (int p = 1; p < dataReady.length; p++) {
+            int arrival = 0;
+            for (int e = graph.getParentsStart(task); e < graph.getParentsEnd(task); e++) {
+                int parent = graph.getParent(e);
+                int finish = schedule.getStartTime(parent) + graph.getWeight(parent);
+                if (schedule.getProcessor(parent) != p) {
+                    // data only has to be sent if the parent is on another processor
+                    finish += graph.getParentCost(e);
+                }
+                arrival = Math.max(arrival, finish);
+            }
+            dataReady[p][task] = arrival;
+            waiting.get(p).add(task);
+        }
+    }
+}
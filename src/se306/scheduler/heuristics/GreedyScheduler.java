@@ -0,0 +1,37 @@
+package se306.scheduler.heuristics;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * The simplest list scheduler: each step takes the ready task with the lowest id and puts it on the processor where it
+ * can start earliest.
+ */
+public class GreedyScheduler implements Heuristic {
+
+    @Override
+    public String getName() {
+        return "greedy";
+    }
+
+    @Override
+    public PartialSchedule schedule(TaskGraph graph, int numProcessors) {
+        PartialSchedule schedule = new PartialSchedule(graph, numProcessors);
+        // iterates until all nodes reached, starting with the first node with no parents (which goes on processor 1)
+        while (!schedule.allVisited()) {
+            int task = schedule.nextReadyTask(0);
+            // schedules node at the processor/time that is immediately best (greedy)
+            int bestStart = Integer.MAX_VALUE;
+            int bestProcessor = 0;
+            for (int k = 1; k <= numProcessors; k++) {
+                int start = schedule.findBestStartTime(task, k);
+                if (start < bestStart) {
+                    bestStart = start;
+                    bestProcessor = k;
+                }
+            }
+            schedule.scheduleTask(task, bestProcessor, bestStart);
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,32 @@
+package se306.scheduler.heuristics;
+
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * Heterogeneous Earliest Finish Time (HEFT): tasks are ranked by their bottom level including communication costs (the
+ * longest path from the start of the task to the end of the schedule), and each goes on the processor where it finishes
+ * earliest. All processors here run at the same speed, so the average costs HEFT ranks by are the real ones.
+ */
+public class HeftScheduler extends ListScheduler {
+    private static final String NAME = "HEFT";
+
+    public HeftScheduler() {
+        super(NAME, null);
+    }
+
+    /**
+     * Creates a scheduler that breaks ties randomly, using `seed`.
+     */
+    public HeftScheduler(long seed) {
+        super(NAME, seed);
+    }
+
+    @Override
+    protected long[] priorities(TaskGraph graph) {
+        long[] priorities = new long[graph.size()];
+        for (int task = 0; task < graph.size(); task++) {
+            priorities[task] = graph.getBottomLevelWithCommunication(task);
+        }
+        return priorities;
+    }
+}
@@ -0,0 +1,21 @@
+package se306.scheduler.heuristics;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * A fast way of building a complete schedule that is usually close to optimal, but not guaranteed to be.
+ * Implementations must be safe to run on several threads at once, each with its own call to {@link #schedule}.
+ */
+public interface Heuristic {
+
+    /**
+     * Returns a short name for the heuristic, for reporting.
+     */
+    String getName();
+
+    /**
+     * Builds a complete schedule of the tasks in `graph` on `numProcessors` processors.
+     */
+    PartialSchedule schedule(TaskGraph graph, int numProcessors);
+}
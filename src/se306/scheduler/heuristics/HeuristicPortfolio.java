@@ -0,0 +1,73 @@
+package se306.scheduler.heuristics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * Runs several heuristics in parallel and keeps the shortest schedule any of them finds. Each heuristic is run at most
+ * once per graph, and ties go to the heuristic listed first, so the result does not depend on which finishes first.
+ */
+public class HeuristicPortfolio implements Heuristic {
+    // the number of runs with random tie-breaking for each of the randomised heuristics in the default portfolio
+    private static final int RANDOM_RUNS = 4;
+
+    private final List<Heuristic> heuristics;
+
+    public HeuristicPortfolio(List<Heuristic> heuristics) {
+        if (heuristics.isEmpty()) {
+            throw new IllegalArgumentException("A portfolio needs at least one heuristic");
+        }
+        this.heuristics = Collections.unmodifiableList(new ArrayList<>(heuristics));
+    }
+
+    /**
+     * Creates a portfolio of every heuristic in this package, along with some randomised runs of HEFT and critical path
+     * list scheduling. The greedy schedule is always included, so the result is never longer than it.
+     */
+    public HeuristicPortfolio() {
+        this(defaultHeuristics());
+    }
+
+    private static List<Heuristic> defaultHeuristics() {
+        List<Heuristic> heuristics = new ArrayList<>();
+        heuristics.add(new GreedyScheduler());
+        heuristics.add(new HeftScheduler());
+        heuristics.add(new CpopScheduler());
+        heuristics.add(new EtfScheduler());
+        heuristics.add(new CriticalPathScheduler());
+        for (long seed = 1; seed <= RANDOM_RUNS; seed++) {
+            heuristics.add(new HeftScheduler(seed));
+            heuristics.add(new CriticalPathScheduler(seed));
+        }
+        return heuristics;
+    }
+
+    @Override
+    public String getName() {
+        return "best of " + heuristics.size() + " heuristics";
+    }
+
+    public List<Heuristic> getHeuristics() {
+        return heuristics;
+    }
+
+    @Override
+    public PartialSchedule schedule(TaskGraph graph, int numProcessors) {
+        List<PartialSchedule> schedules = heuristics.parallelStream()
+                .map(heuristic -> heuristic.schedule(graph, numProcessors))
+                .collect(Collectors.toList());
+
+        PartialSchedule best = schedules.get(0);
+        for (PartialSchedule schedule : schedules) {
+            if (schedule.getMakespan() < best.getMakespan()) {
+                best = schedule;
+            }
+        }
+        return best;
+    }
+}
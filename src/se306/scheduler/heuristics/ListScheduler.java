@@ -0,0 +1,113 @@
+package se306.scheduler.heuristics;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * The common form of list scheduling: each task is given a priority, then the ready task with the highest priority is
+ * repeatedly placed on the processor where it can start (and so finish) earliest.
+ *
+ * Ties between tasks with the same priority, and between processors with the same start time, go to the lowest id, or
+ * are broken randomly if a seed is given (the same seed always gives the same schedule). Schedules are only ever
+ * appended to, so unlike the original versions of some of these heuristics, tasks are never inserted into idle gaps
+ * earlier on a processor.
+ */
+public abstract class ListScheduler implements Heuristic {
+    private final String name;
+    private final Long seed; // for breaking ties randomly, or null to use the lowest id
+
+    protected ListScheduler(String name, Long seed) {
+        this.name = seed == null ? name : name + " (seed " + seed + ")";
+        this.seed = seed;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the priority of every task in `graph`, indexed by id. Only ready tasks are compared, so the priorities do
+     * not need to respect the dependencies between tasks.
+     */
+    protected abstract long[] priorities(TaskGraph graph);
+
+    @Override
+    public PartialSchedule schedule(TaskGraph graph, int numProcessors) {
+        Random random = seed == null ? null : new Random(seed);
+        long[] priorities = priorities(graph);
+        int[] tieBreaks = tieBreaks(graph.size(), random);
+        PriorityQueue<Integer> ready = new PriorityQueue<>((a, b) -> priorities[a] != priorities[b]
+                ? Long.compare(priorities[b], priorities[a])
+                : Integer.compare(tieBreaks[a], tieBreaks[b]));
+
+        int[] remainingParents = new int[graph.size()];
+        for (int task = 0; task < graph.size(); task++) {
+            remainingParents[task] = graph.getNumParents(task);
+            if (remainingParents[task] == 0) {
+                ready.add(task);
+            }
+        }
+
+        PartialSchedule schedule = new PartialSchedule(graph, numProcessors);
+        while (!ready.isEmpty()) {
+            int task = ready.poll();
+            int processor = chooseProcessor(schedule, task, random);
+            schedule.scheduleTask(task, processor, schedule.findBestStartTime(task, processor));
+            for (int e = graph.getChildrenStart(task); e < graph.getChildrenEnd(task); e++) {
+                if (--remainingParents[graph.getChild(e)] == 0) {
+                    ready.add(graph.getChild(e));
+                }
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Returns the processor to place `task` on, which by default is the one where it can start earliest.
+     * @param random for breaking ties, or null to use the lowest processor
+     */
+    protected int chooseProcessor(PartialSchedule schedule, int task, Random random) {
+        int bestProcessor = 1;
+        int bestStart = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int p = 1; p <= schedule.getNumProcessors(); p++) {
+            int start = schedule.findBestStartTime(task, p);
+            if (start < bestStart) {
+                bestStart = start;
+                bestProcessor = p;
+                ties = 1;
+            } else if (start == bestStart && random != null && random.nextInt(++ties) == 0) {
+                // keeps each of the tied processors with equal chance
+                bestProcessor = p;
+            }
+            // every empty processor after this one would give the same start time
+            if (schedule.isProcessorEmpty(p)) {
+                break;
+            }
+        }
+        return bestProcessor;
+    }
+
+    /**
+     * Returns the order to break priority ties in: each task's id, or a random permutation of them.
+     */
+    private static int[] tieBreaks(int n, Random random) {
+        int[] tieBreaks = new int[n];
+        for (int i = 0; i < n; i++) {
+            tieBreaks[i] = i;
+        }
+        if (random != null) {
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = tieBreaks[i];
+                tieBreaks[i] = tieBreaks[j];
+                tieBreaks[j] = swap;
+            }
+        }
+        return tieBreaks;
+    }
+}
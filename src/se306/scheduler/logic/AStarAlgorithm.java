@@ -0,0 +1,108 @@
+package se306.scheduler.logic;
+
+import java.util.PriorityQueue;
+
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * A* search for the optimal schedule. Rather than going deep first, it always expands the partial schedule with the
+ * lowest estimated cost (from its {@link CostFunction}), so once the lowest estimate left is at least the makespan of
+ * the best schedule found, no better schedule exists. With a tight estimate this expands far fewer schedules than a
+ * depth-first search, at the cost of keeping every schedule that has not been expanded in memory.
+ */
+public class AStarAlgorithm extends BNBAlgorithm {
+    private int numExpanded; // the number of schedules expanded by the last search
+
+    public AStarAlgorithm(int numProcessors) {
+        super(numProcessors);
+    }
+
+    @Override
+    public void schedule() {
+        PriorityQueue<OpenEntry> open = new PriorityQueue<>();
+        addedScheduleIDs = createScheduleIDSet(false);
+        dominanceStore = createDominanceStore();
+        numExpanded = 0;
+
+        // use a greedy algorithm to find a decent initial bound
+        startFromGreedySchedule();
+
+        // no need to search if the greedy schedule is already as short as a schedule can be
+        if (incumbent.getMakespan() > taskGraph.getMakespanLowerBound(numProcessors)) {
+            PartialSchedule root = new PartialSchedule(taskGraph, numProcessors);
+            open.add(new OpenEntry(root, costFunction.estimate(root)));
+        }
+        while (!open.isEmpty()) {
+            OpenEntry entry = open.poll();
+            if (entry.f >= incumbent.getMakespan()) {
+                // every schedule left is estimated to be no better than the best one, so it is optimal
+                break;
+            }
+            if (deadlinePassed()) {
+                // the open list is ordered by lower bound, so this one is the lowest of those left unexplored
+                addOpenBound(entry.f);
+                break;
+            }
+            numExpanded++;
+            if (expand(entry.state, open)) {
+                break;
+            }
+        }
+        completed(incumbent.getSchedule());
+    }
+
+    /**
+     * Adds every schedule that can be made by adding one task to `state` to the open list, unless it has been seen
+     * before or cannot beat the best schedule.
+     * @return true if a schedule was found that is as short as a schedule can be
+     */
+    private boolean expand(PartialSchedule state, PriorityQueue<OpenEntry> open) {
+        int numBlocked = state.getNumUnvisited() - state.getNumReady();
+        if (numBlocked > 0) {
+            updateBranchCut(state.getNumUnvisited() - 1, numProcessors * numBlocked);
+        }
+        // if the ready tasks have a fixed order, only the first needs to be scheduled next
+        int fixedTask = fixedOrderTask(state);
+        for (int task = fixedTask >= 0 ? fixedTask : state.nextReadyTask(0); task >= 0;
+                task = fixedTask >= 0 ? -1 : state.nextReadyTask(task + 1)) {
+            if (fixedTask < 0 && hasUnscheduledEquivalent(state, task)) {
+                continue;
+            }
+            for (int p = 1; p <= numProcessors; p++) {
+                PartialSchedule newState = new PartialSchedule(state);
+                boolean isFirstOnProcessor = newState.scheduleTask(task, p, state.findBestStartTime(task, p));
+                // scheduling the node on any later (empty) processor would give the same schedule
+                int branchesCut = isFirstOnProcessor ? numProcessors - p + 1 : 1;
+
+                if (lowerBoundExceeded(newState, incumbent.getMakespan())
+                        || !addedScheduleIDs.add(newState.getFingerprint(), newState.getNumVisited())
+                        || isDominated(newState)) {
+                    updateBranchCut(newState.getNumUnvisited(), branchesCut);
+                } else if (newState.allVisited()) {
+                    incumbent.offer(newState);
+                    updateSchedule(newState);
+                    updateBranchCut(0, branchesCut);
+                    if (newState.getMakespan() == taskGraph.getMakespanLowerBound(numProcessors)) {
+                        return true;
+                    }
+                } else {
+                    open.add(new OpenEntry(newState, costFunction.estimate(newState)));
+                    if (isFirstOnProcessor) {
+                        updateBranchCut(newState.getNumUnvisited(), branchesCut - 1);
+                    }
+                }
+                if (isFirstOnProcessor) {
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of schedules expanded by the last search.
+     */
+    public int getNumExpanded() {
+        return numExpanded;
+    }
+}
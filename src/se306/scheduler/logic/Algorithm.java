@@ -3,21 +3,33 @@ package se306.scheduler.logic;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import se306.scheduler.graph.Node;
 import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
 
 public abstract class Algorithm {
     protected List<AlgorithmListener> listeners;
     protected List<Node> graph;
-    protected static volatile BigInteger schedulesChecked;
+    protected TaskGraph taskGraph;
+    protected volatile ScheduleCounter scheduleCounter; // read by the GUI while the search runs
+    private boolean countingSchedules = true;
     protected int numProcessors;
+    // new best schedules are passed to listeners on this thread, so the search never waits for them
+    private ExecutorService notifier;
+    private final AtomicReference<PartialSchedule> pendingUpdate = new AtomicReference<>();
+    private volatile int lowerBound; // the highest makespan no schedule of the graph is proven to beat
     
     public Algorithm(int numProcessors) {
         listeners = new ArrayList<AlgorithmListener>();
         graph = new ArrayList<Node>();
-        schedulesChecked = BigInteger.valueOf(0);
+        taskGraph = TaskGraph.compile(graph);
         this.numProcessors = numProcessors;
+        scheduleCounter = new ScheduleCounter(numProcessors, 0);
     }
     
     public void addListener(AlgorithmListener listener) {
@@ -25,21 +37,99 @@ public abstract class Algorithm {
     }
     
     public void setGraph(List<Node> graph) {
-        this.graph = graph;
+        setGraph(TaskGraph.compile(graph));
+    }
+
+    /**
+     * Sets the graph to schedule from one that has already been compiled.
+     */
+    public void setGraph(TaskGraph taskGraph) {
+        this.taskGraph = taskGraph;
+        this.graph = taskGraph.getNodes();
+        // the counter is only made when it is used, as it needs space for every task
+        scheduleCounter = countingSchedules ? new ScheduleCounter(numProcessors, taskGraph.size()) : null;
+        lowerBound = taskGraph.getMakespanLowerBound(numProcessors);
+    }
+
+    /**
+     * Sets whether to keep count of the schedules checked, which is only needed to show progress in the GUI.
+     */
+    public void setCountingSchedules(boolean countingSchedules) {
+        this.countingSchedules = countingSchedules;
+        if (countingSchedules && scheduleCounter == null) {
+            scheduleCounter = new ScheduleCounter(numProcessors, taskGraph.size());
+        }
     }
     
     public abstract void schedule();
     
+    /**
+     * Passes the final schedule to all listeners, once they have been given every new best schedule.
+     */
     protected void completed(PartialSchedule answer) {
+        ExecutorService finished;
+        synchronized (this) {
+            finished = notifier;
+            notifier = null;
+        }
+        if (finished != null) {
+            finished.shutdown();
+            try {
+                finished.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         for (AlgorithmListener listener: listeners) {
             listener.algorithmCompleted(answer);
         }
     }
 
+    /**
+     * Tells all listeners about a new best schedule, without waiting for them. The schedule must not be changed
+     * afterwards. If listeners are still busy with an earlier schedule, only the newest one is passed on once they
+     * are done.
+     */
     protected void updateSchedule(PartialSchedule newOptimal){
-        for (AlgorithmListener listener: listeners) {
-            listener.newOptimalFound(newOptimal);
+        if (listeners.isEmpty()) {
+            return;
         }
+        if (pendingUpdate.getAndSet(newOptimal) == null) {
+            notifier().execute(this::notifyPendingUpdate);
+        }
+    }
+
+    private void notifyPendingUpdate() {
+        PartialSchedule newOptimal = pendingUpdate.getAndSet(null);
+        if (newOptimal != null) {
+            for (AlgorithmListener listener: listeners) {
+                listener.newOptimalFound(newOptimal);
+            }
+        }
+    }
+
+    private synchronized ExecutorService notifier() {
+        if (notifier == null) {
+            notifier = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Schedule listener");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return notifier;
+    }
+
+    /**
+     * Returns a lower bound on the makespan of an optimal schedule: no schedule of the graph can be shorter. Once an
+     * exact search has completed this is the makespan of its schedule, but if it stopped early (or the algorithm is not
+     * exact) it can be lower.
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    protected void setLowerBound(int lowerBound) {
+        this.lowerBound = lowerBound;
     }
 
     /**
@@ -48,12 +138,18 @@ public abstract class Algorithm {
      * nodesRemaining nodes.
      * @param nodesRemaining the total nodes to schedule - number of nodes in partial schedule
      **/
-    protected synchronized void updateBranchCut(int nodesRemaining, int factor) {
-        schedulesChecked = schedulesChecked.add(BigInteger.valueOf(this.numProcessors).pow(nodesRemaining).multiply(factorial(nodesRemaining)).multiply(BigInteger.valueOf(factor)));
+    protected void updateBranchCut(int nodesRemaining, int factor) {
+        if (countingSchedules) {
+            scheduleCounter.add(nodesRemaining, factor);
+        }
     }
 
-    public static BigInteger getBigSchedulesChecked(){
-        return schedulesChecked;
+    /**
+     * Returns the number of schedules checked by this algorithm so far, which is 0 if they are not being counted.
+     */
+    public BigInteger getSchedulesChecked() {
+        ScheduleCounter counter = scheduleCounter;
+        return counter != null ? counter.get() : BigInteger.ZERO;
     }
 
     /**
@@ -1,14 +1,19 @@
 package se306.scheduler.logic;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import se306.scheduler.graph.Node;
 import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+import se306.scheduler.heuristics.Heuristic;
+import se306.scheduler.heuristics.HeuristicPortfolio;
+import se306.scheduler.util.ConcurrentLongHashSet;
+import se306.scheduler.util.LongHashSet;
+import se306.scheduler.util.LongSet;
+import se306.scheduler.util.TranspositionTable;
+import se306.scheduler.util.TranspositionTable.ReplacementPolicy;
 
 /**
  * Branch and Bound DFS implementation to find the optimal schedule for a list of tasks.
@@ -16,11 +21,24 @@ import se306.scheduler.graph.PartialSchedule;
  * is worth exploring.
  */
 public class BNBAlgorithm extends Algorithm {
-    protected Map<String, Object> addedScheduleIDs;
-    protected volatile int bestMakespan = Integer.MAX_VALUE;
-    protected PartialSchedule bestSchedule = null;
-    private static Object dummyValue = new Object();
+    // the number of schedules explored between checks of the deadline
+    protected static final int DEADLINE_CHECK_INTERVAL = 1024;
 
+    protected LongSet addedScheduleIDs; // fingerprints of all schedules that have been created
+    protected Incumbent incumbent = new Incumbent(); // the best schedule found so far
+    private long duplicateMemory = 0; // the memory budget for addedScheduleIDs in bytes, or 0 for no limit
+    private ReplacementPolicy duplicatePolicy = ReplacementPolicy.CLOCK;
+    protected DominanceStore dominanceStore; // schedules kept to find dominated ones, or null if not used
+    private long dominanceMemory = 0; // the memory budget for dominanceStore in bytes, or 0 to not use one
+    private boolean fixedTaskOrder = true; // whether to branch on one task when the ready tasks have a fixed order
+    private boolean taskEquivalence = true; // whether to schedule interchangeable tasks in a fixed order
+    protected CostFunction costFunction = new CompositeCostFunction(); // lower bounds used to prune and order schedules
+    private Heuristic heuristic = new HeuristicPortfolio(); // finds the first schedule, to bound the search
+    private long deadline = 0; // how long a search may run for in milliseconds, or 0 for no limit
+    private long stopTime; // the System.nanoTime() at which the current search must stop, if it has a deadline
+    private volatile boolean timedOut = false; // whether the current search has passed its deadline
+    // the lowest lower bound of the schedules left unexplored when the search stopped
+    private final AtomicInteger openBound = new AtomicInteger(Integer.MAX_VALUE);
 
     public BNBAlgorithm(int numProcessors) {
         super(numProcessors);
@@ -30,115 +48,133 @@ public class BNBAlgorithm extends Algorithm {
     public void schedule() {
         Deque<PartialSchedule> stack = new ArrayDeque<>();
         // add initial state
-        stack.push(new PartialSchedule(graph));
-        addedScheduleIDs = new HashMap<>();
-
-        bestSchedule = greedySchedule();
-        addedScheduleIDs.put(bestSchedule.toString(), dummyValue);
+        stack.push(new PartialSchedule(taskGraph, numProcessors));
+        addedScheduleIDs = createScheduleIDSet(false);
+        dominanceStore = createDominanceStore();
 
         // use a greedy algorithm to find a decent initial bound
-        bestMakespan = bestSchedule.getMakespan();
-        updateSchedule(bestSchedule);
+        startFromGreedySchedule();
 
-        setLowerBounds();
+        // no need to search if the greedy schedule is already as short as a schedule can be
+        if (incumbent.getMakespan() == taskGraph.getMakespanLowerBound(numProcessors)) {
+            stack.clear();
+        }
+        int untilDeadlineCheck = DEADLINE_CHECK_INTERVAL;
         while (!stack.isEmpty()) {
+            if (--untilDeadlineCheck == 0) {
+                untilDeadlineCheck = DEADLINE_CHECK_INTERVAL;
+                if (deadlinePassed()) {
+                    for (PartialSchedule state : stack) {
+                        addOpenBound(costFunction.estimate(state));
+                    }
+                    break;
+                }
+            }
             if(bnb(stack.pop(), stack)) {
             	break;
             }
         }
-        completed(bestSchedule);
+        completed(incumbent.getSchedule());
+    }
+
+    /**
+     * Starts a new search with a greedy schedule as the best schedule so far.
+     */
+    protected void startFromGreedySchedule() {
+        startClock();
+        PartialSchedule greedy = greedySchedule();
+        incumbent = new Incumbent();
+        incumbent.offer(greedy);
+        addedScheduleIDs.add(greedy.getFingerprint(), greedy.getNumVisited());
+        updateSchedule(greedy);
+    }
+
+    /**
+     * Makes a copy of the complete schedule `state` the best schedule if it is shorter than the current best, and tells
+     * the listeners about it.
+     * @return true if `state` is the new best schedule
+     */
+    protected boolean offerSchedule(PartialSchedule state) {
+        if (state.getMakespan() >= incumbent.getMakespan()) {
+            return false;
+        }
+        PartialSchedule snapshot = new PartialSchedule(state);
+        if (incumbent.offer(snapshot)) {
+            updateSchedule(snapshot);
+            return true;
+        }
+        return false;
     }
 
     protected boolean bnb(PartialSchedule state, Deque<PartialSchedule> stack) {
 		int makespan = state.getMakespan();
-		if(makespan >= bestMakespan) {
-		    updateBranchCut(state.getUnvisitedNodes().size(), 1);
+		if(makespan >= incumbent.getMakespan()) {
+		    updateBranchCut(state.getNumUnvisited(), 1);
 			return false;
 		}
 
 		// all nodes have been assigned to a processor
 		if (state.allVisited()) {
-			// check if the current solution is better than the best one found so far
-			synchronized (this) {
-				if (makespan < bestMakespan) {
-
-					bestMakespan = makespan;
-					bestSchedule = state;
-
-					// Update listener with new schedule
-					updateSchedule(state);
-				}
+			// this must be better than the best one found so far, as it was not cut above. It is only on the stack,
+			// so it can be used as the best schedule without copying
+			if (incumbent.offer(state)) {
+				// Update listener with new schedule
+				updateSchedule(state);
 			}
 			// regardless of whether the schedule is best, one complete schedule will be removed
 			updateBranchCut(0, 1);
 
-			// if the makespan is the critical path from the first node to the last then it
-			// is an optimal solution so break while loop
-			return makespan == state.getVisited().get(0).getLBWeight();
+			// if the makespan is as short as the critical path (or the total work split evenly across the processors)
+			// then it is an optimal solution so break while loop
+			return makespan == taskGraph.getMakespanLowerBound(numProcessors);
 		}
-		for (Node node : state.getUnvisitedNodes()) {
-            if (!state.dependenciesSatisfied(node)) {
-                // if the node's dependencies aren't met, all branches stemming from the states where the node is added
-                // to one of the processors are cut, and we move to the next node
-                updateBranchCut(state.getUnvisitedNodes().size() - 1, numProcessors);
+		// for the nodes whose dependencies aren't met, all branches stemming from the states where the node is added to
+		// one of the processors are cut
+		int numBlocked = state.getNumUnvisited() - state.getNumReady();
+		if (numBlocked > 0) {
+		    updateBranchCut(state.getNumUnvisited() - 1, numProcessors * numBlocked);
+		}
+		// if the ready tasks have a fixed order, only the first needs to be scheduled next
+		int fixedTask = fixedOrderTask(state);
+		for (int task = fixedTask >= 0 ? fixedTask : state.nextReadyTask(0); task >= 0;
+		        task = fixedTask >= 0 ? -1 : state.nextReadyTask(task + 1)) {
+            if (fixedTask < 0 && hasUnscheduledEquivalent(state, task)) {
                 continue;
             }
             // create new states by adding the new node to every processor
-            processorLoop:
             for (int p = 1; p <= numProcessors; p++) {
                 // find the earliest time the new node can be added on this processor
-                int bestStart = state.findBestStartTime(node, p);
+                int bestStart = state.findBestStartTime(task, p);
                 PartialSchedule newState = new PartialSchedule(state);
-                boolean isFirstOnProcessor = newState.scheduleTask(node, p, bestStart);
-                // this loop finds the lower bound on all the other dependency-met nodes after the node is scheduled to
-                // see if any of lower bounds aren't lower than the current max
-                for (Node node2 : newState.getUnvisitedNodes()) {
-                    if (newState.dependenciesSatisfied(node2)) {
-                        // finds the best end time for this node across all processors
-                        int bestEndTime = Integer.MAX_VALUE;
-                        for (int processor = 1; processor <= numProcessors; processor++) {
-                            // tests for all the other processors
-                            int endTime = newState.findBestStartTime(node2, processor) + node2.getLBWeight();
-                            if (endTime < bestEndTime) {
-                                bestEndTime = endTime;
-                            }
-                            // checks if this node would be the first on the processor, if it would be, then
-                            // no need to check other processors as the resultant schedules would be equivalent
-                            if (newState.isProcessorEmpty(processor)) {
-                                break;
-                            }
-                        }
-                        if (bestEndTime >= bestMakespan) {
-                            // if the lower bound is too high, then the new state is not made and we move to
-                            // the next processor
-                            if (isFirstOnProcessor) {
-                                updateBranchCut(newState.getUnvisitedNodes().size(), numProcessors - p + 1);
-                                break processorLoop;
-                            }
-                            updateBranchCut(newState.getUnvisitedNodes().size(), 1);
-                            continue processorLoop;
-                        }
+                boolean isFirstOnProcessor = newState.scheduleTask(task, p, bestStart);
+                if (lowerBoundExceeded(newState, incumbent.getMakespan())) {
+                    // if the lower bound is too high, then the new state is not made and we move to
+                    // the next processor
+                    if (isFirstOnProcessor) {
+                        updateBranchCut(newState.getNumUnvisited(), numProcessors - p + 1);
+                        break;
                     }
+                    updateBranchCut(newState.getNumUnvisited(), 1);
+                    continue;
                 }
 
                 // if the lower bound for scheduling this node on this processor is not better than the current best,
-                // or a schedule has already been made with the same generated ID (meaning this is duplicate), then
+                // or a schedule has already been made with the same fingerprint (meaning this is duplicate), then
                 // schedule is not made
-                if (addedScheduleIDs.containsKey(newState.toString())) {
+                if (!addedScheduleIDs.add(newState.getFingerprint(), newState.getNumVisited()) || isDominated(newState)) {
                     // if this is the first node to be scheduled to a processor, then scheduling the node to any
                     // subsequent processors will create a duplicate, so loop is broken
                     if (isFirstOnProcessor) {
-                        updateBranchCut(newState.getUnvisitedNodes().size(), numProcessors - p + 1);
+                        updateBranchCut(newState.getNumUnvisited(), numProcessors - p + 1);
                         break;
                     }
-                    updateBranchCut(newState.getUnvisitedNodes().size(), 1);
+                    updateBranchCut(newState.getNumUnvisited(), 1);
                     continue;
                 }
-                addedScheduleIDs.put(newState.toString(), dummyValue);
                 stack.addFirst(newState);
                 if (isFirstOnProcessor) {
                     // same as before, but remove fewer branches as one has been added
-                    updateBranchCut(newState.getUnvisitedNodes().size(), numProcessors - p);
+                    updateBranchCut(newState.getNumUnvisited(), numProcessors - p);
                     break;
                 }
             }
@@ -147,75 +183,226 @@ public class BNBAlgorithm extends Algorithm {
 	}
 
     /**
-     * This method sets the lower bound weights for all the nodes in the graph to be scheduled.
-     * The lower bound weight for any node is found by comparing each way to schedule its children, given their lower
-     * bounds.
-     * e.g. If node a has children b and c, then the lower bound will be found by
-     * min(max(b.LBWeight, c.edgecost(a) + c.LBWeight), max(c.LBWeight, b.edgecost(a) + b.LBWeight))
+     * Limits the memory used to remember which schedules have been seen. Once it is full, schedules are forgotten
+     * according to `policy`, so some may be explored more than once.
+     * @param memoryBytes the most memory to use in bytes, or 0 to remember every schedule
      */
-    protected void setLowerBounds() {
-        List<Node> unvisited = new ArrayList<>(graph);
-        for (Node node : graph) {
-            if (node.getChildren().isEmpty()) {
-                // nodes with no children are the only node on their critical path
-                node.setLBWeight(node.getWeight());
-                unvisited.remove(node);
-            }
+    public void setDuplicateDetection(long memoryBytes, ReplacementPolicy policy) {
+        this.duplicateMemory = memoryBytes;
+        this.duplicatePolicy = policy;
+    }
+
+    /**
+     * Sets the lower bound used to prune schedules, and to choose which schedule to expand next in searches that expand
+     * the most promising schedule first.
+     */
+    public void setCostFunction(CostFunction costFunction) {
+        this.costFunction = costFunction;
+    }
+
+    /**
+     * Creates the set used to remember the fingerprints of schedules that have been made, which is a fixed size
+     * {@link TranspositionTable} if a memory limit has been set.
+     * @param concurrent whether the set will be used by more than one thread
+     */
+    protected LongSet createScheduleIDSet(boolean concurrent) {
+        return createScheduleIDSet(concurrent, 1);
+    }
+
+    /**
+     * Creates one of `numShares` sets that split the memory limit for remembering schedule fingerprints, if one has
+     * been set.
+     * @param concurrent whether the set will be used by more than one thread
+     */
+    protected LongSet createScheduleIDSet(boolean concurrent, int numShares) {
+        if (duplicateMemory > 0) {
+            return new TranspositionTable(duplicateMemory / numShares, duplicatePolicy);
         }
-        while (unvisited.size() > 0) {
-            for (int i = 0; i < unvisited.size(); i++) {
-                int maxWeight = 0;
-                for (Node child: unvisited.get(i).getChildren()) {
-                    if (child.getLBWeight() < 0) {
-                        // this indicates that a child has not had its BLW calculated, so loop breaks.
-                        maxWeight = -1;
-                        break;
-                    } else if (child.getLBWeight() > maxWeight) {
-                        maxWeight = child.getLBWeight();
-                    }
-                }
-                if (maxWeight > 0) {
-                    unvisited.get(i).setLBWeight(unvisited.get(i).getWeight() + maxWeight);
-                    unvisited.remove(i);
-                    break;
-                }
-            }
+        return concurrent ? new ConcurrentLongHashSet() : new LongHashSet();
+    }
+
+    /**
+     * Sets whether to only branch on the first ready task when the ready tasks can be scheduled in a fixed order (see
+     * {@link FixedTaskOrder}). This is on by default.
+     */
+    public void setFixedTaskOrder(boolean fixedTaskOrder) {
+        this.fixedTaskOrder = fixedTaskOrder;
+    }
+
+    /**
+     * Returns the only ready task of `state` that needs to be branched on if the ready tasks have a fixed order, counting
+     * the branches of the other ready tasks as cut. Returns -1 if every ready task needs to be branched on.
+     */
+    protected int fixedOrderTask(PartialSchedule state) {
+        if (!fixedTaskOrder || state.getNumReady() < 2) {
+            return -1;
         }
+        int task = FixedTaskOrder.firstTask(state);
+        if (task >= 0) {
+            updateBranchCut(state.getNumUnvisited() - 1, numProcessors * (state.getNumReady() - 1));
+        }
+        return task;
+    }
+
+    /**
+     * Sets whether interchangeable tasks (see {@link TaskGraph#getPreviousEquivalentTask}) are only scheduled in id
+     * order, rather than in every order. This is on by default.
+     */
+    public void setTaskEquivalence(boolean taskEquivalence) {
+        this.taskEquivalence = taskEquivalence;
     }
 
     /**
-     * This creates a greedy schedule which is made by assigning nodes whose dependencies are met to whichever
-     * processor can run them first.
-     * @return A greedy schedule to be used for setting the initial best.
+     * Returns true if `task` is interchangeable with an earlier task that has not been scheduled yet, in which case
+     * scheduling `task` now would only give a copy of a schedule where that task is scheduled instead, so its branches
+     * are counted as cut.
      */
-    private PartialSchedule greedySchedule() {
-        PartialSchedule schedule = new PartialSchedule(graph);
-        int i = 0;
-        // finding some node with no parents to set as root
-        while (!schedule.getNodes().get(i).getIncomingEdges().isEmpty()) {
-            i++;
+    protected boolean hasUnscheduledEquivalent(PartialSchedule state, int task) {
+        if (!taskEquivalence) {
+            return false;
         }
-        schedule.scheduleTask(schedule.getNodes().get(i), 1, 0);
-        // iterates until all nodes reached
-        while (!schedule.getUnvisitedNodes().isEmpty()) {
-            for (Node node: schedule.getUnvisitedNodes()) {
-                if (!schedule.dependenciesSatisfied(node)) {
-                    continue;
-                }
-                // schedules node at the processor/time that is immediately best (greedy)
-                int bestStart = Integer.MAX_VALUE;
-                int bestProcessor = 0;
-                for (int k = 1; k <= numProcessors; k++) {
-                    int start = schedule.findBestStartTime(node, k);
-                    if (start < bestStart) {
-                        bestStart = start;
-                        bestProcessor = k;
-                    }
-                }
-                schedule.scheduleTask(node, bestProcessor, bestStart);
-                break;
-            }
+        int previous = taskGraph.getPreviousEquivalentTask(task);
+        if (previous >= 0 && !state.isVisited(previous)) {
+            updateBranchCut(state.getNumUnvisited() - 1, numProcessors);
+            return true;
+        }
+        return false;
+    }
+
+    public CostFunction getCostFunction() {
+        return costFunction;
+    }
+
+    /**
+     * Sets the memory to use for finding schedules that are dominated by another with the same scheduled tasks (see
+     * {@link DominanceStore}).
+     * @param memoryBytes the most memory to use in bytes, or 0 to not look for dominated schedules
+     */
+    public void setDominanceMemory(long memoryBytes) {
+        this.dominanceMemory = memoryBytes;
+    }
+
+    /**
+     * Creates the store used to find dominated schedules, or returns null if no memory has been set for one.
+     */
+    protected DominanceStore createDominanceStore() {
+        return createDominanceStore(1);
+    }
+
+    /**
+     * Creates one of `numShares` stores that split the memory set for finding dominated schedules, or returns null if
+     * no memory has been set.
+     */
+    protected DominanceStore createDominanceStore(int numShares) {
+        return dominanceMemory > 0 ? new DominanceStore(dominanceMemory / numShares) : null;
+    }
+
+    /**
+     * Returns true if `state` is dominated by a schedule seen before with the same scheduled tasks, in which case it
+     * cannot lead to a better schedule. Otherwise it is remembered so later schedules can be checked against it.
+     */
+    protected boolean isDominated(PartialSchedule state) {
+        return dominanceStore != null && !dominanceStore.add(state);
+    }
+
+    /**
+     * Returns the store of schedules used to find dominated ones in the last search, or null if none was used.
+     */
+    public DominanceStore getDominanceStore() {
+        return dominanceStore;
+    }
+
+    /**
+     * Returns the set of schedule fingerprints from the last search, or null if no search has started.
+     */
+    public LongSet getScheduleIDs() {
+        return addedScheduleIDs;
+    }
+
+    /**
+     * Checks whether the lower bound of `state` shows that no schedule made from it can be shorter than
+     * `bestMakespan`, in which case it does not need to be explored.
+     */
+    protected boolean lowerBoundExceeded(PartialSchedule state, int bestMakespan) {
+        return costFunction.exceeds(state, bestMakespan);
+    }
+
+    /**
+     * Sets how long each search may run for, in milliseconds (including finding the first schedule), or 0 for no limit.
+     * A search that runs out of time stops and completes with the best schedule it has found, which may not be optimal;
+     * {@link #getLowerBound()} then gives how far from optimal it could be.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns true if the last search stopped because it ran out of time, rather than proving its schedule optimal.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Starts timing a new search against the deadline, and forgets the bounds proven by any earlier search.
+     */
+    protected void startClock() {
+        stopTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadline);
+        timedOut = false;
+        openBound.set(Integer.MAX_VALUE);
+        setLowerBound(taskGraph.getMakespanLowerBound(numProcessors));
+    }
+
+    /**
+     * Returns true if the search has run out of time and should stop. Once this has returned true, the search must
+     * pass the lower bound of every schedule it leaves unexplored to {@link #addOpenBound}, so that the lower bound it
+     * reports is still proven. Reading the clock is not free, so searches only call this every so often, and use
+     * {@link #isTimedOut()} in between.
+     */
+    protected boolean deadlinePassed() {
+        if (!timedOut && deadline > 0 && System.nanoTime() - stopTime >= 0) {
+            timedOut = true;
         }
-        return schedule;
+        return timedOut;
+    }
+
+    /**
+     * Records that a schedule with the lower bound `bound` was left unexplored when the search ran out of time.
+     * Safe to call from any thread.
+     */
+    protected void addOpenBound(int bound) {
+        openBound.accumulateAndGet(bound, Math::min);
+    }
+
+    /**
+     * Passes the final schedule to all listeners, after working out how close to optimal it is proven to be. If the
+     * search finished, the schedule is optimal. Otherwise, every schedule that could beat it was left unexplored, so
+     * no schedule is shorter than the lowest lower bound among them.
+     */
+    @Override
+    protected void completed(PartialSchedule answer) {
+        if (timedOut) {
+            int bound = Math.min(openBound.get(), answer.getMakespan());
+            setLowerBound(Math.max(taskGraph.getMakespanLowerBound(numProcessors), bound));
+        } else {
+            setLowerBound(answer.getMakespan());
+        }
+        super.completed(answer);
+    }
+
+    /**
+     * Sets the heuristic used to find the first schedule, whose makespan is the bound the search starts from. By default
+     * this is a {@link HeuristicPortfolio}, which runs several list schedulers in parallel.
+     */
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * This creates a schedule quickly with the heuristic, to be used for setting the initial best.
+     * @return A complete schedule that is hopefully close to optimal.
+     */
+    protected PartialSchedule greedySchedule() {
+        return heuristic.schedule(taskGraph, numProcessors);
     }
 }
@@ -0,0 +1,108 @@
+package se306.scheduler.logic;
+
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * Branch and Bound DFS that works on a single schedule in place.
+ * Where {@link BNBAlgorithm} copies the current schedule for every branch and keeps them on a stack, this schedules
+ * each task directly on one working schedule, explores the branch recursively, then backs out of it with
+ * {@link PartialSchedule#unscheduleTask()}. A copy is only made when a new best schedule is found, so branches that are
+ * pruned by the lower bound or duplicate check cost no allocations.
+ */
+public class BNBAlgorithmInPlace extends BNBAlgorithm {
+    private int untilDeadlineCheck;
+
+    public BNBAlgorithmInPlace(int numProcessors) {
+        super(numProcessors);
+    }
+
+    @Override
+    public void schedule() {
+        addedScheduleIDs = createScheduleIDSet(false);
+        dominanceStore = createDominanceStore();
+
+        // use a greedy algorithm to find a decent initial bound
+        startFromGreedySchedule();
+        untilDeadlineCheck = DEADLINE_CHECK_INTERVAL;
+
+        // no need to search if the greedy schedule is already as short as a schedule can be
+        if (incumbent.getMakespan() > taskGraph.getMakespanLowerBound(numProcessors)) {
+            PartialSchedule state = new PartialSchedule(taskGraph, numProcessors);
+            state.enableUndo();
+            search(state);
+        }
+        completed(incumbent.getSchedule());
+    }
+
+    /**
+     * Explores every schedule that can be made by adding tasks to `state`, leaving `state` as it was when done.
+     * If the search runs out of time, the lower bounds of the schedules it has not explored are recorded instead.
+     * @return true if an optimal schedule has been found or the search is out of time, so it can stop
+     */
+    private boolean search(PartialSchedule state) {
+        if (--untilDeadlineCheck == 0) {
+            untilDeadlineCheck = DEADLINE_CHECK_INTERVAL;
+            if (deadlinePassed()) {
+                addOpenBound(costFunction.estimate(state));
+                return true;
+            }
+        }
+        int makespan = state.getMakespan();
+        if (makespan >= incumbent.getMakespan()) {
+            updateBranchCut(state.getNumUnvisited(), 1);
+            return false;
+        }
+
+        // all nodes have been assigned to a processor, so this must be the best schedule so far
+        if (state.allVisited()) {
+            offerSchedule(state);
+            updateBranchCut(0, 1);
+
+            // if the makespan is as short as the critical path (or the total work split evenly across the processors)
+            // then it is an optimal solution
+            return makespan == taskGraph.getMakespanLowerBound(numProcessors);
+        }
+
+        int numBlocked = state.getNumUnvisited() - state.getNumReady();
+        if (numBlocked > 0) {
+            updateBranchCut(state.getNumUnvisited() - 1, numProcessors * numBlocked);
+        }
+        // if the ready tasks have a fixed order, only the first needs to be scheduled next
+        int fixedTask = fixedOrderTask(state);
+        for (int task = fixedTask >= 0 ? fixedTask : state.nextReadyTask(0); task >= 0;
+                task = fixedTask >= 0 ? -1 : state.nextReadyTask(task + 1)) {
+            if (fixedTask < 0 && hasUnscheduledEquivalent(state, task)) {
+                continue;
+            }
+            for (int p = 1; p <= numProcessors; p++) {
+                boolean isFirstOnProcessor = state.scheduleTask(task, p, state.findBestStartTime(task, p));
+                // scheduling the node on any later (empty) processor would give the same schedule
+                int branchesCut = isFirstOnProcessor ? numProcessors - p + 1 : 1;
+
+                if (lowerBoundExceeded(state, incumbent.getMakespan())
+                        || !addedScheduleIDs.add(state.getFingerprint(), state.getNumVisited())
+                        || isDominated(state)) {
+                    updateBranchCut(state.getNumUnvisited(), branchesCut);
+                } else if (isTimedOut()) {
+                    // no time to explore the rest of the branches, so only their lower bounds are kept
+                    addOpenBound(costFunction.estimate(state));
+                } else {
+                    if (search(state) && !isTimedOut()) {
+                        state.unscheduleTask();
+                        return true;
+                    }
+                    if (isFirstOnProcessor) {
+                        // same as before, but remove fewer branches as one has been explored
+                        updateBranchCut(state.getNumUnvisited(), branchesCut - 1);
+                    }
+                }
+                state.unscheduleTask();
+
+                if (isFirstOnProcessor) {
+                    break;
+                }
+            }
+        }
+        return isTimedOut();
+    }
+}
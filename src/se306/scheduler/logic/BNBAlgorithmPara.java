@@ -1,109 +1,193 @@
-package se306.scheduler.logic;
-
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-
-import se306.scheduler.graph.PartialSchedule;
-
-public class BNBAlgorithmPara extends BNBAlgorithm {
-
-	public BNBAlgorithmPara(int numProcessors, int nThreads) {
-		super(numProcessors);
-		this.nThreads = nThreads;
-	}
-
-	private int nThreads;
-	private volatile boolean earlyStop = false;
-
-	class BNBTask implements Runnable {
-		Deque<PartialSchedule> stack;
-		ArrayList<Deque<PartialSchedule>> stacks;
-		int threadNum;
-
-		public BNBTask(int threadNum, ArrayList<Deque<PartialSchedule>> stacks) {
-			this.stack = stacks.get(threadNum);
-			this.stacks = stacks;
-		}
-
-		/**
-		 * Same as sequential method
-		 * @see BNBAlgorithm#schedule();
-		 */
-		@Override
-		public void run() {
-			do {
-				while (!stack.isEmpty() && !earlyStop) {
-					PartialSchedule ps = stack.pollFirst();
-					if(ps != null) {
-						if(bnb(ps, stack)) {
-							earlyStop = true;
-						}
-					}
-				}
-			} while (findMore());
-		}
-
-		/**
-		 * Steals schedules from other threads if we're done
-		 * @return true if more work was found, else false
-		 */
-		private boolean findMore() {
-			for(Deque<PartialSchedule> other: stacks) {
-				if(other == stack || other.size() <= 1) continue;
-				PartialSchedule stolen = other.pollLast();
-				if(stolen != null) {
-					bnb(stolen, stack);
-					return true;
-				}
-			}
-			return false;
-		}
-	}
-
-	@Override
-	public void schedule() {
-	    addedScheduleIDs = new ConcurrentHashMap<>();
-
-        setLowerBounds();
-
-        
-        // Generate enough schedules to split across the threads.
-		Deque<PartialSchedule> temp = new ArrayDeque<>();
-		temp.add(new PartialSchedule(graph));
-		while (temp.size() < nThreads) {
-			bnb(temp.pollFirst(), temp);
-		}
-
-		// Assign schedules
-		ArrayList<Deque<PartialSchedule>> stacks = new ArrayList<>();
-		for (int i = 0; i < nThreads; i++) {
-			stacks.add(new ConcurrentLinkedDeque<>());
-		}
-		for (int i = 0; !temp.isEmpty(); i++) {
-			stacks.get(i % nThreads).addLast(temp.pollFirst());
-		}
-
-		// Create worker threads
-		Thread[] threads = new Thread[nThreads];
-		for (int i = 0; i < nThreads; i++) {
-			Thread thread = new Thread(new BNBTask(i, stacks), "BNB Thread " + i);
-			threads[i] = thread;
-		}
-
-		try {
-			for (Thread thread : threads) {
-				thread.start();
-			}
-			for (Thread thread : threads) {
-				thread.join();
-			}
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
-
-		completed(bestSchedule);
-	}
-}
+package se306.scheduler.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * Branch and Bound DFS that runs on several threads using a {@link ForkJoinPool}.
+ * Each task explores its schedule in place like {@link BNBAlgorithmInPlace}, but while the schedule is shallow enough
+ * and the thread has little queued work, it hands branches off as new tasks instead of exploring them itself. Idle
+ * threads steal these from the other threads' work-stealing deques, and the search finishes once every task is done.
+ */
+public class BNBAlgorithmPara extends BNBAlgorithm {
+	// stop splitting once a thread has this many tasks queued that no other thread has stolen
+	private static final int MAX_SURPLUS_TASKS = 3;
+	// by default, schedules with fewer than this many tasks left are always explored by the thread that made them
+	private static final int MIN_TASKS_TO_SPLIT = 4;
+	// the number of schedules a task explores before checking whether another thread has found a better schedule
+	private static final int BOUND_REFRESH_INTERVAL = 1024;
+
+	private int nThreads;
+	private int cutoffDepth = -1; // -1 to use the default
+	private int splitDepth; // the cutoff depth used by the current search
+	private volatile boolean earlyStop = false;
+
+	public BNBAlgorithmPara(int numProcessors, int nThreads) {
+		super(numProcessors);
+		this.nThreads = nThreads;
+	}
+
+	/**
+	 * Sets the number of scheduled tasks after which branches are no longer split off as new tasks.
+	 * By default this is the number of tasks in the graph, less {@value #MIN_TASKS_TO_SPLIT}.
+	 */
+	public void setCutoffDepth(int cutoffDepth) {
+		this.cutoffDepth = cutoffDepth;
+	}
+
+	/**
+	 * Explores all schedules that can be made from its schedule, then waits for any tasks it split off to finish
+	 * (running other tasks while it waits).
+	 *
+	 * Each task prunes against its own copy of the best makespan, refreshed from the shared incumbent every
+	 * {@value #BOUND_REFRESH_INTERVAL} schedules, so the prune test never reads memory other threads are writing to. A
+	 * stale bound is never lower than the real one, so it can only cause extra work, not wrong results. The deadline is
+	 * checked at the same time.
+	 */
+	class SearchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final PartialSchedule state; // only used by this task
+		private final List<SearchTask> forked = new ArrayList<>();
+		private int bound;
+		private int untilRefresh;
+
+		SearchTask(PartialSchedule state) {
+			this.state = state;
+			// each task explores its branches in place
+			state.enableUndo();
+		}
+
+		@Override
+		protected void compute() {
+			refreshBound();
+			search();
+			// the most recently forked tasks are the most likely to still be in this thread's deque
+			for (int i = forked.size() - 1; i >= 0; i--) {
+				forked.get(i).join();
+			}
+		}
+
+		private void refreshBound() {
+			bound = incumbent.getMakespan();
+			untilRefresh = BOUND_REFRESH_INTERVAL;
+			deadlinePassed();
+		}
+
+		/**
+		 * Explores every schedule that can be made by adding tasks to `state`, leaving `state` as it was when done.
+		 * Branches that are split off are forked as new tasks and added to `forked`. If the search runs out of time,
+		 * the lower bounds of the schedules it has not explored are recorded instead.
+		 */
+		private void search() {
+			if (earlyStop) {
+				return;
+			}
+			if (--untilRefresh == 0) {
+				refreshBound();
+			}
+			if (isTimedOut()) {
+				addOpenBound(costFunction.estimate(state));
+				return;
+			}
+			int makespan = state.getMakespan();
+			if (makespan >= bound) {
+				updateBranchCut(state.getNumUnvisited(), 1);
+				return;
+			}
+
+			// all nodes have been assigned to a processor
+			if (state.allVisited()) {
+				// check if the current solution is better than the best one found by any thread so far
+				offerSchedule(state);
+				refreshBound();
+				updateBranchCut(0, 1);
+
+				// if the makespan is as short as a schedule can be then it is optimal, so every thread can stop
+				if (makespan == taskGraph.getMakespanLowerBound(numProcessors)) {
+					earlyStop = true;
+				}
+				return;
+			}
+
+			int numBlocked = state.getNumUnvisited() - state.getNumReady();
+			if (numBlocked > 0) {
+				updateBranchCut(state.getNumUnvisited() - 1, numProcessors * numBlocked);
+			}
+			// if the ready tasks have a fixed order, only the first needs to be scheduled next
+			int fixedTask = fixedOrderTask(state);
+			for (int task = fixedTask >= 0 ? fixedTask : state.nextReadyTask(0); task >= 0 && !earlyStop;
+					task = fixedTask >= 0 ? -1 : state.nextReadyTask(task + 1)) {
+				if (fixedTask < 0 && hasUnscheduledEquivalent(state, task)) {
+					continue;
+				}
+				for (int p = 1; p <= numProcessors; p++) {
+					boolean isFirstOnProcessor = state.scheduleTask(task, p, state.findBestStartTime(task, p));
+					// scheduling the node on any later (empty) processor would give the same schedule
+					int branchesCut = isFirstOnProcessor ? numProcessors - p + 1 : 1;
+
+					if (lowerBoundExceeded(state, bound)
+							|| !addedScheduleIDs.add(state.getFingerprint(), state.getNumVisited())
+							|| isDominated(state)) {
+						updateBranchCut(state.getNumUnvisited(), branchesCut);
+					} else if (isTimedOut()) {
+						// no time to explore the rest of the branches, so only their lower bounds are kept
+						addOpenBound(costFunction.estimate(state));
+					} else {
+						if (shouldSplit(state)) {
+							SearchTask branch = new SearchTask(new PartialSchedule(state));
+							branch.fork();
+							forked.add(branch);
+						} else {
+							search();
+						}
+						if (isFirstOnProcessor) {
+							// same as before, but remove fewer branches as one has been explored
+							updateBranchCut(state.getNumUnvisited(), branchesCut - 1);
+						}
+					}
+					state.unscheduleTask();
+
+					if (isFirstOnProcessor || earlyStop) {
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void schedule() {
+		addedScheduleIDs = createScheduleIDSet(true);
+		dominanceStore = createDominanceStore();
+		earlyStop = false;
+		splitDepth = cutoffDepth >= 0 ? cutoffDepth : taskGraph.size() - MIN_TASKS_TO_SPLIT;
+
+		// use a greedy algorithm to find a decent initial bound
+		startFromGreedySchedule();
+
+		// no need to search if the greedy schedule is already as short as a schedule can be
+		if (incumbent.getMakespan() > taskGraph.getMakespanLowerBound(numProcessors)) {
+			ForkJoinPool pool = new ForkJoinPool(nThreads);
+			try {
+				pool.invoke(new SearchTask(new PartialSchedule(taskGraph, numProcessors)));
+			} finally {
+				pool.shutdown();
+			}
+		}
+		completed(incumbent.getSchedule());
+	}
+
+	/**
+	 * Returns true if the branch `state` should be explored as a separate task, which is only worth it while there
+	 * is a lot of work left under it and this thread does not already have other tasks waiting to be stolen.
+	 */
+	private boolean shouldSplit(PartialSchedule state) {
+		return state.getNumVisited() < splitDepth && ForkJoinTask.getSurplusQueuedTaskCount() < MAX_SURPLUS_TASKS;
+	}
+}
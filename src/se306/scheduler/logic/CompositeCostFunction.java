@@ -0,0 +1,169 @@
+package se306.scheduler.logic;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * A cost function that is the largest of several lower bounds on the makespan, each of which can be turned off.
+ * When used to prune, the bounds are tried from cheapest to most expensive, and each one counts the branches it was
+ * the first to prune, so their usefulness can be compared on real inputs.
+ *
+ * This class is thread safe, as long as the enabled bounds are not changed during a search.
+ */
+public class CompositeCostFunction implements CostFunction {
+
+    /**
+     * The lower bounds that can be combined, in the order they are tried.
+     */
+    public enum Bound {
+        /**
+         * Every processor is busy or idle until its last task finishes, and then all of the remaining work has to
+         * be done by someone, so the makespan is at least (the work of every task + the idle time so far) / P.
+         */
+        IDLE_TIME,
+        /**
+         * No scheduled task can be followed by less than its bottom level (the longest path from it to the end of
+         * the graph), so the makespan is at least the start time plus bottom level of any scheduled task.
+         */
+        BOTTOM_LEVEL,
+        /**
+         * Each ready task can start no earlier than its data arrives on the processor that gets it first, and is
+         * then followed by its bottom level.
+         */
+        DATA_READY
+    }
+
+    private final Set<Bound> enabled;
+    private final LongAdder[] pruned = new LongAdder[Bound.values().length];
+
+    /**
+     * Creates a cost function using every bound.
+     */
+    public CompositeCostFunction() {
+        this(EnumSet.allOf(Bound.class));
+    }
+
+    /**
+     * Creates a cost function using only the bounds in `enabled`. The makespan of the schedule is always a bound.
+     */
+    public CompositeCostFunction(Set<Bound> enabled) {
+        this.enabled = enabled.isEmpty() ? EnumSet.noneOf(Bound.class) : EnumSet.copyOf(enabled);
+        for (int i = 0; i < pruned.length; i++) {
+            pruned[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Turns one of the bounds on or off.
+     */
+    public void setEnabled(Bound bound, boolean on) {
+        if (on) {
+            enabled.add(bound);
+        } else {
+            enabled.remove(bound);
+        }
+    }
+
+    public boolean isEnabled(Bound bound) {
+        return enabled.contains(bound);
+    }
+
+    @Override
+    public int estimate(PartialSchedule state) {
+        int estimate = state.getMakespan();
+        for (Bound bound : enabled) {
+            estimate = Math.max(estimate, evaluate(bound, state));
+        }
+        return estimate;
+    }
+
+    @Override
+    public boolean exceeds(PartialSchedule state, int bestMakespan) {
+        if (state.getMakespan() >= bestMakespan) {
+            return true;
+        }
+        for (Bound bound : enabled) {
+            if (evaluate(bound, state) >= bestMakespan) {
+                pruned[bound.ordinal()].increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of branches that `bound` was the first enabled bound to prune.
+     */
+    public long getPruned(Bound bound) {
+        return pruned[bound.ordinal()].sum();
+    }
+
+    private static int evaluate(Bound bound, PartialSchedule state) {
+        switch (bound) {
+            case IDLE_TIME:
+                return idleTimeBound(state);
+            case BOTTOM_LEVEL:
+                return bottomLevelBound(state);
+            default:
+                return dataReadyBound(state);
+        }
+    }
+
+    private static int idleTimeBound(PartialSchedule state) {
+        // (work + idle) / P, where the work and idle time so far add up to the processors' finish times
+        int numProcessors = state.getNumProcessors();
+        long busyUntil = state.getGraph().getTotalWork() - state.getScheduledWork();
+        for (int p = 1; p <= numProcessors; p++) {
+            busyUntil += state.getProcessorFinishTime(p);
+        }
+        return (int) ((busyUntil + numProcessors - 1) / numProcessors);
+    }
+
+    private static int bottomLevelBound(PartialSchedule state) {
+        TaskGraph graph = state.getGraph();
+        int bound = 0;
+        for (int i = 0; i < state.getNumVisited(); i++) {
+            int task = state.getScheduledTask(i);
+            bound = Math.max(bound, state.getStartTime(task) + graph.getBottomLevel(task));
+        }
+        return bound;
+    }
+
+    private static int dataReadyBound(PartialSchedule state) {
+        TaskGraph graph = state.getGraph();
+        int bound = 0;
+        for (int task = state.nextReadyTask(0); task >= 0; task = state.nextReadyTask(task + 1)) {
+            // finds the earliest the task could start on any processor
+            int earliestStart = Integer.MAX_VALUE;
+            for (int p = 1; p <= state.getNumProcessors(); p++) {
+                earliestStart = Math.min(earliestStart, state.findBestStartTime(task, p));
+                // every empty processor after this one would give the same start time
+                if (state.isProcessorEmpty(p)) {
+                    break;
+                }
+            }
+            bound = Math.max(bound, earliestStart + graph.getBottomLevel(task));
+        }
+        return bound;
+    }
+
+    /**
+     * Returns how many branches each bound pruned, e.g. "idle time 120, bottom level 45, data ready 3".
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Bound bound : Bound.values()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(bound.name().toLowerCase().replace('_', ' ')).append(' ');
+            builder.append(isEnabled(bound) ? String.valueOf(getPruned(bound)) : "off");
+        }
+        return builder.toString();
+    }
+}
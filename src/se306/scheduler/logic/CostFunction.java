@@ -0,0 +1,25 @@
+package se306.scheduler.logic;
+
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * Estimates how long any complete schedule made from a partial schedule must be, which best-first searches use to
+ * decide which schedule to expand next.
+ *
+ * The estimate must never be more than the makespan of any complete schedule made from the state (so the first
+ * complete schedule that cannot be beaten is optimal), and must equal the makespan of a complete schedule.
+ */
+public interface CostFunction {
+
+    /**
+     * Returns a lower bound on the makespan of every complete schedule that can be made from `state`.
+     */
+    int estimate(PartialSchedule state);
+
+    /**
+     * Returns true if no complete schedule made from `state` can be shorter than `bestMakespan`, so it can be pruned.
+     */
+    default boolean exceeds(PartialSchedule state, int bestMakespan) {
+        return estimate(state) >= bestMakespan;
+    }
+}
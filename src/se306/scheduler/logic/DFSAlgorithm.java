@@ -2,7 +2,6 @@ package se306.scheduler.logic;
 
 import java.util.Stack;
 
-import se306.scheduler.graph.Node;
 import se306.scheduler.graph.PartialSchedule;
 
 /**
@@ -20,7 +19,7 @@ public class DFSAlgorithm extends Algorithm {
         Stack<PartialSchedule> stack = new Stack<PartialSchedule>();
 
         // add initial state
-        stack.push(new PartialSchedule(graph));
+        stack.push(new PartialSchedule(taskGraph, numProcessors));
 
         int bestMakespan = Integer.MAX_VALUE;
         PartialSchedule bestSchedule = null;
@@ -42,25 +41,23 @@ public class DFSAlgorithm extends Algorithm {
                 continue;
             }
 
-            for (Node node: state.getUnvisitedNodes()) {
-                // check if the node's parents have all been scheduled
-                if (state.dependenciesSatisfied(node)) {
-                    // create new states by adding the new node to every processor
-                    for (int p = 1; p <= numProcessors; p++) {
-                        // find the earliest time the new node can be added on this processor
-                        int bestStart = state.findBestStartTime(node, p);
-
-                        // add the node at this time
-                        PartialSchedule newState = new PartialSchedule(state);
-                        boolean isFirstOnProcessor = newState.scheduleTask(node, p, bestStart);
-
-                        stack.push(newState);
-
-                        // if this task is placed as the first task on a processor then trying to place the
-                        // task on any subsequent processor will create an effectively identical schedule
-                        if (isFirstOnProcessor) {
-                            break;
-                        }
+            // only nodes whose parents have all been scheduled can be added
+            for (int task = state.nextReadyTask(0); task >= 0; task = state.nextReadyTask(task + 1)) {
+                // create new states by adding the new node to every processor
+                for (int p = 1; p <= numProcessors; p++) {
+                    // find the earliest time the new node can be added on this processor
+                    int bestStart = state.findBestStartTime(task, p);
+
+                    // add the node at this time
+                    PartialSchedule newState = new PartialSchedule(state);
+                    boolean isFirstOnProcessor = newState.scheduleTask(task, p, bestStart);
+
+                    stack.push(newState);
+
+                    // if this task is placed as the first task on a processor then trying to place the
+                    // task on any subsequent processor will create an effectively identical schedule
+                    if (isFirstOnProcessor) {
+                        break;
                     }
                 }
             }
@@ -0,0 +1,234 @@
+package se306.scheduler.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * Remembers partial schedules by the set of tasks they have scheduled, so that a schedule that can do no better than
+ * one already seen with the same tasks can be discarded, even though it is not an exact duplicate.
+ *
+ * A schedule is dominated by another with the same scheduled tasks if every processor finishes no later in the other,
+ * and the data every unscheduled task is waiting on arrives no later on every processor. Anything that can be scheduled
+ * after the dominated schedule can then be scheduled at least as early after the other one. Data from a task arrives
+ * at its finish time on its own processor and after the edge cost elsewhere, so a task that is on a different processor
+ * in the other schedule must finish earlier by its most expensive edge to an unscheduled child.
+ *
+ * For each set of scheduled tasks only the schedules not dominated by any other are kept (the Pareto frontier). Once
+ * the memory limit is reached no more are stored, but schedules are still checked against those already stored.
+ * This class is thread safe.
+ */
+public class DominanceStore {
+    // the rough size of an entry beyond its arrays: the entry, its arrays' headers and its place in a list, allowing
+    // for the spare capacity an ArrayList keeps as it grows
+    private static final int ENTRY_OVERHEAD = 72;
+    // the rough size of each set of scheduled tasks in the map beyond its entries: the map node and its table slot,
+    // the boxed key, and the list with its array header
+    private static final int KEY_OVERHEAD = 112;
+    // the number of ints stored for each task in a frontier: its id, processor, finish time and largest edge cost
+    private static final int FRONTIER_TASK_SIZE = 4;
+
+    /**
+     * The parts of a schedule needed to compare it against others with the same scheduled tasks.
+     */
+    private static final class Entry {
+        final long[] scheduled;
+        // each processor's finish time, then the id, processor, finish time and most expensive edge to an unscheduled
+        // child of each scheduled task with unscheduled children, in id order
+        final int[] frontier;
+
+        Entry(long[] scheduled, int[] frontier) {
+            this.scheduled = scheduled;
+            this.frontier = frontier;
+        }
+
+        long bytes() {
+            return ENTRY_OVERHEAD + scheduled.length * (long) Long.BYTES + frontier.length * (long) Integer.BYTES;
+        }
+    }
+
+    private final long memoryBytes;
+    private final ConcurrentHashMap<Long, List<Entry>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder dominated = new LongAdder();
+    private final LongAdder replaced = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+
+    /**
+     * Creates a store that uses no more than about `memoryBytes` bytes.
+     */
+    public DominanceStore(long memoryBytes) {
+        this.memoryBytes = memoryBytes;
+    }
+
+    /**
+     * Checks `state` against the stored schedules with the same scheduled tasks. If one of them dominates it, returns
+     * false. Otherwise the state is stored (replacing any stored schedules it dominates) and true is returned.
+     */
+    public boolean add(PartialSchedule state) {
+        lookups.increment();
+        Entry entry = new Entry(state.getScheduledSet(), frontier(state));
+        boolean[] added = new boolean[1];
+        entries.compute(Arrays.hashCode(entry.scheduled) * 0x9E3779B97F4A7C15L, (key, list) -> {
+            boolean hadKey = list != null;
+            if (list == null) {
+                list = new ArrayList<>(2);
+            }
+            for (Iterator<Entry> iterator = list.iterator(); iterator.hasNext(); ) {
+                Entry stored = iterator.next();
+                if (!Arrays.equals(stored.scheduled, entry.scheduled)) {
+                    continue;
+                }
+                if (dominates(stored, entry, state.getNumProcessors())) {
+                    return list;
+                }
+                if (dominates(entry, stored, state.getNumProcessors())) {
+                    iterator.remove();
+                    usedBytes.addAndGet(-stored.bytes());
+                    replaced.increment();
+                }
+            }
+            added[0] = true;
+            long bytes = entry.bytes() + (hadKey ? 0 : KEY_OVERHEAD);
+            if (usedBytes.get() + bytes <= memoryBytes) {
+                list.add(entry);
+                usedBytes.addAndGet(bytes);
+            } else {
+                refused.increment();
+                if (list.isEmpty()) {
+                    if (hadKey) {
+                        // every stored schedule was replaced, so the key is removed too
+                        usedBytes.addAndGet(-KEY_OVERHEAD);
+                    }
+                    return null;
+                }
+            }
+            return list;
+        });
+        if (!added[0]) {
+            dominated.increment();
+        }
+        return added[0];
+    }
+
+    /**
+     * Returns the processor finish times of `state`, followed by the processor, finish time and most expensive edge to
+     * an unscheduled child of each scheduled task that still has a child to schedule.
+     */
+    private static int[] frontier(PartialSchedule state) {
+        TaskGraph graph = state.getGraph();
+        int numProcessors = state.getNumProcessors();
+        int[] frontier = new int[numProcessors + FRONTIER_TASK_SIZE * state.getNumVisited()];
+        for (int p = 1; p <= numProcessors; p++) {
+            frontier[p - 1] = state.getProcessorFinishTime(p);
+        }
+        int length = numProcessors;
+        for (int i = 0; i < state.getNumVisited(); i++) {
+            int task = state.getScheduledTask(i);
+            int maxCost = -1;
+            for (int e = graph.getChildrenStart(task); e < graph.getChildrenEnd(task); e++) {
+                if (!state.isVisited(graph.getChild(e))) {
+                    maxCost = Math.max(maxCost, graph.getChildCost(e));
+                }
+            }
+            if (maxCost >= 0) {
+                frontier[length++] = task;
+                frontier[length++] = state.getProcessor(task);
+                frontier[length++] = state.getStartTime(task) + graph.getWeight(task);
+                frontier[length++] = maxCost;
+            }
+        }
+        // the tasks were added in the order they were scheduled, so sort them to match other schedules of the same tasks
+        sortFrontierTasks(frontier, numProcessors, length);
+        return Arrays.copyOf(frontier, length);
+    }
+
+    /**
+     * Sorts the frontier tasks in `frontier` (from `start` to `end`) by task id.
+     */
+    private static void sortFrontierTasks(int[] frontier, int start, int end) {
+        for (int i = start + FRONTIER_TASK_SIZE; i < end; i += FRONTIER_TASK_SIZE) {
+            for (int j = i; j > start && frontier[j - FRONTIER_TASK_SIZE] > frontier[j]; j -= FRONTIER_TASK_SIZE) {
+                for (int k = 0; k < FRONTIER_TASK_SIZE; k++) {
+                    int swap = frontier[j + k];
+                    frontier[j + k] = frontier[j - FRONTIER_TASK_SIZE + k];
+                    frontier[j - FRONTIER_TASK_SIZE + k] = swap;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if schedule `a` dominates schedule `b`, which have the same scheduled tasks (and so the same
+     * frontier tasks, in the same order).
+     */
+    private static boolean dominates(Entry a, Entry b, int numProcessors) {
+        for (int p = 0; p < numProcessors; p++) {
+            if (a.frontier[p] > b.frontier[p]) {
+                return false;
+            }
+        }
+        for (int i = numProcessors; i < a.frontier.length; i += FRONTIER_TASK_SIZE) {
+            int finish = a.frontier[i + 2];
+            if (a.frontier[i + 1] != b.frontier[i + 1]) {
+                // b's children get its data without the edge cost on b's processor, so a's must arrive there by then
+                finish += a.frontier[i + 3];
+            }
+            if (finish > b.frontier[i + 2]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of schedules that were discarded as they were dominated by a stored schedule.
+     */
+    public long getDominated() {
+        return dominated.sum();
+    }
+
+    /**
+     * Returns the number of schedules that have been checked.
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Returns the number of stored schedules that were removed as a new schedule dominated them.
+     */
+    public long getReplaced() {
+        return replaced.sum();
+    }
+
+    /**
+     * Returns the number of schedules that were not stored as the store was full.
+     */
+    public long getRefused() {
+        return refused.sum();
+    }
+
+    /**
+     * Returns the approximate memory used by the stored schedules in bytes.
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%d of %d schedules dominated, %d replaced, %d not stored as full, %.1f MB used",
+                getDominated(), getLookups(), getReplaced(), getRefused(), getUsedBytes() / (double) (1 << 20));
+    }
+}
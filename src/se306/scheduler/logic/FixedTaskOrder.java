@@ -0,0 +1,97 @@
+package se306.scheduler.logic;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * Detects when the ready tasks of a partial schedule can be scheduled in a fixed order without losing the optimal
+ * schedule, so a search only needs to branch on the first of them (Orr and Sinnen's fixed task order).
+ *
+ * This is the case when every ready task has at most one parent and at most one child, every child is the same task,
+ * and every parent is on the same processor. Sorting the tasks by the time their data is ready (then by decreasing
+ * cost of their edge to the child) gives a fixed order if the edge costs to the child do not increase along it.
+ * These conditions hold for the fork, join and independent task sets that make up much of out-trees and in-trees.
+ */
+final class FixedTaskOrder {
+
+    private FixedTaskOrder() {
+    }
+
+    /**
+     * Returns the first ready task of `state` in a fixed task order, or -1 if the ready tasks do not have one.
+     */
+    static int firstTask(PartialSchedule state) {
+        int numReady = state.getNumReady();
+        if (numReady < 2) {
+            return state.nextReadyTask(0);
+        }
+        TaskGraph graph = state.getGraph();
+        if (!meetsConditions(state, graph)) {
+            return -1;
+        }
+
+        int[] tasks = new int[numReady];
+        int[] dataReady = new int[numReady];
+        int[] outCost = new int[numReady];
+        int count = 0;
+        for (int task = state.nextReadyTask(0); task >= 0; task = state.nextReadyTask(task + 1)) {
+            int ready = 0;
+            if (graph.getNumParents(task) == 1) {
+                int edge = graph.getParentsStart(task);
+                int parent = graph.getParent(edge);
+                ready = state.getStartTime(parent) + graph.getWeight(parent) + graph.getParentCost(edge);
+            }
+            int cost = graph.getNumChildren(task) == 1 ? graph.getChildCost(graph.getChildrenStart(task)) : 0;
+
+            // insertion sort by increasing data ready time, then decreasing edge cost to the child
+            int i = count++;
+            while (i > 0 && (dataReady[i - 1] > ready || (dataReady[i - 1] == ready && outCost[i - 1] < cost))) {
+                tasks[i] = tasks[i - 1];
+                dataReady[i] = dataReady[i - 1];
+                outCost[i] = outCost[i - 1];
+                i--;
+            }
+            tasks[i] = task;
+            dataReady[i] = ready;
+            outCost[i] = cost;
+        }
+
+        for (int i = 1; i < count; i++) {
+            if (outCost[i] > outCost[i - 1]) {
+                return -1;
+            }
+        }
+        return tasks[0];
+    }
+
+    /**
+     * Checks that every ready task has at most one parent and one child, that they all have the same child, and that
+     * all their parents are on the same processor. This is checked before sorting, as it usually fails quickly.
+     */
+    private static boolean meetsConditions(PartialSchedule state, TaskGraph graph) {
+        int child = -1;
+        int parentProcessor = -1;
+        for (int task = state.nextReadyTask(0); task >= 0; task = state.nextReadyTask(task + 1)) {
+            if (graph.getNumParents(task) > 1 || graph.getNumChildren(task) > 1) {
+                return false;
+            }
+            if (graph.getNumParents(task) == 1) {
+                int processor = state.getProcessor(graph.getParent(graph.getParentsStart(task)));
+                if (parentProcessor < 0) {
+                    parentProcessor = processor;
+                } else if (processor != parentProcessor) {
+                    return false;
+                }
+            }
+            if (graph.getNumChildren(task) == 1) {
+                int taskChild = graph.getChild(graph.getChildrenStart(task));
+                if (child < 0) {
+                    child = taskChild;
+                } else if (taskChild != child) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
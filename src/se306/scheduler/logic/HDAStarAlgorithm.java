@@ -0,0 +1,262 @@
+package se306.scheduler.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.util.LongSet;
+
+/**
+ * Hash Distributed A* (HDA*), a best-first search that runs on several threads without sharing a duplicate table.
+ *
+ * Every partial schedule is owned by one worker, chosen from its fingerprint. Each worker keeps its own open list
+ * (ordered by a lower bound on the makespan of any schedule made from it) and its own closed set of fingerprints, and
+ * only ever expands schedules it owns. New schedules are sent to their owner in batches through a lock-free mailbox,
+ * so duplicates are always detected by the one worker that could have seen them before. Each worker also checks the
+ * schedules it makes against its own {@link DominanceStore}, so dominated schedules are only found among those made
+ * by the same worker, but no store is shared.
+ *
+ * The search ends when no schedules are left anywhere. Workers drop schedules whose lower bound is at least the best
+ * makespan found so far, so this happens as soon as the lowest lower bound on every worker reaches the best makespan,
+ * which proves that schedule is optimal.
+ */
+public class HDAStarAlgorithm extends BNBAlgorithm {
+    // the most schedules to hold for another worker before sending them
+    private static final int BATCH_SIZE = 32;
+    // the number of schedules a worker expands before reading its mailbox and sending what it has made
+    private static final int EXPANSIONS_PER_ROUND = 16;
+
+    private final int nThreads;
+    private Worker[] workers;
+    // the number of schedules that have been made but not yet expanded or dropped, wherever they are
+    private final AtomicLong pending = new AtomicLong();
+    private volatile boolean earlyStop = false;
+
+    public HDAStarAlgorithm(int numProcessors, int nThreads) {
+        super(numProcessors);
+        this.nThreads = nThreads;
+    }
+
+    /**
+     * One search thread, along with the schedules it owns.
+     */
+    private final class Worker implements Runnable {
+        private final PriorityQueue<OpenEntry> open = new PriorityQueue<>();
+        // fingerprints of the schedules this worker owns that have been seen (any memory limit is split between workers)
+        private final LongSet closed = createScheduleIDSet(false, nThreads);
+        // schedules this worker has made, to find dominated ones without contending with the other workers
+        private final DominanceStore dominance = createDominanceStore(nThreads);
+        // batches of schedules sent to this worker by any worker (including itself)
+        private final ConcurrentLinkedQueue<List<OpenEntry>> mailbox = new ConcurrentLinkedQueue<>();
+        // schedules this worker has made for each worker, which have not been sent yet
+        private final List<List<OpenEntry>> outgoing = new ArrayList<>();
+
+        Worker() {
+            for (int i = 0; i < nThreads; i++) {
+                outgoing.add(new ArrayList<>(BATCH_SIZE));
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!earlyStop) {
+                receive();
+                for (int i = 0; i < EXPANSIONS_PER_ROUND && !open.isEmpty() && !earlyStop; i++) {
+                    expand(open.poll());
+                }
+                sendAll();
+                if (deadlinePassed()) {
+                    earlyStop = true;
+                }
+                if (open.isEmpty()) {
+                    if (pending.get() == 0) {
+                        return;
+                    }
+                    // wait for schedules from the other workers
+                    Thread.yield();
+                }
+            }
+        }
+
+        /**
+         * Moves the schedules in the mailbox to the open list, dropping any that have already been seen.
+         */
+        private void receive() {
+            List<OpenEntry> batch;
+            while ((batch = mailbox.poll()) != null) {
+                for (OpenEntry entry : batch) {
+                    if (closed.add(entry.state.getFingerprint(), entry.state.getNumVisited())) {
+                        open.add(entry);
+                    } else {
+                        drop(entry.state);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Makes every schedule that can be made by adding one task to `state`, sending each one that could still beat
+         * the best schedule to its owner.
+         */
+        private void expand(OpenEntry entry) {
+            PartialSchedule state = entry.state;
+            int bestMakespan = incumbent.getMakespan();
+            if (entry.f >= bestMakespan) {
+                // nothing left on this worker can beat the best schedule
+                drop(state);
+                while (!open.isEmpty()) {
+                    drop(open.poll().state);
+                }
+                return;
+            }
+
+            int numBlocked = state.getNumUnvisited() - state.getNumReady();
+            if (numBlocked > 0) {
+                updateBranchCut(state.getNumUnvisited() - 1, numProcessors * numBlocked);
+            }
+            // if the ready tasks have a fixed order, only the first needs to be scheduled next
+            int fixedTask = fixedOrderTask(state);
+            for (int task = fixedTask >= 0 ? fixedTask : state.nextReadyTask(0); task >= 0;
+                    task = fixedTask >= 0 ? -1 : state.nextReadyTask(task + 1)) {
+                if (fixedTask < 0 && hasUnscheduledEquivalent(state, task)) {
+                    continue;
+                }
+                for (int p = 1; p <= numProcessors; p++) {
+                    PartialSchedule newState = new PartialSchedule(state);
+                    boolean isFirstOnProcessor = newState.scheduleTask(task, p, state.findBestStartTime(task, p));
+                    // scheduling the node on any later (empty) processor would give the same schedule
+                    int branchesCut = isFirstOnProcessor ? numProcessors - p + 1 : 1;
+
+                    if (newState.allVisited()) {
+                        if (incumbent.offer(newState)) {
+                            updateSchedule(newState);
+                            if (newState.getMakespan() == taskGraph.getMakespanLowerBound(numProcessors)) {
+                                earlyStop = true;
+                            }
+                        }
+                        updateBranchCut(0, branchesCut);
+                    } else if (lowerBoundExceeded(newState, incumbent.getMakespan())
+                            || (dominance != null && !dominance.add(newState))) {
+                        updateBranchCut(newState.getNumUnvisited(), branchesCut);
+                    } else {
+                        send(new OpenEntry(newState, costFunction.estimate(newState)));
+                        if (isFirstOnProcessor) {
+                            updateBranchCut(newState.getNumUnvisited(), branchesCut - 1);
+                        }
+                    }
+                    if (isFirstOnProcessor) {
+                        break;
+                    }
+                }
+            }
+            // only counted as done once its children are counted, so the search cannot appear to have finished early
+            pending.decrementAndGet();
+        }
+
+        private void send(OpenEntry entry) {
+            pending.incrementAndGet();
+            int owner = owner(entry.state);
+            List<OpenEntry> batch = outgoing.get(owner);
+            batch.add(entry);
+            if (batch.size() >= BATCH_SIZE) {
+                workers[owner].mailbox.add(batch);
+                outgoing.set(owner, new ArrayList<>(BATCH_SIZE));
+            }
+        }
+
+        private void sendAll() {
+            for (int owner = 0; owner < nThreads; owner++) {
+                if (!outgoing.get(owner).isEmpty()) {
+                    workers[owner].mailbox.add(outgoing.get(owner));
+                    outgoing.set(owner, new ArrayList<>(BATCH_SIZE));
+                }
+            }
+        }
+
+        private void drop(PartialSchedule state) {
+            updateBranchCut(state.getNumUnvisited(), 1);
+            pending.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void schedule() {
+        earlyStop = false;
+        pending.set(0);
+        workers = new Worker[nThreads];
+        for (int i = 0; i < nThreads; i++) {
+            workers[i] = new Worker();
+        }
+
+        // use a greedy algorithm to find a decent initial bound
+        startClock();
+        PartialSchedule greedy = greedySchedule();
+        incumbent = new Incumbent();
+        incumbent.offer(greedy);
+        updateSchedule(greedy);
+
+        // no need to search if the greedy schedule is already as short as a schedule can be
+        if (incumbent.getMakespan() > taskGraph.getMakespanLowerBound(numProcessors)) {
+            PartialSchedule root = new PartialSchedule(taskGraph, numProcessors);
+            List<OpenEntry> first = new ArrayList<>();
+            first.add(new OpenEntry(root, costFunction.estimate(root)));
+            pending.set(1);
+            workers[owner(root)].mailbox.add(first);
+
+            Thread[] threads = new Thread[nThreads];
+            for (int i = 0; i < nThreads; i++) {
+                threads[i] = new Thread(workers[i], "HDA* worker " + i);
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    earlyStop = true;
+                }
+            }
+            if (isTimedOut()) {
+                addOpenBounds();
+            }
+        }
+        completed(incumbent.getSchedule());
+    }
+
+    /**
+     * Records the lower bounds of the schedules left unexplored when the workers ran out of time, wherever they are.
+     * Only called once every worker has stopped.
+     */
+    private void addOpenBounds() {
+        for (Worker worker : workers) {
+            if (!worker.open.isEmpty()) {
+                addOpenBound(worker.open.peek().f);
+            }
+            List<List<OpenEntry>> batches = new ArrayList<>(worker.mailbox);
+            batches.addAll(worker.outgoing);
+            for (List<OpenEntry> batch : batches) {
+                for (OpenEntry entry : batch) {
+                    addOpenBound(entry.f);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the set of fingerprints seen by worker `index` in the last search.
+     */
+    LongSet getClosedSet(int index) {
+        return workers[index].closed;
+    }
+
+    /**
+     * Returns the index of the worker that owns `state`. The fingerprint is already well mixed, so its top bits are
+     * spread evenly across the workers.
+     */
+    private int owner(PartialSchedule state) {
+        return (int) (((state.getFingerprint() >>> 32) * nThreads) >>> 32);
+    }
+}
@@ -0,0 +1,29 @@
+package se306.scheduler.logic;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.heuristics.Heuristic;
+import se306.scheduler.heuristics.HeuristicPortfolio;
+
+/**
+ * Finds a good schedule quickly by running a {@link Heuristic} (by default, a portfolio of list schedulers) instead of
+ * searching. The schedule is not guaranteed to be optimal, but this scales to graphs far too large to search.
+ */
+public class HeuristicAlgorithm extends Algorithm {
+    private final Heuristic heuristic;
+
+    public HeuristicAlgorithm(int numProcessors) {
+        this(numProcessors, new HeuristicPortfolio());
+    }
+
+    public HeuristicAlgorithm(int numProcessors, Heuristic heuristic) {
+        super(numProcessors);
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public void schedule() {
+        PartialSchedule schedule = heuristic.schedule(taskGraph, numProcessors);
+        updateSchedule(schedule);
+        completed(schedule);
+    }
+}
@@ -0,0 +1,57 @@
+package se306.scheduler.logic;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * The best complete schedule found so far by a search, which can be shared between threads without locking.
+ *
+ * The makespan and schedule are kept together in one immutable holder that is replaced with a compare-and-set, so a
+ * thread always sees a schedule along with its own makespan, and a better schedule is never overwritten by a worse one.
+ */
+public class Incumbent {
+
+    private static final class Best {
+        final int makespan;
+        final PartialSchedule schedule;
+
+        Best(int makespan, PartialSchedule schedule) {
+            this.makespan = makespan;
+            this.schedule = schedule;
+        }
+    }
+
+    private final AtomicReference<Best> best = new AtomicReference<>(new Best(Integer.MAX_VALUE, null));
+
+    /**
+     * Returns the makespan of the best schedule, or {@link Integer#MAX_VALUE} if there is none yet.
+     */
+    public int getMakespan() {
+        return best.get().makespan;
+    }
+
+    /**
+     * Returns the best schedule, or null if there is none yet.
+     */
+    public PartialSchedule getSchedule() {
+        return best.get().schedule;
+    }
+
+    /**
+     * Makes `schedule` the best schedule if it is shorter than the current one. The schedule must be complete, and
+     * must not be changed afterwards, as other threads may read it at any time.
+     * @return true if `schedule` is now the best schedule
+     */
+    public boolean offer(PartialSchedule schedule) {
+        Best offered = new Best(schedule.getMakespan(), schedule);
+        Best current = best.get();
+        while (offered.makespan < current.makespan) {
+            if (best.compareAndSet(current, offered)) {
+                return true;
+            }
+            current = best.get();
+        }
+        return false;
+    }
+}
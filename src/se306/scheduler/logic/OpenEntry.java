@@ -0,0 +1,26 @@
+package se306.scheduler.logic;
+
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * A partial schedule waiting to be expanded by a best-first search, along with its estimated cost.
+ * Entries are ordered by cost, with ties going to the deeper schedule, which reaches complete schedules (and a better
+ * bound) sooner.
+ */
+final class OpenEntry implements Comparable<OpenEntry> {
+    final PartialSchedule state;
+    final int f;
+
+    OpenEntry(PartialSchedule state, int f) {
+        this.state = state;
+        this.f = f;
+    }
+
+    @Override
+    public int compareTo(OpenEntry other) {
+        if (f != other.f) {
+            return Integer.compare(f, other.f);
+        }
+        return Integer.compare(other.state.getNumVisited(), state.getNumVisited());
+    }
+}
@@ -0,0 +1,74 @@
+package se306.scheduler.logic;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many complete schedules a search has checked (either by reaching them or by cutting the branch they are
+ * on), without a lock or any allocation when a branch is cut.
+ *
+ * A branch cut with `nodesRemaining` tasks left to schedule removes P^nodesRemaining * nodesRemaining! schedules, which
+ * quickly gets too big for a long. Rather than adding that to a BigInteger every time, the number of branches cut at
+ * each depth is kept in its own {@link LongAdder}, and the weight of each depth is only multiplied in when the total
+ * is read.
+ */
+public class ScheduleCounter {
+    // the number of schedules under a branch with each number of tasks remaining, only worked out for the numbers of
+    // tasks remaining that have had a branch cut, when the total is read
+    private final BigInteger[] weights;
+    private final LongAdder[] counts; // the number of branches cut with each number of tasks remaining
+    private final BigInteger processors;
+
+    /**
+     * Creates a counter for a graph of `numTasks` tasks scheduled on `numProcessors` processors.
+     */
+    public ScheduleCounter(int numProcessors, int numTasks) {
+        weights = new BigInteger[numTasks + 1];
+        counts = new LongAdder[numTasks + 1];
+        processors = BigInteger.valueOf(numProcessors);
+        weights[0] = BigInteger.ONE;
+        for (int remaining = 0; remaining <= numTasks; remaining++) {
+            counts[remaining] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records that `factor` branches have been cut, each with `nodesRemaining` tasks left to schedule.
+     */
+    public void add(int nodesRemaining, int factor) {
+        counts[nodesRemaining].add(factor);
+    }
+
+    /**
+     * Returns the total number of schedules checked so far.
+     */
+    public synchronized BigInteger get() {
+        BigInteger total = BigInteger.ZERO;
+        for (int remaining = 0; remaining < counts.length; remaining++) {
+            long count = counts[remaining].sum();
+            if (count != 0) {
+                total = total.add(weight(remaining).multiply(BigInteger.valueOf(count)));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns P^remaining * remaining!, starting from the weight of the closest lower number of tasks remaining that
+     * has already been worked out.
+     */
+    private BigInteger weight(int remaining) {
+        if (weights[remaining] == null) {
+            int known = remaining - 1;
+            while (weights[known] == null) {
+                known--;
+            }
+            BigInteger weight = weights[known];
+            for (int k = known + 1; k <= remaining; k++) {
+                weight = weight.multiply(processors).multiply(BigInteger.valueOf(k));
+            }
+            weights[remaining] = weight;
+        }
+        return weights[remaining];
+    }
+}
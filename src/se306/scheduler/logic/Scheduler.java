@@ -1,13 +1,17 @@
 package se306.scheduler.logic;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import se306.scheduler.graph.Node;
+import se306.scheduler.graph.TaskGraph;
 
 public class Scheduler {
 
     private List<Node> graph = new ArrayList<>();
+    private Map<String, Node> nodesByName = new HashMap<>(); // so dependencies can be added without searching the graph
     
     private Algorithm algorithm;
 
@@ -16,12 +20,21 @@ public class Scheduler {
     }
 
     public void start() {
-        algorithm.setGraph(graph);
+        start(TaskGraph.compile(graph));
+    }
+
+    /**
+     * Schedules a graph that has already been compiled from the nodes of this scheduler.
+     */
+    public void start(TaskGraph taskGraph) {
+        algorithm.setGraph(taskGraph);
         algorithm.schedule();
     }
 
     public void addNode(Node node){
         graph.add(node);
+        // if two nodes have the same name, the first one is used
+        nodesByName.putIfAbsent(node.getName(), node);
     }
 
     public void addChild(String parent, String child, int edgeWeight) throws NullPointerException {
@@ -30,16 +43,12 @@ public class Scheduler {
     }
 
     private Node getNode(String name) {
-        for (Node node : graph) {
-            if (node.getName().equals(name)) {
-                return node;
-            }
-        }
-        return null;
+        return nodesByName.get(name);
     }
 
     public void clearGraph(){
         graph.clear();
+        nodesByName.clear();
     }
     
     public List<Node> getNodes() {
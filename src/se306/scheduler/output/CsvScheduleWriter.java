@@ -0,0 +1,57 @@
+package se306.scheduler.output;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a schedule as CSV, with a header row then one row per task in the order of the input graph, giving its weight,
+ * processor, and start and finish times. Dependencies are not written.
+ */
+public class CsvScheduleWriter implements ScheduleWriter {
+
+    private static final String LS = System.lineSeparator();
+
+    @Override
+    public String getExtension() {
+        return ".csv";
+    }
+
+    @Override
+    public void write(Writer out, String graphName, PartialSchedule schedule, int lowerBound, int[] statements)
+            throws IOException {
+        TaskGraph graph = schedule.getGraph();
+        out.write("task,weight,processor,start,finish" + LS);
+        for (int i = 0; i < statements.length; i += 2) {
+            if (statements[i] >= 0) {
+                continue;
+            }
+            int task = statements[i + 1];
+            out.write(field(graph.getNode(task).getName()));
+            out.write(',');
+            out.write(Integer.toString(graph.getWeight(task)));
+            out.write(',');
+            out.write(Integer.toString(schedule.getProcessor(task)));
+            out.write(',');
+            out.write(Integer.toString(schedule.getStartTime(task)));
+            out.write(',');
+            out.write(Integer.toString(schedule.getStartTime(task) + graph.getWeight(task)));
+            out.write(LS);
+        }
+    }
+
+    /**
+     * Returns `value` as a CSV field, which is quoted if it contains a comma, quote or line break
+     */
+    private static String field(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,76 @@
+package se306.scheduler.output;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes a schedule as a DOT graph, with the start time and processor of each task added to its attributes. If the
+ * schedule may not be optimal, its lower bound and the gap between them (as a fraction of the makespan) are written as
+ * graph attributes.
+ */
+public class DotScheduleWriter implements ScheduleWriter {
+
+    private static final String LS = System.lineSeparator();
+
+    @Override
+    public String getExtension() {
+        return ".dot";
+    }
+
+    @Override
+    public void write(Writer out, String graphName, PartialSchedule schedule, int lowerBound, int[] statements)
+            throws IOException {
+        String capitalised = graphName.isEmpty() ? graphName
+                : graphName.substring(0, 1).toUpperCase() + graphName.substring(1);
+        out.write("digraph \"output" + capitalised + "\" {" + LS);
+        if (lowerBound < schedule.getMakespan()) {
+            double gap = (double) (schedule.getMakespan() - lowerBound) / schedule.getMakespan();
+            out.write(String.format(Locale.ROOT, "\tLowerBound=%d;" + LS + "\tGap=%.4f;" + LS, lowerBound, gap));
+        }
+
+        TaskGraph graph = schedule.getGraph();
+        for (int i = 0; i < statements.length; i += 2) {
+            int parent = statements[i];
+            int task = statements[i + 1];
+            out.write('\t');
+            if (parent < 0) {
+                out.write(id(graph.getNode(task).getName()));
+                out.write("\t[Weight=");
+                out.write(Integer.toString(graph.getWeight(task)));
+                out.write(",Start=");
+                out.write(Integer.toString(schedule.getStartTime(task)));
+                out.write(",Processor=");
+                out.write(Integer.toString(schedule.getProcessor(task)));
+            } else {
+                out.write(id(graph.getNode(parent).getName()));
+                out.write(" -> ");
+                out.write(id(graph.getNode(task).getName()));
+                out.write("\t[Weight=");
+                out.write(Integer.toString(graph.getEdgeCost(parent, task)));
+            }
+            out.write("];");
+            out.write(LS);
+        }
+        out.write("}");
+        out.write(LS);
+    }
+
+    /**
+     * Returns `name` as a DOT ID, which is only quoted if it is not a plain name (letters, digits and underscores, not
+     * starting with a digit) or a number
+     */
+    private static String id(String name) {
+        boolean isNumber = !name.isEmpty();
+        boolean isName = !name.isEmpty() && !Character.isDigit(name.charAt(0));
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            isNumber &= Character.isDigit(c);
+            isName &= Character.isLetterOrDigit(c) || c == '_';
+        }
+        return isNumber || isName ? name : "\"" + name.replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,94 @@
+package se306.scheduler.output;
+
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a schedule as a JSON object, with the makespan and lower bound of the schedule, a "tasks" array giving the
+ * weight, start time and processor of each task, and a "dependencies" array giving the weight of each edge. Both arrays
+ * are in the order of the input graph.
+ */
+public class JsonScheduleWriter implements ScheduleWriter {
+
+    private static final String LS = System.lineSeparator();
+
+    @Override
+    public String getExtension() {
+        return ".json";
+    }
+
+    @Override
+    public void write(Writer out, String graphName, PartialSchedule schedule, int lowerBound, int[] statements)
+            throws IOException {
+        TaskGraph graph = schedule.getGraph();
+        out.write("{" + LS);
+        out.write("  \"graph\": ");
+        string(out, graphName);
+        out.write("," + LS + "  \"processors\": " + schedule.getNumProcessors());
+        out.write("," + LS + "  \"makespan\": " + schedule.getMakespan());
+        out.write("," + LS + "  \"lowerBound\": " + Math.min(lowerBound, schedule.getMakespan()));
+        out.write("," + LS + "  \"optimal\": " + (lowerBound >= schedule.getMakespan()));
+
+        out.write("," + LS + "  \"tasks\": [");
+        boolean first = true;
+        for (int i = 0; i < statements.length; i += 2) {
+            if (statements[i] >= 0) {
+                continue;
+            }
+            int task = statements[i + 1];
+            out.write(first ? LS + "    {\"name\": " : "," + LS + "    {\"name\": ");
+            string(out, graph.getNode(task).getName());
+            out.write(", \"weight\": ");
+            out.write(Integer.toString(graph.getWeight(task)));
+            out.write(", \"start\": ");
+            out.write(Integer.toString(schedule.getStartTime(task)));
+            out.write(", \"processor\": ");
+            out.write(Integer.toString(schedule.getProcessor(task)));
+            out.write('}');
+            first = false;
+        }
+        out.write(first ? "]" : LS + "  ]");
+
+        out.write("," + LS + "  \"dependencies\": [");
+        first = true;
+        for (int i = 0; i < statements.length; i += 2) {
+            int parent = statements[i];
+            if (parent < 0) {
+                continue;
+            }
+            int task = statements[i + 1];
+            out.write(first ? LS + "    {\"from\": " : "," + LS + "    {\"from\": ");
+            string(out, graph.getNode(parent).getName());
+            out.write(", \"to\": ");
+            string(out, graph.getNode(task).getName());
+            out.write(", \"weight\": ");
+            out.write(Integer.toString(graph.getEdgeCost(parent, task)));
+            out.write('}');
+            first = false;
+        }
+        out.write(first ? "]" : LS + "  ]");
+        out.write(LS + "}" + LS);
+    }
+
+    /**
+     * Writes `value` as a quoted JSON string
+     */
+    private static void string(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
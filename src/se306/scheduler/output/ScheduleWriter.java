@@ -0,0 +1,35 @@
+package se306.scheduler.output;
+
+import se306.scheduler.graph.PartialSchedule;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a complete schedule in some output format.
+ *
+ * Tasks and dependencies are written in the order they were declared in the input graph, which is given as the
+ * statements of that graph: (parent, child) pairs of task ids in the schedule's graph, with a parent of -1 for a
+ * statement that declares a task. Each statement is written as it is visited, so the document is never held in memory.
+ */
+public interface ScheduleWriter {
+
+    /**
+     * Returns the extension of files in this format, e.g. ".dot".
+     */
+    String getExtension();
+
+    /**
+     * Writes `schedule` to `out`.
+     *
+     * @param out Where the schedule will be written. It is not closed
+     * @param graphName The name of the input graph, without its extension
+     * @param schedule A schedule with every task scheduled
+     * @param lowerBound The shortest makespan that has not been ruled out for the graph, which is less than the
+     *        makespan of `schedule` if it may not be optimal
+     * @param statements The (parent, child) task id pairs of each statement in the input graph
+     * @throws IOException if `out` cannot be written to
+     */
+    void write(Writer out, String graphName, PartialSchedule schedule, int lowerBound, int[] statements)
+            throws IOException;
+}
@@ -0,0 +1,51 @@
+package se306.scheduler.util;
+
+/**
+ * A thread safe {@link LongSet} made up of a number of {@link LongHashSet} stripes, each with its own lock.
+ * Threads only contend when they use keys that fall in the same stripe.
+ */
+public class ConcurrentLongHashSet implements LongSet {
+    private static final int STRIPE_BITS = 6;
+
+    private final LongHashSet[] stripes = new LongHashSet[1 << STRIPE_BITS];
+
+    public ConcurrentLongHashSet() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new LongHashSet();
+        }
+    }
+
+    /**
+     * Picks the stripe for a key from its lowest bits, which are independent of the bits {@link LongHashSet} uses.
+     */
+    private LongHashSet stripe(long key) {
+        return stripes[(int) (key ^ (key >>> 32)) & (stripes.length - 1)];
+    }
+
+    @Override
+    public boolean add(long key) {
+        LongHashSet stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.add(key);
+        }
+    }
+
+    @Override
+    public boolean contains(long key) {
+        LongHashSet stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.contains(key);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (LongHashSet stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,112 @@
+package se306.scheduler.util;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash set of primitive longs, which avoids the boxing and per-entry objects of a
+ * {@code HashSet<Long>}. Keys are stored directly in a long array using linear probing, with 0 used to mark empty
+ * slots (so the key 0 is tracked separately). This class is not thread safe.
+ */
+public class LongHashSet implements LongSet {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] keys;
+    private int size;
+    private int mask;
+    private int shift;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a set that can hold `expectedSize` keys before it needs to grow.
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) Math.min(1 << 30, expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * Finds the first slot to look at for a key, using the top bits of the key multiplied by the golden ratio.
+     */
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    @Override
+    public boolean add(long key) {
+        if (key == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        size++;
+        if (size > keys.length * MAX_LOAD) {
+            grow();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * Doubles the size of the key array, reinserting all the existing keys.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        allocate(oldKeys.length * 2);
+        for (long key : oldKeys) {
+            if (key != 0) {
+                int i = slot(key);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+        }
+    }
+}
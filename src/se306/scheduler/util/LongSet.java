@@ -0,0 +1,26 @@
+package se306.scheduler.util;
+
+/**
+ * A set of primitive longs, used to remember which schedule fingerprints have already been seen.
+ */
+public interface LongSet {
+
+    /**
+     * Adds `key` to the set.
+     * @return true if the key was not already in the set
+     */
+    boolean add(long key);
+
+    /**
+     * Adds `key`, found at `depth` in the search (the number of tasks scheduled). Sets that have to forget keys to save
+     * memory can use this to choose which ones to keep.
+     * @return true if the key was not already in the set
+     */
+    default boolean add(long key, int depth) {
+        return add(key);
+    }
+
+    boolean contains(long key);
+
+    int size();
+}
@@ -0,0 +1,218 @@
+package se306.scheduler.util;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size, thread safe {@link LongSet} for detecting duplicate schedules within a memory budget.
+ *
+ * Keys are kept in buckets of {@value #BUCKET_SIZE} slots. When a key's bucket is full one of the keys already there is
+ * evicted according to the {@link ReplacementPolicy}, so the table never grows. An evicted key is simply forgotten:
+ * adding it again returns true, which means the search explores a schedule it has seen before instead of skipping it.
+ * Keys are never reported as present unless they were added, so eviction costs extra work but never correctness.
+ */
+public class TranspositionTable implements LongSet {
+    private static final int BUCKET_SIZE = 4;
+    private static final int MIN_SLOTS = 2 * BUCKET_SIZE;
+    private static final int MAX_SLOTS = 1 << 30;
+    // each slot takes a long for the key and an int for its depth and reference bit
+    private static final int BYTES_PER_SLOT = Long.BYTES + Integer.BYTES;
+    // 0 marks an empty slot, so the key 0 is stored as this instead
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+
+    /**
+     * How to pick which key to evict when a bucket is full.
+     */
+    public enum ReplacementPolicy {
+        /** Always replace one of the keys, chosen by the new key's bits */
+        ALWAYS,
+        /**
+         * Replace the deepest key, but only if it is at least as deep as the new one. Shallow schedules have the most
+         * schedules under them, so they save the most work when recognised as duplicates.
+         */
+        DEPTH,
+        /** Replace the first key that has not been looked up since the bucket's clock hand last passed it */
+        CLOCK
+    }
+
+    private final AtomicLongArray keys;
+    // for each slot, its key's depth shifted left by one, with the lowest bit set if it has been looked up recently.
+    // These are only hints for the replacement policy, so they are updated without synchronisation
+    private final int[] meta;
+    private final byte[] clockHands; // the next slot to look at in each bucket, for the clock policy
+    private final int shift;
+    private final ReplacementPolicy policy;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+
+    /**
+     * Creates a table that uses no more than about `memoryBytes` bytes.
+     */
+    public TranspositionTable(long memoryBytes, ReplacementPolicy policy) {
+        long slots = Math.max(MIN_SLOTS, Math.min(MAX_SLOTS, memoryBytes / BYTES_PER_SLOT));
+        int capacity = Integer.highestOneBit((int) slots);
+        int numBuckets = capacity / BUCKET_SIZE;
+        keys = new AtomicLongArray(capacity);
+        meta = new int[capacity];
+        clockHands = new byte[numBuckets];
+        shift = 64 - Integer.numberOfTrailingZeros(numBuckets);
+        this.policy = policy;
+    }
+
+    /**
+     * Finds the bucket for a key, using the top bits of the key multiplied by the golden ratio.
+     */
+    int bucket(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    @Override
+    public boolean add(long key) {
+        return add(key, 0);
+    }
+
+    /**
+     * Adds `key` to the table, found at `depth` (the number of tasks scheduled), which may evict another key.
+     * @return true if the key was not already in the table
+     */
+    @Override
+    public boolean add(long key, int depth) {
+        if (key == 0) {
+            key = ZERO_KEY;
+        }
+        lookups.increment();
+        int bucket = bucket(key);
+        int start = bucket * BUCKET_SIZE;
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            long existing = keys.get(i);
+            if (existing == 0) {
+                if (keys.compareAndSet(i, 0, key)) {
+                    meta[i] = depth << 1;
+                    stored.increment();
+                    return true;
+                }
+                // another thread filled this slot first, so it needs to be checked again
+                existing = keys.get(i);
+            }
+            if (existing == key) {
+                meta[i] |= 1;
+                hits.increment();
+                return false;
+            }
+        }
+
+        int victim = chooseVictim(bucket, start, key, depth);
+        if (victim >= 0) {
+            long old = keys.get(victim);
+            // if another thread changed the slot in the meantime the new key is just not stored
+            if (keys.compareAndSet(victim, old, key)) {
+                meta[victim] = depth << 1;
+                evictions.increment();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the slot in a full bucket to replace with `key`, or -1 if it should not be stored.
+     */
+    private int chooseVictim(int bucket, int start, long key, int depth) {
+        switch (policy) {
+            case DEPTH:
+                int deepest = start;
+                for (int i = start + 1; i < start + BUCKET_SIZE; i++) {
+                    if (meta[i] >>> 1 > meta[deepest] >>> 1) {
+                        deepest = i;
+                    }
+                }
+                return meta[deepest] >>> 1 >= depth ? deepest : -1;
+            case CLOCK:
+                int hand = clockHands[bucket];
+                // every slot is checked at most twice, as the first pass clears all the reference bits
+                for (int step = 0; step < 2 * BUCKET_SIZE; step++) {
+                    int i = start + hand;
+                    hand = (hand + 1) % BUCKET_SIZE;
+                    if ((meta[i] & 1) == 0) {
+                        clockHands[bucket] = (byte) hand;
+                        return i;
+                    }
+                    meta[i] &= ~1;
+                }
+                clockHands[bucket] = (byte) hand;
+                return start + hand;
+            default:
+                return start + (int) (key & (BUCKET_SIZE - 1));
+        }
+    }
+
+    @Override
+    public boolean contains(long key) {
+        if (key == 0) {
+            key = ZERO_KEY;
+        }
+        int start = bucket(key) * BUCKET_SIZE;
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if (keys.get(i) == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return (int) stored.sum();
+    }
+
+    /**
+     * Returns the most keys the table can hold at once.
+     */
+    public int getCapacity() {
+        return keys.length();
+    }
+
+    public ReplacementPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of times {@link #add} has been called.
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Returns the number of times {@link #add} found that a key was already in the table.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of keys that have been replaced by another key.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the fraction of calls to {@link #add} that found their key already in the table, or 0 if there have been
+     * none.
+     */
+    public double getHitRate() {
+        long lookups = getLookups();
+        return lookups == 0 ? 0 : getHits() / (double) lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d lookups, %.1f%% hits, %d evictions (%d slots, %s replacement)",
+                getLookups(), 100 * getHitRate(), getEvictions(), getCapacity(),
+                policy.name().toLowerCase(Locale.ROOT));
+    }
+}
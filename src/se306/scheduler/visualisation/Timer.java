@@ -22,6 +22,7 @@ public class Timer {
     private boolean timing = false;
     private static boolean iVisualised;
 
+    private Algorithm algorithm;
     private BigInteger maxSchedules;
     private BigInteger schedulesRemaining;
 
@@ -33,6 +34,13 @@ public class Timer {
     private Timer() {
     }
 
+    /**
+     * Sets the algorithm whose progress is shown.
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
     public void setMaxSchedules(BigInteger maxSchedules){
         this.maxSchedules = maxSchedules;
     }
@@ -85,7 +93,7 @@ public class Timer {
                 } else {
                     updateTime();
                     if(iVisualised) {
-                        schedulesRemaining = maxSchedules.subtract(Algorithm.getBigSchedulesChecked());
+                        schedulesRemaining = maxSchedules.subtract(algorithm.getSchedulesChecked());
                     }
                 }
             }
@@ -2,14 +2,22 @@ package se306.scheduler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.EnumSet;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import com.martiansoftware.jsap.JSAPResult;
 import com.martiansoftware.jsap.SimpleJSAP;
 
+import se306.scheduler.logic.CompositeCostFunction.Bound;
+import se306.scheduler.output.CsvScheduleWriter;
+import se306.scheduler.output.DotScheduleWriter;
+import se306.scheduler.output.JsonScheduleWriter;
+
 /**
  * This class tests the ability to parse arguments from the command line
  * in {@link ProcessScheduler}
@@ -97,6 +105,81 @@ public class ArgParseTest {
 		assertFalse(result.success());
 	}
 
+	/**
+	 * Test parsing of the duplicate detection options and their memory sizes
+	 */
+	@Test
+	void dedupOptions() {
+		JSAPResult result = jsap.parse("input.dot 5 --dedup-mem 512m --dedup-policy depth");
+		assertTrue(result.success());
+		assertEquals("512m", result.getString("DEDUP_MEM"));
+		assertEquals("depth", result.getString("DEDUP_POLICY"));
+
+		result = jsap.parse("input.dot 5");
+		assertEquals(null, result.getString("DEDUP_MEM"));
+		assertEquals("clock", result.getString("DEDUP_POLICY"));
+		assertEquals("256m", result.getString("DOMINANCE_MEM"));
+
+		result = jsap.parse("input.dot 5 --dominance-mem off");
+		assertEquals("off", result.getString("DOMINANCE_MEM"));
+
+		assertEquals(512L << 20, ProcessScheduler.parseMemorySize("512m"));
+		assertEquals(2L << 30, ProcessScheduler.parseMemorySize("2G"));
+		assertEquals(64 << 10, ProcessScheduler.parseMemorySize("64kb"));
+		assertEquals(1000, ProcessScheduler.parseMemorySize("1000"));
+		assertThrows(IllegalArgumentException.class, () -> ProcessScheduler.parseMemorySize("lots"));
+		assertThrows(IllegalArgumentException.class, () -> ProcessScheduler.parseMemorySize("0m"));
+	}
+
+	/**
+	 * Test parsing of the algorithm option
+	 */
+	@Test
+	void algorithmOption() {
+		JSAPResult result = jsap.parse("input.dot 5 -p 4 --algorithm hda");
+		assertTrue(result.success());
+		assertEquals("hda", result.getString("ALGORITHM"));
+
+		result = jsap.parse("input.dot 5 --algorithm astar");
+		assertEquals("astar", result.getString("ALGORITHM"));
+
+		result = jsap.parse("input.dot 5");
+		assertEquals("bnb", result.getString("ALGORITHM"));
+
+		result = jsap.parse("input.dot 5 --algorithm fast");
+		assertEquals("fast", result.getString("ALGORITHM"));
+	}
+
+	/**
+	 * Test parsing of the bounds option
+	 */
+	@Test
+	void boundsOption() {
+		JSAPResult result = jsap.parse("input.dot 5 --bounds idle-time,data-ready");
+		assertTrue(result.success());
+		assertEquals(EnumSet.of(Bound.IDLE_TIME, Bound.DATA_READY), ProcessScheduler.parseBounds(result.getString("BOUNDS")));
+
+		result = jsap.parse("input.dot 5");
+		assertEquals(EnumSet.allOf(Bound.class), ProcessScheduler.parseBounds(result.getString("BOUNDS")));
+		assertEquals(EnumSet.noneOf(Bound.class), ProcessScheduler.parseBounds("none"));
+		assertThrows(IllegalArgumentException.class, () -> ProcessScheduler.parseBounds("idle-time,guess"));
+	}
+
+	/**
+	 * Test parsing of the output format
+	 */
+	@Test
+	void formatOption() {
+		JSAPResult result = jsap.parse("input.dot 5 --format json");
+		assertTrue(result.success());
+		assertTrue(ProcessScheduler.parseFormat(result.getString("FORMAT")) instanceof JsonScheduleWriter);
+
+		result = jsap.parse("input.dot 5");
+		assertTrue(ProcessScheduler.parseFormat(result.getString("FORMAT")) instanceof DotScheduleWriter);
+		assertTrue(ProcessScheduler.parseFormat("CSV") instanceof CsvScheduleWriter);
+		assertThrows(IllegalArgumentException.class, () -> ProcessScheduler.parseFormat("xml"));
+	}
+
 	/**
 	 * Test parsing of input with multiple flags
 	 */
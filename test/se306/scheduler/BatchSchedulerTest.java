@@ -0,0 +1,163 @@
+package se306.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests finding and running the jobs of a batch with {@link BatchScheduler}
+ */
+public class BatchSchedulerTest {
+
+    private static final String[] GRAPHS = { "test1.dot", "Nodes_7_OutTree.dot", "Nodes_8_Random.dot" };
+
+    private Path dir;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("batch");
+        for (String graph : GRAPHS) {
+            Files.copy(Paths.get("test_data", graph), dir.resolve(graph), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.write(dir.resolve("notes.txt"), Collections.singletonList("not a graph"));
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static List<String> describe(List<BatchScheduler.Entry> entries) {
+        return entries.stream().map(entry -> new File(entry.input).getName() + ":" + entry.numProcessors
+                + (entry.output != null ? ">" + new File(entry.output).getName() : "")).collect(Collectors.toList());
+    }
+
+    @Test
+    void testDirectory() {
+        List<BatchScheduler.Entry> entries = BatchScheduler.findJobs(dir.toString(), Arrays.asList(2, 4));
+        assertEquals(Arrays.asList("Nodes_7_OutTree.dot:2", "Nodes_7_OutTree.dot:4", "Nodes_8_Random.dot:2",
+                "Nodes_8_Random.dot:4", "test1.dot:2", "test1.dot:4"), describe(entries));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchScheduler.findJobs(dir.toString(), Collections.emptyList()));
+    }
+
+    @Test
+    void testGlob() {
+        List<BatchScheduler.Entry> entries = BatchScheduler.findJobs(dir + File.separator + "Nodes_*.dot",
+                Collections.singletonList(3));
+        assertEquals(Arrays.asList("Nodes_7_OutTree.dot:3", "Nodes_8_Random.dot:3"), describe(entries));
+    }
+
+    @Test
+    void testManifest() throws IOException {
+        Path manifest = dir.resolve("jobs.txt");
+        Files.write(manifest, Arrays.asList("# graph, processors and output", "", "test1.dot 2 out.json",
+                "  Nodes_7_OutTree.dot   3,4", "Nodes_8_Random.dot"));
+        List<BatchScheduler.Entry> entries = BatchScheduler.findJobs(manifest.toString(), Collections.singletonList(2));
+        assertEquals(Arrays.asList("test1.dot:2>out.json", "Nodes_7_OutTree.dot:3", "Nodes_7_OutTree.dot:4",
+                "Nodes_8_Random.dot:2"), describe(entries));
+        assertEquals(dir.resolve("test1.dot").toString(), entries.get(0).input);
+
+        // the last line has no number of processors
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchScheduler.findJobs(manifest.toString(), Collections.emptyList()));
+        Files.write(manifest, Collections.singletonList("test1.dot two"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BatchScheduler.findJobs(manifest.toString(), Collections.emptyList()));
+        assertTrue(e.getMessage().contains("line 1"), e.getMessage());
+    }
+
+    @Test
+    void testParseProcessors() {
+        assertEquals(Arrays.asList(2, 4), BatchScheduler.parseProcessors("2, 4"));
+        assertEquals(Collections.emptyList(), BatchScheduler.parseProcessors(null));
+        assertThrows(IllegalArgumentException.class, () -> BatchScheduler.parseProcessors("2,0"));
+    }
+
+    @Test
+    void testDefaultOutput() {
+        assertEquals(new File("graphs", "a-p4-output.dot").getPath(),
+                BatchScheduler.defaultOutput(new File("graphs", "a.dot").getPath(), 4, null, ".dot"));
+        assertEquals(new File("out", "a-p2-output.csv").getPath(),
+                BatchScheduler.defaultOutput("a" + BinaryGraphFile.EXTENSION, 2, "out", ".csv"));
+    }
+
+    /**
+     * Test that the jobs running at once split the duplicate detection and dominance budgets between them
+     */
+    @Test
+    void testMemoryShared() {
+        List<SchedulingJob> jobs = BatchScheduler.createJobs(BatchScheduler.buildParser().parse(new String[] {
+                dir.toString(), "--processors", "2", "-j", "4", "--dedup-mem", "64m", "--dominance-mem", "8m" }));
+        assertEquals(GRAPHS.length, jobs.size());
+        for (SchedulingJob job : jobs) {
+            assertEquals(16L << 20, job.getDedupMemory());
+            assertEquals(2L << 20, job.getDominanceMemory());
+        }
+
+        // no --dedup-mem means no limit, which stays that way
+        jobs = BatchScheduler.createJobs(BatchScheduler.buildParser().parse(new String[] {
+                dir.toString(), "--processors", "2", "-j", "4" }));
+        assertEquals(0, jobs.get(0).getDedupMemory());
+        assertEquals(64L << 20, jobs.get(0).getDominanceMemory());
+    }
+
+    /**
+     * Test that jobs running side by side find the same schedules as they do on their own, and write their outputs
+     */
+    @Test
+    void testRunJobsConcurrently() {
+        List<SchedulingJob> jobs = new ArrayList<>();
+        List<SchedulingJob> alone = new ArrayList<>();
+        for (String graph : GRAPHS) {
+            for (int numProcessors : new int[] { 2, 3 }) {
+                String input = dir.resolve(graph).toString();
+                SchedulingJob job = new SchedulingJob(input, numProcessors);
+                job.setOutput(BatchScheduler.defaultOutput(input, numProcessors, null, ".dot"));
+                jobs.add(job);
+                SchedulingJob single = new SchedulingJob(input, numProcessors);
+                single.setOutput(dir.resolve("single.dot").toString());
+                single.run();
+                alone.add(single);
+            }
+        }
+        assertEquals(0, BatchScheduler.runJobs(jobs, 3));
+        for (int i = 0; i < jobs.size(); i++) {
+            assertNull(jobs.get(i).getError());
+            assertEquals(alone.get(i).getResult().getMakespan(), jobs.get(i).getResult().getMakespan());
+            assertTrue(new File(BatchScheduler.defaultOutput(jobs.get(i).getInput(), jobs.get(i).getNumProcessors(),
+                    null, ".dot")).isFile());
+        }
+        assertEquals(28, jobs.get(2).getResult().getMakespan());
+    }
+
+    @Test
+    void testFailedJob() {
+        SchedulingJob missing = new SchedulingJob(dir.resolve("missing.dot").toString(), 2);
+        SchedulingJob invalid = new SchedulingJob(dir.resolve("notes.txt").toString(), 2);
+        SchedulingJob valid = new SchedulingJob(dir.resolve("test1.dot").toString(), 2);
+        assertEquals(1, BatchScheduler.runJobs(Arrays.asList(missing, invalid, valid), 2));
+        assertEquals("File not found", missing.getError());
+        assertNotNull(invalid.getError());
+        assertNull(valid.getError());
+        assertTrue(dir.resolve("test1-output.dot").toFile().isFile());
+    }
+}
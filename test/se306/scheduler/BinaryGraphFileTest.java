@@ -0,0 +1,150 @@
+package se306.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.Node;
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.logic.Algorithm;
+import se306.scheduler.logic.AlgorithmListener;
+import se306.scheduler.logic.BNBAlgorithmInPlace;
+import se306.scheduler.logic.Scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests saving graphs with {@link BinaryGraphFile} and loading them again
+ */
+public class BinaryGraphFileTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("binary-graph");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Schedules `fileName` on `numProcessors` and returns the output DOT file
+     */
+    private String schedule(String fileName, int numProcessors, String outFile) throws Exception {
+        Algorithm algorithm = new BNBAlgorithmInPlace(numProcessors);
+        Scheduler scheduler = new Scheduler(algorithm);
+        DotFile dot = new DotFile(fileName);
+        dot.read(scheduler);
+
+        CompletableFuture<PartialSchedule> outputSchedule = new CompletableFuture<>();
+        algorithm.addListener(new AlgorithmListener() {
+
+            @Override
+            public void algorithmCompleted(PartialSchedule schedule) {
+                outputSchedule.complete(schedule);
+            }
+
+            @Override
+            public void newOptimalFound(PartialSchedule schedule) {
+
+            }
+        });
+        scheduler.start();
+        dot.write(outFile, outputSchedule.join());
+        return new String(Files.readAllBytes(Path.of(outFile)));
+    }
+
+    /**
+     * Converts a DOT file to a binary graph in the temporary directory, keeping its name
+     */
+    private String convert(String fileName) throws Exception {
+        String name = new File(fileName).getName();
+        String binaryFile = dir.resolve(name.substring(0, name.length() - 4) + BinaryGraphFile.EXTENSION).toString();
+        DotFile dot = new DotFile(fileName);
+        dot.read(new Scheduler(null));
+        dot.writeBinary(binaryFile);
+        return binaryFile;
+    }
+
+    /**
+     * Test that schedules of a binary graph are the same as those of the DOT file it was saved from, including the
+     * order of the output
+     */
+    @Test
+    void testRoundTripSchedules() throws Exception {
+        String[] graphs = { "test_data/test1.dot", "test_data/Nodes_7_OutTree.dot", "test_data/Nodes_8_Random.dot",
+                "test_data/Nodes_9_SeriesParallel.dot", "test_data/Nodes_10_Random.dot" };
+        for (String graph : graphs) {
+            String binaryFile = convert(graph);
+            for (int numProcessors : new int[] { 2, 4 }) {
+                String fromDot = schedule(graph, numProcessors, dir.resolve("dot-output.dot").toString());
+                String fromBinary = schedule(binaryFile, numProcessors, dir.resolve("binary-output.dot").toString());
+                assertEquals(fromDot, fromBinary, graph + " on " + numProcessors + " processors");
+            }
+        }
+    }
+
+    /**
+     * Test that the loaded graph has the same tasks and dependencies, and that saving it again gives the same file
+     */
+    @Test
+    void testLoadGraph() throws Exception {
+        String binaryFile = convert("test_data/test1.dot");
+        BinaryGraphFile graph = BinaryGraphFile.read(Path.of(binaryFile));
+
+        List<Node> nodes = graph.getNodes();
+        assertEquals(4, nodes.size());
+        assertEquals("a", nodes.get(0).getName());
+        assertEquals(2, nodes.get(0).getWeight());
+        assertEquals(0, nodes.get(0).getIncomingEdges().size());
+        assertEquals(2, nodes.get(3).getIncomingEdges().size());
+        assertEquals(2, (int) nodes.get(3).getIncomingEdges().get(nodes.get(1)));
+        assertEquals(8, graph.getNumStatements());
+        assertEquals(-1, graph.getStatementParent(0));
+
+        DotFile dot = new DotFile(binaryFile);
+        dot.read(new Scheduler(null));
+        String copy = dir.resolve("copy" + BinaryGraphFile.EXTENSION).toString();
+        dot.writeBinary(copy);
+        assertArrayEquals(Files.readAllBytes(Path.of(binaryFile)), Files.readAllBytes(Path.of(copy)));
+    }
+
+    /**
+     * Test that files which are not binary graphs, are from another version of the format, or are cut short are
+     * rejected
+     */
+    @Test
+    void testInvalidFiles() throws Exception {
+        byte[] valid = Files.readAllBytes(Path.of(convert("test_data/test1.dot")));
+        Path file = dir.resolve("invalid" + BinaryGraphFile.EXTENSION);
+
+        Files.write(file, Files.readAllBytes(Path.of("test_data/test1.dot")));
+        assertThrows(InvalidFileFormatException.class, () -> BinaryGraphFile.read(file));
+
+        byte[] newerVersion = valid.clone();
+        ByteBuffer.wrap(newerVersion).putInt(4, BinaryGraphFile.VERSION + 1);
+        Files.write(file, newerVersion);
+        InvalidFileFormatException e = assertThrows(InvalidFileFormatException.class,
+                () -> new DotFile(file.toString()).read(new Scheduler(null)));
+        assertTrue(e.getMessage().contains("version " + (BinaryGraphFile.VERSION + 1)), e.getMessage());
+
+        Files.write(file, Arrays.copyOf(valid, valid.length - 1));
+        assertThrows(InvalidFileFormatException.class, () -> BinaryGraphFile.read(file));
+    }
+}
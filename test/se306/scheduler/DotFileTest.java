@@ -14,7 +14,10 @@ import se306.scheduler.logic.SequentialAlgorithm;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -147,6 +150,48 @@ public class DotFileTest {
         }
     }
 
+    /**
+     * Test that a schedule that may not be optimal is written with its lower bound and gap, and that the output can
+     * still be read as a graph
+     */
+    @Test
+    void testWriteLowerBound() throws IOException, InvalidFileFormatException {
+        Algorithm algorithm = new SequentialAlgorithm();
+        scheduler = new Scheduler(algorithm);
+        dot = new DotFile("test_data/test1.dot");
+        dot.read(scheduler);
+
+        CompletableFuture<PartialSchedule> outputSchedule = new CompletableFuture<>();
+        algorithm.addListener(new AlgorithmListener() {
+
+            @Override
+            public void algorithmCompleted(PartialSchedule schedule) {
+                outputSchedule.complete(schedule);
+            }
+
+            @Override
+            public void newOptimalFound(PartialSchedule schedule) {
+
+            }
+        });
+        scheduler.start();
+        PartialSchedule schedule = outputSchedule.join();
+
+        File outFile = new File("test_data/test1_out_gap.dot");
+        try {
+            dot.write(outFile.getPath(), schedule, schedule.getMakespan() - 2);
+            String content = new String(Files.readAllBytes(outFile.toPath()), StandardCharsets.UTF_8);
+            assertTrue(content.contains("\tLowerBound=" + (schedule.getMakespan() - 2) + ";"));
+            assertTrue(content.contains(String.format(Locale.ROOT, "\tGap=%.4f;", 2.0 / schedule.getMakespan())));
+
+            Scheduler reread = new Scheduler(new SequentialAlgorithm());
+            new DotFile(outFile.getPath()).read(reread);
+            assertEquals(4, reread.getNodes().size());
+        } finally {
+            outFile.delete();
+        }
+    }
+
     @Test
     void invalidFileFormat() {
         try {
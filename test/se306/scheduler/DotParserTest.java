@@ -0,0 +1,142 @@
+package se306.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import se306.scheduler.exception.InvalidFileFormatException;
+
+/**
+ * This class tests {@link DotParser}
+ */
+class DotParserTest {
+
+    /**
+     * Test that the statements in a graph are read regardless of how they are laid out, and that quoted names,
+     * comments, edge chains and default attributes are understood
+     */
+    @Test
+    void testGeneralSyntax() throws IOException, InvalidFileFormatException {
+        String dot = "/* a comment */ strict digraph example {\n"
+                + "  graph [label=\"tasks\",\n    rankdir=LR\n  ]\n"
+                + "  node [Weight=2] edge [Weight=1]\n"
+                + "  a; \"task b\" [Weight=3]; c [ Weight = 4 ]\n"
+                + "  // a line comment\n"
+                + "  # another\n"
+                + "  a -> \"task b\" -> c [Weight=5]; a->c\n"
+                + "  subgraph s { d [\"Weight\"=\"6\"] } c -> d\n"
+                + "  count=4\n"
+                + "}\n";
+        assertEquals("task a 2, task task b 3, task c 4, dependency a task b 5, dependency task b c 5, "
+                + "dependency a c 1, task d 6, dependency c d 1", parse(Channels.newChannel(
+                        new ByteArrayInputStream(dot.getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    /**
+     * Test that the multi-line graph attributes at the top of the test graphs are skipped, and every task and
+     * dependency is read
+     */
+    @Test
+    void testGraphAttributes() throws IOException, InvalidFileFormatException {
+        try (FileInputStream in = new FileInputStream("test_data/Nodes_10_Random.dot")) {
+            String result = parse(in.getChannel());
+            // the file's own attributes say it has 10 nodes and 19 edges
+            assertEquals(10, result.split("task ").length - 1);
+            assertEquals(19, result.split("dependency ").length - 1);
+            assertTrue(result.startsWith("task 0 6, task 3 10, dependency 0 3 34, "));
+        }
+    }
+
+    /**
+     * Test that tokens split across separate reads from the channel are put back together
+     */
+    @Test
+    void testSmallReads() throws IOException, InvalidFileFormatException {
+        StringBuilder dot = new StringBuilder("digraph \"long\" {\n");
+        for (int i = 0; i < 2000; i++) {
+            dot.append("\ttask_with_a_long_name_").append(i).append("\t[Weight=").append(100_000 + i).append("];\n");
+        }
+        dot.append("\ttask_with_a_long_name_0 -> task_with_a_long_name_1999\t[Weight=12345];\n}\n");
+        byte[] bytes = dot.toString().getBytes(StandardCharsets.UTF_8);
+
+        String whole = parse(Channels.newChannel(new ByteArrayInputStream(bytes)));
+        String pieces = parse(new ReadableByteChannel() {
+            private int position = 0;
+
+            @Override
+            public int read(ByteBuffer dst) {
+                if (position == bytes.length) {
+                    return -1;
+                }
+                int length = Math.min(Math.min(7, dst.remaining()), bytes.length - position);
+                dst.put(bytes, position, length);
+                position += length;
+                return length;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        assertEquals(whole, pieces);
+        assertTrue(whole.endsWith("dependency task_with_a_long_name_0 task_with_a_long_name_1999 12345"));
+    }
+
+    /**
+     * Test that invalid graphs are rejected, with the line the problem is on
+     */
+    @Test
+    void testErrors() {
+        InvalidFileFormatException e = assertThrows(InvalidFileFormatException.class,
+                () -> parse(channel("digraph g {\n a [Weight=1]\n a -> b\n}")));
+        assertEquals("line 3: task 'b' is used before it is declared", e.getMessage());
+
+        e = assertThrows(InvalidFileFormatException.class, () -> parse(channel("digraph g {\n a [Weight=1.5]\n}")));
+        assertEquals("line 2: weights must be whole numbers", e.getMessage());
+
+        assertThrows(InvalidFileFormatException.class, () -> parse(channel("digraph g {\n a [Weight=1]\n")));
+        assertThrows(InvalidFileFormatException.class, () -> parse(channel("digraph g { a [Weight=1 }")));
+        assertThrows(InvalidFileFormatException.class, () -> parse(channel("a [Weight=1]")));
+    }
+
+    private static ReadableByteChannel channel(String dot) {
+        return Channels.newChannel(new ByteArrayInputStream(dot.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Parses a graph, returning every task and dependency in the order they were read
+     */
+    private static String parse(ReadableByteChannel channel) throws IOException, InvalidFileFormatException {
+        List<String> statements = new ArrayList<>();
+        new DotParser(channel).parse(new DotParser.Listener() {
+
+            @Override
+            public void task(String name, int weight) {
+                statements.add("task " + name + " " + weight);
+            }
+
+            @Override
+            public void dependency(String parent, String child, int weight) {
+                statements.add("dependency " + parent + " " + child + " " + weight);
+            }
+        });
+        return String.join(", ", statements);
+    }
+}
@@ -0,0 +1,199 @@
+package se306.scheduler.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se306.scheduler.SchedulingJob;
+import se306.scheduler.graph.Node;
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests storing optimal schedules in a {@link ResultCache} and reading them back
+ */
+public class ResultCacheTest {
+
+    private Path dir;
+    private ResultCache cache;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("result-cache");
+        cache = new ResultCache(dir.resolve("cache"), 1 << 20);
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Returns a graph of a task "a" with weight `weight`, and "b" and "c" which depend on it
+     */
+    private static List<Node> graph(String prefix, int weight) {
+        Node a = new Node(prefix + "a", weight);
+        Node b = new Node(prefix + "b", 3);
+        Node c = new Node(prefix + "c", 2);
+        b.addParent(a, 4);
+        c.addParent(a, 1);
+        return Arrays.asList(a, b, c);
+    }
+
+    private static PartialSchedule optimal(List<Node> nodes) {
+        PartialSchedule schedule = new PartialSchedule(nodes, 2);
+        schedule.scheduleTask(0, 1, 0);
+        schedule.scheduleTask(1, 1, nodes.get(0).getWeight());
+        schedule.scheduleTask(2, 2, nodes.get(0).getWeight() + 1);
+        return schedule;
+    }
+
+    private Path entry(PartialSchedule schedule) {
+        return cache.getDirectory().resolve(ResultCache.key(schedule.getGraph(), schedule.getNumProcessors())
+                + ResultCache.EXTENSION);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        assertNull(cache.get(TaskGraph.compile(graph("", 2)), 2));
+
+        PartialSchedule schedule = optimal(graph("", 2));
+        cache.put(schedule, "BNBAlgorithmInPlace", 1234);
+
+        // task names are not part of the key
+        ResultCache.CachedSchedule cached = cache.get(TaskGraph.compile(graph("renamed-", 2)), 2);
+        assertNotNull(cached);
+        assertEquals("BNBAlgorithmInPlace", cached.getProof());
+        assertEquals(1234, cached.getSearchMillis());
+        assertEquals(schedule.getMakespan(), cached.getSchedule().getMakespan());
+        for (int task = 0; task < 3; task++) {
+            assertEquals(schedule.getStartTime(task), cached.getSchedule().getStartTime(task));
+            assertEquals(schedule.getProcessor(task), cached.getSchedule().getProcessor(task));
+        }
+
+        assertNull(cache.get(TaskGraph.compile(graph("", 2)), 3));
+        assertNull(cache.get(TaskGraph.compile(graph("", 5)), 2));
+    }
+
+    @Test
+    void testKey() {
+        String key = ResultCache.key(TaskGraph.compile(graph("", 2)), 2);
+        assertEquals(64, key.length());
+        assertEquals(key, ResultCache.key(TaskGraph.compile(graph("x", 2)), 2));
+        assertNotEquals(key, ResultCache.key(TaskGraph.compile(graph("", 2)), 4));
+        assertNotEquals(key, ResultCache.key(TaskGraph.compile(graph("", 7)), 2));
+
+        Node a = new Node("a", 2);
+        Node b = new Node("b", 3);
+        Node c = new Node("c", 2);
+        b.addParent(a, 3);
+        c.addParent(a, 1);
+        assertNotEquals(key, ResultCache.key(TaskGraph.compile(Arrays.asList(a, b, c)), 2));
+    }
+
+    /**
+     * Test that the same graph with its tasks declared in another order has the same key, and gets the cached schedule
+     * with each task where it was
+     */
+    @Test
+    void testDeclarationOrder() throws IOException {
+        List<Node> nodes = graph("", 2);
+        PartialSchedule schedule = optimal(nodes);
+        cache.put(schedule, "BNBAlgorithmInPlace", 0);
+
+        List<Node> reordered = graph("", 2);
+        TaskGraph graph = TaskGraph.compile(Arrays.asList(reordered.get(2), reordered.get(0), reordered.get(1)));
+        assertEquals(ResultCache.key(schedule.getGraph(), 2), ResultCache.key(graph, 2));
+
+        ResultCache.CachedSchedule cached = cache.get(graph, 2);
+        assertNotNull(cached);
+        for (int task = 0; task < 3; task++) {
+            int original = Arrays.asList("a", "b", "c").indexOf(graph.getNodes().get(task).getName());
+            assertEquals(schedule.getStartTime(original), cached.getSchedule().getStartTime(task));
+            assertEquals(schedule.getProcessor(original), cached.getSchedule().getProcessor(task));
+        }
+    }
+
+    /**
+     * Test that files which are not a valid schedule of the graph are treated as missing
+     */
+    @Test
+    void testInvalidEntries() throws IOException {
+        PartialSchedule schedule = optimal(graph("", 2));
+        cache.put(schedule, "BNBAlgorithmInPlace", 0);
+        Path file = entry(schedule);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertNull(cache.get(schedule.getGraph(), 2));
+
+        // b starts on another processor before the data from a can arrive
+        PartialSchedule tooEarly = new PartialSchedule(graph("", 2), 2);
+        tooEarly.scheduleTask(0, 1, 0);
+        tooEarly.scheduleTask(2, 1, 2);
+        tooEarly.scheduleTask(1, 2, 2);
+        cache.put(tooEarly, "BNBAlgorithmInPlace", 0);
+        assertNull(cache.get(tooEarly.getGraph(), 2));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEvicted() throws IOException {
+        PartialSchedule first = optimal(graph("", 1));
+        PartialSchedule second = optimal(graph("", 2));
+        PartialSchedule third = optimal(graph("", 3));
+        cache.put(first, "BNBAlgorithmInPlace", 0);
+        long entrySize = Files.size(entry(first));
+        cache = new ResultCache(cache.getDirectory(), 2 * entrySize + entrySize / 2);
+
+        cache.put(second, "BNBAlgorithmInPlace", 0);
+        Files.setLastModifiedTime(entry(first), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(entry(second), FileTime.fromMillis(2000));
+        // reading the first schedule makes the second the least recently used
+        assertNotNull(cache.get(first.getGraph(), 2));
+        cache.put(third, "BNBAlgorithmInPlace", 0);
+
+        assertTrue(Files.isRegularFile(entry(first)));
+        assertFalse(Files.isRegularFile(entry(second)));
+        assertTrue(Files.isRegularFile(entry(third)));
+    }
+
+    /**
+     * Test that a job scheduling a graph it has already solved writes the same output without searching
+     */
+    @Test
+    void testJobCacheHit() throws IOException {
+        Path firstOutput = dir.resolve("first.dot");
+        Path secondOutput = dir.resolve("second.dot");
+
+        SchedulingJob first = new SchedulingJob("test_data/Nodes_7_OutTree.dot", 2);
+        first.setOutput(firstOutput.toString());
+        first.setCache(cache);
+        first.run();
+        assertNull(first.getError());
+        assertFalse(first.isCacheHit());
+
+        SchedulingJob second = new SchedulingJob("test_data/Nodes_7_OutTree.dot", 2);
+        second.setOutput(secondOutput.toString());
+        second.setCache(cache);
+        second.run();
+        assertNull(second.getError());
+        assertTrue(second.isCacheHit());
+        assertEquals(28, second.getResult().getMakespan());
+        assertEquals(28, second.getLowerBound());
+        assertEquals(BigInteger.ZERO, second.getAlgorithm().getSchedulesChecked());
+        assertArrayEquals(Files.readAllBytes(firstOutput), Files.readAllBytes(secondOutput));
+    }
+}
@@ -35,4 +35,19 @@ class NodeClassTest {
         assertEquals(new Integer(1), nodeB.getIncomingEdges().get(nodeA),
                 "The edge weight between Node A and Node B should be 1");
     }
+
+    /**
+     * Test case to check that adding the same edge twice updates its weight rather than adding the child twice
+     */
+    @Test
+    void testRepeatedEdge() {
+        Node nodeA = new Node("a", 2);
+        Node nodeB = new Node("b", 3);
+        nodeB.addParent(nodeA, 1);
+        nodeB.addParent(nodeA, 4);
+
+        assertEquals(1, nodeA.getChildren().size(), "Node A should only have Node B as a child once");
+        assertEquals(4, (int) nodeB.getIncomingEdges().get(nodeA),
+                "The edge weight between Node A and Node B should be updated to 4");
+    }
 }
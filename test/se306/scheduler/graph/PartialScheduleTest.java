@@ -0,0 +1,232 @@
+package se306.scheduler.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class tests various methods within {@link PartialSchedule}
+ */
+class PartialScheduleTest {
+
+    private Node nodeA;
+    private Node nodeB;
+    private Node nodeC;
+    private Node nodeD;
+    private List<Node> graph;
+
+    /**
+     * Initialise graph structure before each test case
+     *
+     *        A(2)
+     *      1/   \2
+     *     B(3)  C(3)
+     *      2\   /1
+     *        D(2)
+     */
+    @BeforeEach
+    void graphSetup() {
+        nodeA = new Node("a", 2);
+        nodeB = new Node("b", 3);
+        nodeC = new Node("c", 3);
+        nodeD = new Node("d", 2);
+        nodeB.addParent(nodeA, 1);
+        nodeC.addParent(nodeA, 2);
+        nodeD.addParent(nodeB, 2);
+        nodeD.addParent(nodeC, 1);
+        graph = Arrays.asList(nodeA, nodeB, nodeC, nodeD);
+    }
+
+    /**
+     * Test that each node is given its index in the graph as its id
+     */
+    @Test
+    void testDenseIds() {
+        new PartialSchedule(graph, 2);
+
+        for (int i = 0; i < graph.size(); i++) {
+            assertEquals(i, graph.get(i).getId(), "Node ids should match their index in the graph");
+        }
+    }
+
+    /**
+     * Test that scheduling tasks records their start times and processors, and updates what can be scheduled next
+     */
+    @Test
+    void testScheduleTask() {
+        PartialSchedule schedule = new PartialSchedule(graph, 2);
+        assertFalse(schedule.dependenciesSatisfied(nodeB), "Node B should not be ready before Node A is scheduled");
+
+        assertTrue(schedule.scheduleTask(nodeA, 1, 0), "Node A should be the first task on processor 1");
+        assertTrue(schedule.dependenciesSatisfied(nodeB), "Node B should be ready after Node A is scheduled");
+        assertEquals(2, schedule.findBestStartTime(nodeB, 1), "Node B should start as soon as Node A finishes");
+        assertEquals(3, schedule.findBestStartTime(nodeB, 2), "Node B should wait for the edge cost on processor 2");
+
+        assertFalse(schedule.scheduleTask(nodeB, 1, 2), "Node B should not be the first task on processor 1");
+        assertEquals(0, schedule.getStartTime(nodeA));
+        assertEquals(2, schedule.getStartTime(nodeB));
+        assertEquals(1, schedule.getProcessor(nodeB));
+        assertEquals(-1, schedule.getStartTime(nodeC), "Unscheduled tasks should not have a start time");
+        assertEquals(5, schedule.getMakespan());
+        assertEquals(Arrays.asList(nodeA, nodeB), schedule.getVisited());
+        assertEquals(Arrays.asList(nodeC, nodeD), schedule.getUnvisitedNodes());
+        assertTrue(schedule.isProcessorEmpty(2));
+    }
+
+    /**
+     * Test that the ready set only contains unscheduled tasks whose parents have all been scheduled, and is restored
+     * when tasks are unscheduled
+     */
+    @Test
+    void testReadyTasks() {
+        PartialSchedule schedule = new PartialSchedule(graph, 2);
+        schedule.enableUndo();
+        assertEquals(0, schedule.nextReadyTask(0), "Only Node A should be ready");
+        assertEquals(-1, schedule.nextReadyTask(1));
+        assertEquals(1, schedule.getNumReady());
+
+        schedule.scheduleTask(nodeA, 1, 0);
+        assertEquals(1, schedule.nextReadyTask(0), "Node B should be ready");
+        assertEquals(2, schedule.nextReadyTask(2), "Node C should be ready");
+        assertEquals(2, schedule.getNumReady());
+
+        schedule.scheduleTask(nodeB, 1, 2);
+        assertFalse(schedule.dependenciesSatisfied(nodeD), "Node D should still be waiting for Node C");
+        schedule.scheduleTask(nodeC, 2, 4);
+        assertEquals(3, schedule.nextReadyTask(0), "Only Node D should be ready");
+        assertEquals(1, schedule.getNumReady());
+
+        schedule.unscheduleTask();
+        schedule.unscheduleTask();
+        assertEquals(1, schedule.nextReadyTask(0));
+        assertEquals(2, schedule.nextReadyTask(2));
+        assertEquals(-1, schedule.nextReadyTask(3));
+        assertEquals(2, schedule.getNumReady());
+    }
+
+    /**
+     * Test that the makespan and processor finish times are kept up to date as tasks are scheduled
+     */
+    @Test
+    void testFinishTimesTracked() {
+        PartialSchedule schedule = new PartialSchedule(graph, 2);
+        assertEquals(0, schedule.getMakespan(), "An empty schedule should have a makespan of 0");
+
+        schedule.scheduleTask(nodeA, 1, 0);
+        schedule.scheduleTask(nodeC, 2, schedule.findBestStartTime(nodeC, 2));
+        assertEquals(2, schedule.getProcessorFinishTime(1));
+        assertEquals(7, schedule.getProcessorFinishTime(2));
+        assertEquals(7, schedule.getMakespan());
+
+        schedule.scheduleTask(nodeB, 1, schedule.findBestStartTime(nodeB, 1));
+        assertEquals(5, schedule.getProcessorFinishTime(1));
+        assertEquals(7, schedule.getMakespan(), "The makespan should not decrease");
+        assertEquals(8, schedule.findBestStartTime(nodeD, 1), "Node D should wait for Node C's data on processor 1");
+        assertEquals(7, schedule.findBestStartTime(nodeD, 2), "Node D should wait for Node B's data on processor 2");
+    }
+
+    /**
+     * Test that unscheduling tasks returns the schedule to exactly how it was before they were scheduled
+     */
+    @Test
+    void testUnscheduleTask() {
+        PartialSchedule schedule = new PartialSchedule(graph, 2);
+        assertThrows(IllegalStateException.class, schedule::unscheduleTask);
+        schedule.scheduleTask(nodeA, 1, 0);
+        schedule.enableUndo();
+        long fingerprint = schedule.getFingerprint();
+
+        assertTrue(schedule.scheduleTask(nodeC, 2, 4));
+        schedule.scheduleTask(nodeB, 1, 2);
+        schedule.unscheduleTask();
+        schedule.unscheduleTask();
+
+        assertEquals(fingerprint, schedule.getFingerprint());
+        assertEquals(2, schedule.getMakespan());
+        assertEquals(2, schedule.getProcessorFinishTime(1));
+        assertEquals(0, schedule.getProcessorFinishTime(2));
+        assertTrue(schedule.isProcessorEmpty(2), "Processor 2 should be empty again");
+        assertFalse(schedule.isVisited(nodeC));
+        assertEquals(-1, schedule.getStartTime(nodeC));
+        assertEquals(Arrays.asList(nodeB, nodeC, nodeD), schedule.getUnvisitedNodes());
+
+        // a copy does not keep the undo log, and cannot undo tasks that were scheduled before undo was enabled
+        PartialSchedule copy = new PartialSchedule(schedule);
+        copy.scheduleTask(nodeC, 2, 4);
+        assertThrows(IllegalStateException.class, copy::unscheduleTask);
+        copy.enableUndo();
+        assertThrows(IllegalStateException.class, copy::unscheduleTask);
+    }
+
+    /**
+     * Test that copying a schedule does not let changes to the copy affect the original
+     */
+    @Test
+    void testCopyIsIndependent() {
+        PartialSchedule schedule = new PartialSchedule(graph, 2);
+        schedule.scheduleTask(nodeA, 1, 0);
+
+        PartialSchedule copy = new PartialSchedule(schedule);
+        copy.scheduleTask(nodeC, 2, 4);
+
+        assertFalse(schedule.isVisited(nodeC), "The original schedule should not have Node C scheduled");
+        assertTrue(schedule.isProcessorEmpty(2));
+        assertEquals(2, schedule.getMakespan());
+        assertEquals(7, copy.getMakespan());
+    }
+
+    /**
+     * Test that schedules with the same tasks on swapped processors are given the same fingerprint
+     */
+    @Test
+    void testFingerprintIgnoresProcessorOrder() {
+        PartialSchedule first = new PartialSchedule(graph, 2);
+        first.scheduleTask(nodeA, 1, 0);
+        first.scheduleTask(nodeB, 1, 2);
+        first.scheduleTask(nodeC, 2, 4);
+
+        PartialSchedule second = new PartialSchedule(graph, 2);
+        second.scheduleTask(nodeA, 2, 0);
+        second.scheduleTask(nodeC, 1, 4);
+        second.scheduleTask(nodeB, 2, 2);
+
+        assertEquals(first.getFingerprint(), second.getFingerprint());
+    }
+
+    /**
+     * Test that schedules with different tasks on each processor are given different fingerprints, even when joining
+     * the task names would give the same string
+     */
+    @Test
+    void testFingerprintSeparatesTasks() {
+        Node node1 = new Node("1", 1);
+        Node node10 = new Node("10", 1);
+        Node node11 = new Node("11", 1);
+        Node node0 = new Node("0", 1);
+        List<Node> names = Arrays.asList(node1, node10, node11, node0);
+
+        PartialSchedule first = new PartialSchedule(names, 2);
+        first.scheduleTask(node1, 1, 0);
+        first.scheduleTask(node10, 1, 1);
+        first.scheduleTask(node11, 2, 0);
+        first.scheduleTask(node0, 2, 1);
+
+        PartialSchedule second = new PartialSchedule(names, 2);
+        second.scheduleTask(node11, 1, 0);
+        second.scheduleTask(node0, 1, 1);
+        second.scheduleTask(node1, 2, 0);
+        second.scheduleTask(node10, 2, 1);
+
+        PartialSchedule third = new PartialSchedule(names, 2);
+        third.scheduleTask(node1, 1, 0);
+        third.scheduleTask(node0, 1, 1);
+        third.scheduleTask(node11, 2, 0);
+        third.scheduleTask(node10, 2, 1);
+
+        assertEquals(first.getFingerprint(), second.getFingerprint(), "Swapping processors should not matter");
+        assertNotEquals(first.getFingerprint(), third.getFingerprint(), "Different groupings should not collide");
+    }
+}
@@ -0,0 +1,193 @@
+package se306.scheduler.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class tests that {@link TaskGraph} compiles a graph of nodes correctly
+ */
+class TaskGraphTest {
+
+    private Node nodeA;
+    private Node nodeB;
+    private Node nodeC;
+    private Node nodeD;
+    private TaskGraph graph;
+
+    /**
+     * Initialise graph structure before each test case
+     *
+     *        A(2)
+     *      1/   \2
+     *     B(3)  C(4)
+     *      2\   /1
+     *        D(5)
+     *
+     * Node D is listed first, so ids do not follow the order of the edges
+     */
+    @BeforeEach
+    void graphSetup() {
+        nodeA = new Node("a", 2);
+        nodeB = new Node("b", 3);
+        nodeC = new Node("c", 4);
+        nodeD = new Node("d", 5);
+        nodeB.addParent(nodeA, 1);
+        nodeC.addParent(nodeA, 2);
+        nodeD.addParent(nodeC, 1);
+        nodeD.addParent(nodeB, 2);
+        graph = TaskGraph.compile(Arrays.asList(nodeD, nodeA, nodeB, nodeC));
+    }
+
+    /**
+     * Test that each node is given its index in the list as its id, with its weight stored against that id
+     */
+    @Test
+    void testIdsAndWeights() {
+        assertEquals(4, graph.size());
+        assertEquals(0, nodeD.getId());
+        assertEquals(1, nodeA.getId());
+        assertSame(nodeC, graph.getNode(3));
+        assertEquals(5, graph.getWeight(0));
+        assertEquals(2, graph.getWeight(1));
+    }
+
+    /**
+     * Test that tasks can be found by name
+     */
+    @Test
+    void testNameLookup() {
+        assertEquals(2, graph.getTaskId("b"));
+        assertSame(nodeC, graph.getNode("c"));
+        assertEquals(-1, graph.getTaskId("z"), "There is no task called z");
+        assertNull(graph.getNode("z"));
+    }
+
+    /**
+     * Test that each task's parents are listed in id order along with the cost of each edge
+     */
+    @Test
+    void testParents() {
+        assertEquals(0, graph.getNumParents(1), "Node A should have no parents");
+        assertEquals(2, graph.getNumParents(0), "Node D should have two parents");
+
+        int edge = graph.getParentsStart(0);
+        assertEquals(graph.getParentsEnd(0), edge + 2);
+        assertEquals(2, graph.getParent(edge), "Node B has the lower id so should be first");
+        assertEquals(2, graph.getParentCost(edge));
+        assertEquals(3, graph.getParent(edge + 1));
+        assertEquals(1, graph.getParentCost(edge + 1));
+    }
+
+    /**
+     * Test that each task's children are the same edges as its children's parents
+     */
+    @Test
+    void testChildren() {
+        assertEquals(0, graph.getNumChildren(0), "Node D should have no children");
+        assertEquals(2, graph.getNumChildren(1), "Node A should have two children");
+
+        int edge = graph.getChildrenStart(1);
+        assertEquals(2, graph.getChild(edge));
+        assertEquals(1, graph.getChildCost(edge));
+        assertEquals(3, graph.getChild(edge + 1));
+        assertEquals(2, graph.getChildCost(edge + 1));
+
+        edge = graph.getChildrenStart(3);
+        assertEquals(graph.getChildrenEnd(3), edge + 1);
+        assertEquals(0, graph.getChild(edge), "Node C's only child should be Node D");
+        assertEquals(1, graph.getChildCost(edge));
+    }
+
+    /**
+     * Test that the top and bottom levels of each task are the longest paths before and after it, both with and without
+     * edge costs
+     */
+    @Test
+    void testLevels() {
+        assertEquals(0, graph.getTopLevel(1), "Node A starts the graph");
+        assertEquals(6, graph.getTopLevel(0), "Node D can start after Node A and Node C");
+        assertEquals(9, graph.getTopLevelWithCommunication(0), "Node D can start after A, C and both their edges");
+        assertEquals(11, graph.getBottomLevel(1));
+        assertEquals(14, graph.getBottomLevelWithCommunication(1));
+        assertEquals(5, graph.getBottomLevel(0), "Node D ends the graph");
+        assertEquals(9, graph.getBottomLevel(3));
+    }
+
+    /**
+     * Test that tasks with the same weight, parents and children (with the same edge costs) are linked as equivalent,
+     * and tasks that differ in any of these are not
+     */
+    @Test
+    void testEquivalentTasks() {
+        Node root = new Node("r", 1);
+        Node first = new Node("x1", 2);
+        Node second = new Node("x2", 2);
+        Node third = new Node("x3", 2);
+        Node heavier = new Node("y", 3);
+        Node otherCost = new Node("z", 2);
+        for (Node node : Arrays.asList(first, second, third, heavier)) {
+            node.addParent(root, 4);
+        }
+        otherCost.addParent(root, 5);
+        TaskGraph equivalent = TaskGraph.compile(Arrays.asList(root, first, heavier, second, otherCost, third));
+
+        assertEquals(-1, equivalent.getPreviousEquivalentTask(0));
+        assertEquals(-1, equivalent.getPreviousEquivalentTask(1), "x1 is the first of its group");
+        assertEquals(1, equivalent.getPreviousEquivalentTask(3));
+        assertEquals(3, equivalent.getPreviousEquivalentTask(5));
+        assertEquals(-1, equivalent.getPreviousEquivalentTask(2), "y has a different weight");
+        assertEquals(-1, equivalent.getPreviousEquivalentTask(4), "z has a different edge cost");
+
+        assertEquals(-1, graph.getPreviousEquivalentTask(3), "B and C have different weights");
+    }
+
+    /**
+     * Test that the critical path, total work and makespan lower bound are found for the whole graph
+     */
+    @Test
+    void testGraphTotals() {
+        assertEquals(11, graph.getCriticalPathLength());
+        assertEquals(14, graph.getTotalWork());
+        assertEquals(14, graph.getMakespanLowerBound(1), "One processor has to do all of the work");
+        assertEquals(11, graph.getMakespanLowerBound(2), "The critical path is longer than half the work");
+    }
+
+    /**
+     * Test that every task comes after its parents in the topological order
+     */
+    @Test
+    void testTopologicalOrder() {
+        int[] position = new int[graph.size()];
+        for (int i = 0; i < graph.size(); i++) {
+            position[graph.getTopologicalOrder(i)] = i;
+        }
+        for (int task = 0; task < graph.size(); task++) {
+            for (int e = graph.getParentsStart(task); e < graph.getParentsEnd(task); e++) {
+                assertTrue(position[graph.getParent(e)] < position[task]);
+            }
+        }
+    }
+
+    /**
+     * Test that a graph with a cycle cannot be compiled
+     */
+    @Test
+    void testCycle() {
+        nodeA.addParent(nodeD, 1);
+        List<Node> cycle = Arrays.asList(nodeA, nodeB, nodeC, nodeD);
+        assertThrows(IllegalArgumentException.class, () -> TaskGraph.compile(cycle));
+    }
+
+    /**
+     * Test that a graph cannot be compiled if a node depends on a node outside of it
+     */
+    @Test
+    void testMissingParent() {
+        List<Node> missingA = Arrays.asList(nodeB, nodeC, nodeD);
+        assertThrows(IllegalArgumentException.class, () -> TaskGraph.compile(missingA));
+    }
+}
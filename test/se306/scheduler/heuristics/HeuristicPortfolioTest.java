@@ -0,0 +1,94 @@
+package se306.scheduler.heuristics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import se306.scheduler.DotFile;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+import se306.scheduler.logic.Scheduler;
+
+/**
+ * This class tests the heuristics in {@link HeuristicPortfolio}
+ */
+class HeuristicPortfolioTest {
+
+    /**
+     * Test that every heuristic makes a valid schedule no shorter than the optimal one
+     */
+    @Test
+    void testValidSchedules() throws FileNotFoundException, InvalidFileFormatException {
+        TaskGraph graph = readGraph("test_data/Nodes_10_Random.dot");
+        for (Heuristic heuristic : new HeuristicPortfolio().getHeuristics()) {
+            PartialSchedule schedule = heuristic.schedule(graph, 4);
+            assertValid(schedule);
+            assertTrue(schedule.getMakespan() >= 50, heuristic.getName());
+        }
+    }
+
+    /**
+     * Test that the portfolio is never worse than the greedy schedule, and gives the same result every time
+     */
+    @Test
+    void testBestOfPortfolio() throws FileNotFoundException, InvalidFileFormatException {
+        for (String file : Arrays.asList("test_data/Nodes_7_OutTree.dot", "test_data/Nodes_11_OutTree.dot",
+                "test_data/Nodes_21_floating.dot")) {
+            TaskGraph graph = readGraph(file);
+            PartialSchedule best = new HeuristicPortfolio().schedule(graph, 2);
+            assertValid(best);
+            assertTrue(best.getMakespan() <= new GreedyScheduler().schedule(graph, 2).getMakespan(), file);
+            assertEquals(best.toString(), new HeuristicPortfolio().schedule(graph, 2).toString(), file);
+        }
+    }
+
+    /**
+     * Test that CPOP puts the whole critical path on the first processor
+     */
+    @Test
+    void testCriticalPathOnOneProcessor() throws FileNotFoundException, InvalidFileFormatException {
+        TaskGraph graph = readGraph("test_data/Nodes_9_SeriesParallel.dot");
+        PartialSchedule schedule = new CpopScheduler().schedule(graph, 3);
+        assertValid(schedule);
+        for (int task = 0; task < graph.size(); task++) {
+            if (graph.getTopLevelWithCommunication(task) + graph.getBottomLevelWithCommunication(task)
+                    == graph.getCriticalPathLengthWithCommunication()) {
+                assertEquals(1, schedule.getProcessor(task));
+            }
+        }
+    }
+
+    /**
+     * Asserts that every task in `schedule` starts after its parents' data arrives, and that no two tasks on the same
+     * processor overlap
+     */
+    private static void assertValid(PartialSchedule schedule) {
+        TaskGraph graph = schedule.getGraph();
+        assertTrue(schedule.allVisited());
+        for (int task = 0; task < graph.size(); task++) {
+            for (int e = graph.getParentsStart(task); e < graph.getParentsEnd(task); e++) {
+                int parent = graph.getParent(e);
+                int arrival = schedule.getStartTime(parent) + graph.getWeight(parent)
+                        + (schedule.getProcessor(parent) == schedule.getProcessor(task) ? 0 : graph.getParentCost(e));
+                assertTrue(schedule.getStartTime(task) >= arrival);
+            }
+            for (int other = task + 1; other < graph.size(); other++) {
+                if (schedule.getProcessor(task) == schedule.getProcessor(other)) {
+                    assertTrue(schedule.getStartTime(task) + graph.getWeight(task) <= schedule.getStartTime(other)
+                            || schedule.getStartTime(other) + graph.getWeight(other) <= schedule.getStartTime(task));
+                }
+            }
+        }
+    }
+
+    private static TaskGraph readGraph(String file) throws FileNotFoundException, InvalidFileFormatException {
+        Scheduler scheduler = new Scheduler(null);
+        new DotFile(file).read(scheduler);
+        return TaskGraph.compile(scheduler.getNodes());
+    }
+}
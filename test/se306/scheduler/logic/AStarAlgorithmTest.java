@@ -0,0 +1,68 @@
+package se306.scheduler.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import se306.scheduler.DotFile;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * This class tests {@link AStarAlgorithm}
+ */
+class AStarAlgorithmTest {
+
+    /**
+     * Test that the optimal makespan is found on inputs of different shapes
+     */
+    @Test
+    void testOptimalMakespan() throws FileNotFoundException, InvalidFileFormatException {
+        assertEquals(28, findMakespan(new AStarAlgorithm(2), "test_data/Nodes_7_OutTree.dot"));
+        assertEquals(55, findMakespan(new AStarAlgorithm(2), "test_data/Nodes_9_SeriesParallel.dot"));
+        assertEquals(50, findMakespan(new AStarAlgorithm(4), "test_data/Nodes_10_Random.dot"));
+        assertEquals(350, findMakespan(new AStarAlgorithm(2), "test_data/Nodes_11_OutTree.dot"));
+    }
+
+    /**
+     * Test that a cost function that estimates nothing still finds the optimal schedule, but has to expand more
+     * schedules to prove it
+     */
+    @Test
+    void testCostFunction() throws FileNotFoundException, InvalidFileFormatException {
+        AStarAlgorithm informed = new AStarAlgorithm(2);
+        assertEquals(28, findMakespan(informed, "test_data/Nodes_7_OutTree.dot"));
+
+        AStarAlgorithm uninformed = new AStarAlgorithm(2);
+        uninformed.setCostFunction(PartialSchedule::getMakespan);
+        assertEquals(28, findMakespan(uninformed, "test_data/Nodes_7_OutTree.dot"));
+        assertTrue(uninformed.getNumExpanded() > informed.getNumExpanded());
+    }
+
+    private static int findMakespan(Algorithm algorithm, String file)
+            throws FileNotFoundException, InvalidFileFormatException {
+        Scheduler scheduler = new Scheduler(algorithm);
+        new DotFile(file).read(scheduler);
+
+        CompletableFuture<Integer> makespan = new CompletableFuture<>();
+        algorithm.addListener(new AlgorithmListener() {
+
+            @Override
+            public void algorithmCompleted(PartialSchedule schedule) {
+                makespan.complete(schedule.getMakespan());
+            }
+
+            @Override
+            public void newOptimalFound(PartialSchedule schedule) {
+
+            }
+
+        });
+        scheduler.start();
+        return makespan.getNow(-1);
+    }
+}
@@ -0,0 +1,81 @@
+package se306.scheduler.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import se306.scheduler.DotFile;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.PartialSchedule;
+
+public class BNBAlgorithmInPlaceTest {
+
+	/**
+	 * Runs the algorithm on a graph and returns the makespan of the schedule it finds
+	 */
+	private int findMakespan(String fileName, int numProcessors) {
+		DotFile dot = null;
+		try {
+			dot = new DotFile(fileName);
+		} catch (InvalidFileFormatException e) {
+			fail("Impossible.");
+			e.printStackTrace();
+		}
+
+		Algorithm algorithm = new BNBAlgorithmInPlace(numProcessors);
+		Scheduler scheduler = new Scheduler(algorithm);
+		try {
+			dot.read(scheduler);
+		} catch (FileNotFoundException e) {
+			fail("Could not find input file.");
+			e.printStackTrace();
+		} catch (InvalidFileFormatException e) {
+			fail("Could not read input file.");
+			e.printStackTrace();
+		}
+
+		CompletableFuture<Integer> makespan = new CompletableFuture<>();
+		algorithm.addListener(new AlgorithmListener() {
+
+			@Override
+			public void algorithmCompleted(PartialSchedule schedule) {
+				makespan.complete(schedule.getMakespan());
+			}
+
+			@Override
+			public void newOptimalFound(PartialSchedule schedule) {
+
+			}
+
+		});
+		scheduler.start();
+
+		try {
+			return makespan.get();
+		} catch (InterruptedException | ExecutionException e) {
+			fail("Could not find makespan.");
+			e.printStackTrace();
+			return -1;
+		}
+	}
+
+	@Test
+	void testBNBAlgorithmInPlace() {
+		assertEquals(27, findMakespan("test_data/Nodes_7_OutTree.dot", 3));
+		assertEquals(55, findMakespan("test_data/Nodes_9_SeriesParallel.dot", 2));
+		assertEquals(50, findMakespan("test_data/Nodes_10_Random.dot", 4));
+	}
+
+	/**
+	 * Test a graph with groups of interchangeable tasks, which are only scheduled in one order
+	 */
+	@Test
+	void testEquivalentTasks() {
+		assertEquals(92, findMakespan("test_data/Nodes_21_floating.dot", 2));
+	}
+}
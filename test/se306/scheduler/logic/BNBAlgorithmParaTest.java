@@ -32,6 +32,9 @@ public class BNBAlgorithmParaTest {
 		} catch (FileNotFoundException e) {
 			fail("Could not find input file.");
 			e.printStackTrace();
+		} catch (InvalidFileFormatException e) {
+			fail("Could not read input file.");
+			e.printStackTrace();
 		}
 		
 		CompletableFuture<Integer> makespan = new CompletableFuture<>();
@@ -62,4 +65,35 @@ public class BNBAlgorithmParaTest {
         // on the thread execution order. so we can only make sure the resultant schedule has the correct makespan
         assertEquals(27, makespanResult);
 	}
+
+	/**
+	 * Test that the same makespan is found whether branches are never split off, or split off at every depth
+	 */
+	@Test
+	void testCutoffDepth() throws FileNotFoundException, InvalidFileFormatException {
+		for (int cutoffDepth : new int[] {0, 100}) {
+			BNBAlgorithmPara algorithm = new BNBAlgorithmPara(2, 4);
+			algorithm.setCutoffDepth(cutoffDepth);
+			Scheduler scheduler = new Scheduler(algorithm);
+			new DotFile("test_data/Nodes_9_SeriesParallel.dot").read(scheduler);
+
+			CompletableFuture<Integer> makespan = new CompletableFuture<>();
+			algorithm.addListener(new AlgorithmListener() {
+
+				@Override
+				public void algorithmCompleted(PartialSchedule schedule) {
+					makespan.complete(schedule.getMakespan());
+				}
+
+				@Override
+				public void newOptimalFound(PartialSchedule schedule) {
+
+				}
+
+			});
+			scheduler.start();
+
+			assertEquals(55, (int) makespan.getNow(-1), "Cutoff depth " + cutoffDepth + " should find the optimal makespan");
+		}
+	}
 }
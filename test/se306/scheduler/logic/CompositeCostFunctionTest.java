@@ -0,0 +1,90 @@
+package se306.scheduler.logic;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import se306.scheduler.graph.Node;
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.logic.CompositeCostFunction.Bound;
+
+/**
+ * This class tests {@link CompositeCostFunction}
+ */
+class CompositeCostFunctionTest {
+    private PartialSchedule diamond;
+
+    /**
+     * Schedules the graph below on 2 processors, with A on processor 1 and then C on processor 2 (starting at 4 once
+     * the edge from A arrives)
+     *
+     *        A(2)
+     *      1/   \2
+     *     B(3)  C(4)
+     *      2\   /1
+     *        D(5)
+     */
+    @BeforeEach
+    void scheduleSetup() {
+        Node nodeA = new Node("a", 2);
+        Node nodeB = new Node("b", 3);
+        Node nodeC = new Node("c", 4);
+        Node nodeD = new Node("d", 5);
+        nodeB.addParent(nodeA, 1);
+        nodeC.addParent(nodeA, 2);
+        nodeD.addParent(nodeB, 2);
+        nodeD.addParent(nodeC, 1);
+        diamond = new PartialSchedule(Arrays.asList(nodeA, nodeB, nodeC, nodeD), 2);
+        diamond.scheduleTask(0, 1, 0);
+        diamond.scheduleTask(2, 2, diamond.findBestStartTime(2, 2));
+    }
+
+    /**
+     * Test that each bound gives the expected estimate on its own, and that together they give the largest
+     */
+    @Test
+    void testEstimate() {
+        assertEquals(8, new CompositeCostFunction(EnumSet.noneOf(Bound.class)).estimate(diamond), "The makespan");
+        // (14 work + 4 idle on processor 2) / 2
+        assertEquals(9, new CompositeCostFunction(EnumSet.of(Bound.IDLE_TIME)).estimate(diamond));
+        // C starts at 4 and is followed by at least 4 + 5
+        assertEquals(13, new CompositeCostFunction(EnumSet.of(Bound.BOTTOM_LEVEL)).estimate(diamond));
+        // B can start at 2 on processor 1 and is followed by at least 3 + 5
+        assertEquals(10, new CompositeCostFunction(EnumSet.of(Bound.DATA_READY)).estimate(diamond));
+        assertEquals(13, new CompositeCostFunction().estimate(diamond));
+    }
+
+    /**
+     * Test that a complete schedule is estimated at exactly its makespan
+     */
+    @Test
+    void testCompleteSchedule() {
+        diamond.scheduleTask(1, 1, diamond.findBestStartTime(1, 1));
+        diamond.scheduleTask(3, 2, diamond.findBestStartTime(3, 2));
+        assertEquals(diamond.getMakespan(), new CompositeCostFunction().estimate(diamond));
+    }
+
+    /**
+     * Test that each prune is counted against the first enabled bound to prune it, and that disabled bounds never
+     * prune
+     */
+    @Test
+    void testPruneCounts() {
+        CompositeCostFunction costFunction = new CompositeCostFunction();
+        assertFalse(costFunction.exceeds(diamond, 14));
+        assertTrue(costFunction.exceeds(diamond, 13));
+        assertTrue(costFunction.exceeds(diamond, 9));
+        assertEquals(1, costFunction.getPruned(Bound.IDLE_TIME));
+        assertEquals(1, costFunction.getPruned(Bound.BOTTOM_LEVEL));
+        assertEquals(0, costFunction.getPruned(Bound.DATA_READY));
+
+        costFunction.setEnabled(Bound.BOTTOM_LEVEL, false);
+        assertFalse(costFunction.exceeds(diamond, 11));
+        assertTrue(costFunction.exceeds(diamond, 10));
+        assertEquals(1, costFunction.getPruned(Bound.DATA_READY));
+        assertEquals("idle time 1, bottom level off, data ready 1", costFunction.toString());
+    }
+}
@@ -0,0 +1,87 @@
+package se306.scheduler.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import se306.scheduler.DotFile;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * This class tests that every search stops at its deadline with a proven lower bound
+ */
+class DeadlineTest {
+
+    /**
+     * Test that a search too large to finish stops soon after its deadline with its best schedule, and a lower bound
+     * that is no lower than the one known before searching
+     */
+    @Test
+    void testStopsAtDeadline() throws FileNotFoundException, InvalidFileFormatException {
+        for (BNBAlgorithm algorithm : algorithms(4)) {
+            algorithm.setDeadline(200);
+            long start = System.nanoTime();
+            PartialSchedule schedule = run(algorithm, "test_data/Nodes_21_floating.dot");
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            String name = algorithm.getClass().getSimpleName();
+            assertTrue(elapsedMillis < 5000, name + " took " + elapsedMillis + "ms");
+            assertTrue(algorithm.isTimedOut(), name);
+            assertTrue(schedule.allVisited(), name);
+            assertTrue(algorithm.getLowerBound() >= 46, name);
+            assertTrue(algorithm.getLowerBound() <= schedule.getMakespan(), name);
+        }
+    }
+
+    /**
+     * Test that a search that finishes before its deadline proves its schedule optimal
+     */
+    @Test
+    void testFinishesBeforeDeadline() throws FileNotFoundException, InvalidFileFormatException {
+        for (BNBAlgorithm algorithm : algorithms(2)) {
+            algorithm.setDeadline(60_000);
+            PartialSchedule schedule = run(algorithm, "test_data/Nodes_7_OutTree.dot");
+
+            String name = algorithm.getClass().getSimpleName();
+            assertFalse(algorithm.isTimedOut(), name);
+            assertEquals(28, schedule.getMakespan(), name);
+            assertEquals(28, algorithm.getLowerBound(), name);
+        }
+    }
+
+    private static List<BNBAlgorithm> algorithms(int numProcessors) {
+        return Arrays.asList(new BNBAlgorithm(numProcessors), new BNBAlgorithmInPlace(numProcessors),
+                new BNBAlgorithmPara(numProcessors, 2), new AStarAlgorithm(numProcessors),
+                new HDAStarAlgorithm(numProcessors, 2));
+    }
+
+    private static PartialSchedule run(Algorithm algorithm, String file)
+            throws FileNotFoundException, InvalidFileFormatException {
+        Scheduler scheduler = new Scheduler(algorithm);
+        new DotFile(file).read(scheduler);
+
+        CompletableFuture<PartialSchedule> result = new CompletableFuture<>();
+        algorithm.addListener(new AlgorithmListener() {
+
+            @Override
+            public void algorithmCompleted(PartialSchedule schedule) {
+                result.complete(schedule);
+            }
+
+            @Override
+            public void newOptimalFound(PartialSchedule schedule) {
+
+            }
+        });
+        scheduler.start();
+        return result.join();
+    }
+}
@@ -0,0 +1,119 @@
+package se306.scheduler.logic;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import se306.scheduler.graph.Node;
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.graph.TaskGraph;
+
+/**
+ * This class tests {@link DominanceStore}
+ */
+class DominanceStoreTest {
+    private TaskGraph graph;
+
+    /**
+     * A(2) -> C(1) with an edge cost of 5, and an independent task B(3)
+     */
+    @BeforeEach
+    void graphSetup() {
+        Node nodeA = new Node("a", 2);
+        Node nodeB = new Node("b", 3);
+        Node nodeC = new Node("c", 1);
+        nodeC.addParent(nodeA, 5);
+        List<Node> nodes = Arrays.asList(nodeA, nodeB, nodeC);
+        graph = TaskGraph.compile(nodes);
+    }
+
+    /**
+     * Returns a schedule of A and B on 2 processors, with each at the given processor and start time
+     */
+    private PartialSchedule schedule(int processorA, int startA, int processorB, int startB) {
+        PartialSchedule state = new PartialSchedule(graph, 2);
+        state.scheduleTask(0, processorA, startA);
+        state.scheduleTask(1, processorB, startB);
+        return state;
+    }
+
+    /**
+     * Test that a schedule is discarded if a stored one with the same tasks finishes no later everywhere
+     */
+    @Test
+    void testDominated() {
+        DominanceStore store = new DominanceStore(1 << 20);
+        assertTrue(store.add(schedule(1, 0, 2, 0)));
+        assertFalse(store.add(schedule(1, 0, 2, 1)), "B finishes later on processor 2");
+        assertFalse(store.add(schedule(1, 0, 2, 0)), "An identical schedule is dominated");
+        assertTrue(store.add(schedule(2, 0, 1, 0)), "Neither finishes no later on both processors");
+
+        PartialSchedule onlyA = new PartialSchedule(graph, 2);
+        onlyA.scheduleTask(0, 1, 4);
+        assertTrue(store.add(onlyA), "Schedules of different tasks are never compared");
+        assertEquals(2, store.getDominated());
+        assertEquals(5, store.getLookups());
+    }
+
+    /**
+     * Test that a stored schedule is replaced when a new one dominates it
+     */
+    @Test
+    void testReplaced() {
+        DominanceStore store = new DominanceStore(1 << 20);
+        assertTrue(store.add(schedule(1, 0, 2, 1)));
+        assertTrue(store.add(schedule(1, 0, 2, 0)));
+        assertEquals(1, store.getReplaced());
+        assertFalse(store.add(schedule(1, 0, 2, 1)));
+    }
+
+    /**
+     * Test that a task on a different processor has to finish earlier by its edge cost to dominate, as its data only
+     * arrives without the edge cost on its own processor
+     */
+    @Test
+    void testDataArrival() {
+        DominanceStore store = new DominanceStore(1 << 20);
+        assertTrue(store.add(schedule(1, 0, 2, 0)));
+        // A's data arrives on processor 2 at 3 here, but only at 2 + 5 in the stored schedule
+        assertTrue(store.add(schedule(2, 1, 1, 0)));
+        // A's data arrives at 9 on processor 2 and 14 elsewhere, so the stored schedule is better
+        assertFalse(store.add(schedule(2, 7, 1, 0)));
+    }
+
+    /**
+     * Test that nothing more is stored once the memory limit is reached, so schedules are no longer found dominated
+     */
+    @Test
+    void testMemoryLimit() {
+        DominanceStore store = new DominanceStore(1);
+        assertTrue(store.add(schedule(1, 0, 2, 0)));
+        assertTrue(store.add(schedule(1, 0, 2, 1)));
+        assertEquals(2, store.getRefused());
+        assertEquals(0, store.getUsedBytes());
+    }
+
+    /**
+     * Test that the memory used counts the map's space for each set of scheduled tasks once, on top of its schedules
+     */
+    @Test
+    void testMemoryUsed() {
+        DominanceStore store = new DominanceStore(1 << 20);
+        assertTrue(store.add(schedule(1, 0, 2, 0)));
+        long first = store.getUsedBytes();
+        assertTrue(store.add(schedule(2, 0, 1, 0)));
+        long second = store.getUsedBytes() - first;
+        assertTrue(second >= 72, "The entry and its place in the list should be counted");
+        assertTrue(first > second, "The first schedule of a set of tasks also adds it to the map");
+
+        // replacing the only schedule of a set of tasks keeps the same space for the set
+        DominanceStore replacing = new DominanceStore(1 << 20);
+        replacing.add(schedule(1, 0, 2, 1));
+        long before = replacing.getUsedBytes();
+        replacing.add(schedule(1, 0, 2, 0));
+        assertEquals(before, replacing.getUsedBytes());
+    }
+}
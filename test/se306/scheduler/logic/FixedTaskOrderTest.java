@@ -0,0 +1,122 @@
+package se306.scheduler.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import se306.scheduler.DotFile;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.Node;
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * This class tests {@link FixedTaskOrder}
+ */
+class FixedTaskOrderTest {
+
+    /**
+     * Test that independent tasks joining into one child are ordered by decreasing edge cost to the child
+     */
+    @Test
+    void testJoin() {
+        Node nodeA = new Node("a", 2);
+        Node nodeB = new Node("b", 3);
+        Node nodeC = new Node("c", 1);
+        Node nodeD = new Node("d", 2);
+        nodeD.addParent(nodeA, 1);
+        nodeD.addParent(nodeB, 3);
+        nodeD.addParent(nodeC, 2);
+        PartialSchedule state = new PartialSchedule(Arrays.asList(nodeA, nodeB, nodeC, nodeD), 2);
+        assertEquals(1, FixedTaskOrder.firstTask(state), "B has the most expensive edge to D");
+    }
+
+    /**
+     * Test that a fork is ordered by data ready time, unless the edge costs to the child would then increase
+     */
+    @Test
+    void testFork() {
+        Node root = new Node("r", 2);
+        Node nodeX = new Node("x", 3);
+        Node nodeY = new Node("y", 3);
+        Node join = new Node("j", 1);
+        nodeX.addParent(root, 1);
+        nodeY.addParent(root, 5);
+        join.addParent(nodeX, 4);
+        join.addParent(nodeY, 1);
+        PartialSchedule state = new PartialSchedule(Arrays.asList(root, nodeX, nodeY, join), 2);
+        state.scheduleTask(0, 1, 0);
+        assertEquals(1, FixedTaskOrder.firstTask(state), "X's data is ready first");
+
+        root = new Node("r", 2);
+        nodeX = new Node("x", 3);
+        nodeY = new Node("y", 3);
+        join = new Node("j", 1);
+        nodeX.addParent(root, 1);
+        nodeY.addParent(root, 5);
+        join.addParent(nodeX, 1);
+        join.addParent(nodeY, 4);
+        state = new PartialSchedule(Arrays.asList(root, nodeX, nodeY, join), 2);
+        state.scheduleTask(0, 1, 0);
+        assertEquals(-1, FixedTaskOrder.firstTask(state), "Y is ready last but has the most expensive edge to J");
+    }
+
+    /**
+     * Test that there is no fixed order when a ready task has more than one child, or parents are on different
+     * processors
+     */
+    @Test
+    void testNoFixedOrder() {
+        Node nodeA = new Node("a", 2);
+        Node nodeB = new Node("b", 3);
+        Node nodeC = new Node("c", 1);
+        Node nodeD = new Node("d", 2);
+        nodeC.addParent(nodeA, 1);
+        nodeD.addParent(nodeA, 1);
+        PartialSchedule state = new PartialSchedule(Arrays.asList(nodeA, nodeB, nodeC, nodeD), 2);
+        assertEquals(-1, FixedTaskOrder.firstTask(state), "A has two children");
+
+        nodeA = new Node("a", 2);
+        nodeB = new Node("b", 3);
+        nodeC = new Node("c", 1);
+        nodeD = new Node("d", 2);
+        nodeC.addParent(nodeA, 1);
+        nodeD.addParent(nodeB, 1);
+        state = new PartialSchedule(Arrays.asList(nodeA, nodeB, nodeC, nodeD), 2);
+        state.scheduleTask(0, 1, 0);
+        state.scheduleTask(1, 2, 0);
+        assertEquals(-1, FixedTaskOrder.firstTask(state), "The parents of C and D are on different processors");
+    }
+
+    /**
+     * Test that branching only on the fixed order still finds the optimal schedule of an out-tree
+     */
+    @Test
+    void testOptimalMakespan() throws FileNotFoundException, InvalidFileFormatException {
+        for (boolean fixedTaskOrder : new boolean[] {false, true}) {
+            BNBAlgorithmInPlace algorithm = new BNBAlgorithmInPlace(2);
+            algorithm.setFixedTaskOrder(fixedTaskOrder);
+            Scheduler scheduler = new Scheduler(algorithm);
+            new DotFile("test_data/Nodes_11_OutTree.dot").read(scheduler);
+
+            CompletableFuture<Integer> makespan = new CompletableFuture<>();
+            algorithm.addListener(new AlgorithmListener() {
+
+                @Override
+                public void algorithmCompleted(PartialSchedule schedule) {
+                    makespan.complete(schedule.getMakespan());
+                }
+
+                @Override
+                public void newOptimalFound(PartialSchedule schedule) {
+
+                }
+
+            });
+            scheduler.start();
+            assertEquals(350, (int) makespan.getNow(-1));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package se306.scheduler.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import se306.scheduler.DotFile;
+import se306.scheduler.exception.InvalidFileFormatException;
+import se306.scheduler.graph.PartialSchedule;
+import se306.scheduler.util.TranspositionTable;
+import se306.scheduler.util.TranspositionTable.ReplacementPolicy;
+
+/**
+ * This class tests {@link HDAStarAlgorithm}
+ */
+class HDAStarAlgorithmTest {
+
+    /**
+     * Test that the optimal makespan is found with one worker and with several
+     */
+    @Test
+    void testOptimalMakespan() throws FileNotFoundException, InvalidFileFormatException {
+        for (int nThreads : new int[] {1, 4}) {
+            assertEquals(27, findMakespan("test_data/Nodes_7_OutTree.dot", 3, nThreads));
+            assertEquals(55, findMakespan("test_data/Nodes_9_SeriesParallel.dot", 2, nThreads));
+            assertEquals(50, findMakespan("test_data/Nodes_10_Random.dot", 4, nThreads));
+        }
+    }
+
+    /**
+     * Test that the workers' duplicate tables share the --dedup-mem budget rather than each taking all of it
+     */
+    @Test
+    void testDuplicateMemorySplit() throws FileNotFoundException, InvalidFileFormatException {
+        long budget = 4L << 20;
+        HDAStarAlgorithm algorithm = new HDAStarAlgorithm(3, 4);
+        algorithm.setDuplicateDetection(budget, ReplacementPolicy.CLOCK);
+        Scheduler scheduler = new Scheduler(algorithm);
+        new DotFile("test_data/Nodes_7_OutTree.dot").read(scheduler);
+        scheduler.start();
+
+        long slots = 0;
+        for (int i = 0; i < 4; i++) {
+            slots += ((TranspositionTable) algorithm.getClosedSet(i)).getCapacity();
+        }
+        // each slot holds a long key and an int of metadata
+        assertTrue(slots * (Long.BYTES + Integer.BYTES) <= budget, slots + " slots is over the budget");
+        assertTrue(slots > 0);
+    }
+
+    private static int findMakespan(String file, int numProcessors, int nThreads)
+            throws FileNotFoundException, InvalidFileFormatException {
+        Algorithm algorithm = new HDAStarAlgorithm(numProcessors, nThreads);
+        Scheduler scheduler = new Scheduler(algorithm);
+        new DotFile(file).read(scheduler);
+
+        CompletableFuture<Integer> makespan = new CompletableFuture<>();
+        algorithm.addListener(new AlgorithmListener() {
+
+            @Override
+            public void algorithmCompleted(PartialSchedule schedule) {
+                makespan.complete(schedule.getMakespan());
+            }
+
+            @Override
+            public void newOptimalFound(PartialSchedule schedule) {
+
+            }
+
+        });
+        scheduler.start();
+        return makespan.getNow(-1);
+    }
+}
@@ -0,0 +1,72 @@
+package se306.scheduler.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+
+import se306.scheduler.graph.Node;
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * This class tests {@link Incumbent}
+ */
+class IncumbentTest {
+
+    /**
+     * Test that only schedules shorter than the current best replace it
+     */
+    @Test
+    void testOffer() {
+        Incumbent incumbent = new Incumbent();
+        assertEquals(Integer.MAX_VALUE, incumbent.getMakespan());
+        assertNull(incumbent.getSchedule());
+
+        PartialSchedule ten = scheduleWithMakespan(10);
+        assertTrue(incumbent.offer(ten));
+        assertFalse(incumbent.offer(scheduleWithMakespan(10)), "An equally long schedule should not replace the best");
+        assertFalse(incumbent.offer(scheduleWithMakespan(12)));
+        assertSame(ten, incumbent.getSchedule());
+
+        PartialSchedule seven = scheduleWithMakespan(7);
+        assertTrue(incumbent.offer(seven));
+        assertEquals(7, incumbent.getMakespan());
+        assertSame(seven, incumbent.getSchedule());
+    }
+
+    /**
+     * Test that the shortest schedule wins when several threads offer schedules at once
+     */
+    @Test
+    void testConcurrentOffers() throws InterruptedException {
+        PartialSchedule[] schedules = new PartialSchedule[400];
+        for (int i = 0; i < schedules.length; i++) {
+            schedules[i] = scheduleWithMakespan(1000 - i);
+        }
+        Incumbent incumbent = new Incumbent();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int first = t;
+            threads[t] = new Thread(() -> {
+                for (int i = first; i < schedules.length; i += threads.length) {
+                    incumbent.offer(schedules[i]);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(601, incumbent.getMakespan());
+        assertSame(schedules[schedules.length - 1], incumbent.getSchedule());
+    }
+
+    /**
+     * Returns a complete schedule of a single task of the given weight.
+     */
+    private static PartialSchedule scheduleWithMakespan(int makespan) {
+        PartialSchedule schedule = new PartialSchedule(Collections.singletonList(new Node("a", makespan)), 1);
+        schedule.scheduleTask(0, 1, 0);
+        return schedule;
+    }
+}
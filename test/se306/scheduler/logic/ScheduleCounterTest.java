@@ -0,0 +1,85 @@
+package se306.scheduler.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import se306.scheduler.graph.Node;
+
+/**
+ * This class tests {@link ScheduleCounter}
+ */
+class ScheduleCounterTest {
+
+    /**
+     * Test that each branch cut counts P^n * n! schedules for the n tasks remaining, multiplied by the factor
+     */
+    @Test
+    void testWeights() {
+        ScheduleCounter counter = new ScheduleCounter(3, 10);
+        assertEquals(BigInteger.ZERO, counter.get());
+
+        counter.add(0, 1);
+        counter.add(2, 5);
+        counter.add(10, 2);
+        BigInteger expected = BigInteger.ONE
+                .add(BigInteger.valueOf(9 * 2 * 5))
+                .add(BigInteger.valueOf(3).pow(10).multiply(Algorithm.factorial(10)).multiply(BigInteger.valueOf(2)));
+        assertEquals(expected, counter.get());
+    }
+
+    /**
+     * Test that no counts are lost when several threads add to the counter at once
+     */
+    @Test
+    void testConcurrentAdds() throws InterruptedException {
+        ScheduleCounter counter = new ScheduleCounter(2, 4);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    counter.add(i % 5, 1);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // each thread adds 20000 branches at each depth, worth 1 + 2 + 8 + 48 + 384 schedules in total
+        assertEquals(BigInteger.valueOf(4L * 20_000 * (1 + 2 + 8 + 48 + 384)), counter.get());
+    }
+
+    /**
+     * Test that only the weights of depths with branches cut are worked out, so a counter for a large graph is cheap
+     */
+    @Test
+    void testLargeGraph() {
+        ScheduleCounter counter = new ScheduleCounter(2, 100_000);
+        counter.add(3, 1);
+        assertEquals(BigInteger.valueOf(8 * 6), counter.get());
+    }
+
+    /**
+     * Test that a graph of 100000 tasks can be given to an algorithm that is not counting schedules, without making a
+     * counter for it
+     */
+    @Test
+    void testNotCounting() {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            Node node = new Node("t" + i, 1 + i % 7);
+            if (i > 0) {
+                node.addParent(nodes.get(i / 2), 1);
+            }
+            nodes.add(node);
+        }
+        HeuristicAlgorithm algorithm = new HeuristicAlgorithm(4);
+        algorithm.setCountingSchedules(false);
+        algorithm.setGraph(nodes);
+        assertEquals(BigInteger.ZERO, algorithm.getSchedulesChecked());
+    }
+}
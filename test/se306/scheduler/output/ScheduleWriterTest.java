@@ -0,0 +1,81 @@
+package se306.scheduler.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se306.scheduler.graph.Node;
+import se306.scheduler.graph.PartialSchedule;
+
+/**
+ * This class tests the output of each {@link ScheduleWriter}
+ */
+class ScheduleWriterTest {
+    private static final String LS = System.lineSeparator();
+
+    private PartialSchedule schedule;
+    // a, then "b,c" with a dependency from a declared between them
+    private final int[] statements = { -1, 0, 0, 1, -1, 1 };
+
+    @BeforeEach
+    void scheduleSetup() {
+        Node a = new Node("a", 2);
+        Node bc = new Node("b,\"c\"", 3);
+        bc.addParent(a, 4);
+        schedule = new PartialSchedule(Arrays.asList(a, bc), 2);
+        schedule.scheduleTask(0, 1, 0);
+        schedule.scheduleTask(1, 2, 6);
+    }
+
+    private String write(ScheduleWriter writer, int lowerBound) throws IOException {
+        StringWriter out = new StringWriter();
+        writer.write(out, "graph", schedule, lowerBound, statements);
+        return out.toString();
+    }
+
+    @Test
+    void testDot() throws IOException {
+        assertEquals(("digraph \"outputGraph\" {\n"
+                + "\ta\t[Weight=2,Start=0,Processor=1];\n"
+                + "\ta -> \"b,\\\"c\\\"\"\t[Weight=4];\n"
+                + "\t\"b,\\\"c\\\"\"\t[Weight=3,Start=6,Processor=2];\n"
+                + "}\n").replace("\n", LS), write(new DotScheduleWriter(), 9));
+    }
+
+    @Test
+    void testDotLowerBound() throws IOException {
+        String output = write(new DotScheduleWriter(), 6);
+        assertEquals(("digraph \"outputGraph\" {\n\tLowerBound=6;\n\tGap=0.3333;\n").replace("\n", LS),
+                output.substring(0, output.indexOf("\ta")));
+    }
+
+    @Test
+    void testJson() throws IOException {
+        assertEquals(("{\n"
+                + "  \"graph\": \"graph\",\n"
+                + "  \"processors\": 2,\n"
+                + "  \"makespan\": 9,\n"
+                + "  \"lowerBound\": 6,\n"
+                + "  \"optimal\": false,\n"
+                + "  \"tasks\": [\n"
+                + "    {\"name\": \"a\", \"weight\": 2, \"start\": 0, \"processor\": 1},\n"
+                + "    {\"name\": \"b,\\\"c\\\"\", \"weight\": 3, \"start\": 6, \"processor\": 2}\n"
+                + "  ],\n"
+                + "  \"dependencies\": [\n"
+                + "    {\"from\": \"a\", \"to\": \"b,\\\"c\\\"\", \"weight\": 4}\n"
+                + "  ]\n"
+                + "}\n").replace("\n", LS), write(new JsonScheduleWriter(), 6));
+    }
+
+    @Test
+    void testCsv() throws IOException {
+        assertEquals(("task,weight,processor,start,finish\n"
+                + "a,2,1,0,2\n"
+                + "\"b,\"\"c\"\"\",3,2,6,9\n").replace("\n", LS), write(new CsvScheduleWriter(), 9));
+    }
+}
@@ -0,0 +1,59 @@
+package se306.scheduler.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * This class tests {@link LongHashSet} and {@link ConcurrentLongHashSet}
+ */
+class LongHashSetTest {
+
+    /**
+     * Test that keys can be added once, including the key 0 which is used internally to mark empty slots
+     */
+    @Test
+    void testAddAndContains() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(5));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-5));
+        assertFalse(set.add(5), "Adding an existing key should return false");
+        assertFalse(set.add(0), "Adding 0 twice should return false");
+
+        assertTrue(set.contains(5));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-5));
+        assertFalse(set.contains(6));
+        assertEquals(3, set.size());
+
+        set.clear();
+        assertFalse(set.contains(5));
+        assertFalse(set.contains(0));
+        assertEquals(0, set.size());
+    }
+
+    /**
+     * Test that the set keeps all of its keys as it grows, by comparing it to a {@link HashSet}
+     */
+    @Test
+    void testGrowth() {
+        LongSet[] sets = { new LongHashSet(4), new ConcurrentLongHashSet() };
+        for (LongSet set : sets) {
+            Set<Long> expected = new HashSet<>();
+            Random random = new Random(306);
+            for (int i = 0; i < 100000; i++) {
+                // a small range, so that some keys are repeated
+                long key = random.nextInt(50000) * 0x100000001L;
+                assertEquals(expected.add(key), set.add(key));
+            }
+            assertEquals(expected.size(), set.size());
+            for (long key : expected) {
+                assertTrue(set.contains(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package se306.scheduler.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import se306.scheduler.util.TranspositionTable.ReplacementPolicy;
+
+/**
+ * This class tests {@link TranspositionTable}
+ */
+class TranspositionTableTest {
+
+    /**
+     * Test that keys can be added once while the table has room, and that hits are counted
+     */
+    @Test
+    void testAddAndContains() {
+        TranspositionTable table = new TranspositionTable(1 << 20, ReplacementPolicy.ALWAYS);
+        assertTrue(table.add(5));
+        assertTrue(table.add(0));
+        assertFalse(table.add(5), "Adding an existing key should return false");
+        assertFalse(table.add(0), "Adding 0 twice should return false");
+
+        assertTrue(table.contains(5));
+        assertTrue(table.contains(0));
+        assertFalse(table.contains(6));
+        assertEquals(2, table.size());
+        assertEquals(4, table.getLookups());
+        assertEquals(2, table.getHits());
+        assertEquals(0.5, table.getHitRate());
+    }
+
+    /**
+     * Test that the table never holds more keys than its memory allows, and never reports a key it was not given, for
+     * every replacement policy
+     */
+    @Test
+    void testFixedCapacity() {
+        for (ReplacementPolicy policy : ReplacementPolicy.values()) {
+            TranspositionTable table = new TranspositionTable(1024, policy);
+            assertTrue(table.getCapacity() * 12 <= 1024, "The table should fit in its memory budget");
+
+            Random random = new Random(306);
+            Set<Long> added = new HashSet<>();
+            for (int i = 0; i < 10_000; i++) {
+                long key = random.nextLong();
+                added.add(key);
+                table.add(key, random.nextInt(10));
+            }
+            assertEquals(table.getCapacity(), table.size(), policy + " should fill every slot");
+            assertTrue(table.getEvictions() > 0);
+
+            for (int i = 0; i < 10_000; i++) {
+                long key = random.nextLong();
+                if (!added.contains(key)) {
+                    assertFalse(table.contains(key), policy + " should not contain keys that were never added");
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that the depth policy keeps shallow keys instead of replacing them with deeper ones
+     */
+    @Test
+    void testDepthPreferred() {
+        TranspositionTable table = new TranspositionTable(1024, ReplacementPolicy.DEPTH);
+        Random random = new Random(306);
+        while (table.size() < table.getCapacity()) {
+            table.add(random.nextLong(), 1);
+        }
+        Set<Long> shallow = new HashSet<>();
+        random = new Random(306);
+        for (int i = 0; shallow.size() < table.getCapacity(); i++) {
+            long key = random.nextLong();
+            if (table.contains(key)) {
+                shallow.add(key);
+            }
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(table.add(random.nextLong(), 5));
+        }
+        for (long key : shallow) {
+            assertTrue(table.contains(key), "Deeper keys should not replace shallower ones");
+        }
+    }
+
+    /**
+     * Test that the clock policy evicts a key that has not been looked up before one that has
+     */
+    @Test
+    void testClockKeepsRecentlyUsed() {
+        TranspositionTable table = new TranspositionTable(1024, ReplacementPolicy.CLOCK);
+        long[] keys = keysInBucket(table, 0, 5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(table.add(keys[i]));
+        }
+        assertFalse(table.add(keys[0]));
+        assertFalse(table.add(keys[1]));
+        assertFalse(table.add(keys[3]));
+
+        assertTrue(table.add(keys[4]));
+        assertEquals(1, table.getEvictions());
+        assertTrue(table.contains(keys[4]));
+        assertFalse(table.contains(keys[2]), "The only key that was not looked up should be evicted");
+        assertTrue(table.contains(keys[0]));
+        assertTrue(table.contains(keys[1]));
+        assertTrue(table.contains(keys[3]));
+    }
+
+    /**
+     * Returns `count` random keys that fall in the same bucket of `table`.
+     */
+    private static long[] keysInBucket(TranspositionTable table, int bucket, int count) {
+        Random random = new Random(306);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; ) {
+            long key = random.nextLong();
+            if (table.bucket(key) == bucket) {
+                keys[i++] = key;
+            }
+        }
+        return keys;
+    }
+}